@@ -0,0 +1,933 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie whose nodes store their children in primitive
+ * arrays that adapt to the number of children, in the style of an adaptive
+ * radix tree. A leaf has no arrays. A node with up to 4 children holds sorted
+ * keys that are scanned, and a node with up to 16 children holds sorted keys
+ * that are searched. When more children share the same 256 character page,
+ * the node moves to a 256 entry index into 48 children, and then to a direct
+ * table of 256 children. Children that do not share a page stay in the sorted
+ * keys, which grow as needed.
+ *
+ * A node is one small object and its arrays, so the Trie uses a fraction of
+ * the memory of a <code>LinkedHashMapTrie</code>, which has a map in every
+ * node. The words are returned in character order.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class AdaptiveTrie implements Trie
+{
+
+    /**
+     * The node within an AdaptiveTrie.
+     *
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static class AdaptiveNode
+    {
+        /*
+         * The kinds of child storage.
+         */
+        private static final byte LEAF    = 0;
+        private static final byte NODE4   = 1;
+        private static final byte NODE16  = 2;
+        private static final byte NODE48  = 3;
+        private static final byte NODE256 = 4;
+
+        /*
+         * The number of children that each kind can hold. A NODE16 holds more
+         * when its keys are not on one page.
+         */
+        private static final int  CAPACITY4  = 4;
+        private static final int  CAPACITY16 = 16;
+        private static final int  CAPACITY48 = 48;
+        private static final int  PAGE_SIZE  = 256;
+
+        /*
+         * The kind of child storage.
+         */
+        private byte              _kind;
+
+        /*
+         * A flag to mark that the node is the end of a word.
+         */
+        private boolean           _isWord;
+
+        /*
+         * The first character of the page of a NODE48 or NODE256.
+         */
+        private char              _page;
+
+        /*
+         * The number of children.
+         */
+        private int               _count;
+
+        /*
+         * The sorted keys of a NODE4 or NODE16.
+         */
+        private char[]            _keys;
+
+        /*
+         * The slot plus one of the child for each character of the page of a
+         * NODE48. A value of 0 means there is no child.
+         */
+        private byte[]            _index;
+
+        /*
+         * The children. For a NODE4 or NODE16 they are in the order of the
+         * keys, for a NODE48 they are in slots and for a NODE256 they are in
+         * the order of the page.
+         */
+        private AdaptiveNode[]    _children;
+
+        /**
+         * Constructor.
+         */
+        protected AdaptiveNode()
+        {
+            this._kind = LEAF;
+        }
+
+        /**
+         * A flag to determine if this node is the end of a word.
+         *
+         * @return A boolean value - true if it is the end of a word. Otherwise
+         *         it is false.
+         */
+        public boolean isWord()
+        {
+            return (this._isWord);
+        }
+
+        /**
+         * A method to determine if the node is a leaf. A node is a leaf if it
+         * does not have any children.
+         *
+         * @return A boolean value. Will return true if the node is a leaf,
+         *         otherwise it will be false.
+         */
+        public boolean isLeaf()
+        {
+            return (this._count == 0);
+        }
+
+        /**
+         * Gets the number of children.
+         *
+         * @return An int value of 0 or more.
+         */
+        public int getChildCount()
+        {
+            return (this._count);
+        }
+
+        /**
+         * Gets the number of children that the current storage can hold
+         * before it changes. Is used to see how the node has adapted.
+         *
+         * @return An int value of 0 or more.
+         */
+        public int getCapacity()
+        {
+            switch (this._kind)
+            {
+                case NODE4:
+                case NODE16:
+                    return (this._keys.length);
+                case NODE48:
+                    return (CAPACITY48);
+                case NODE256:
+                    return (PAGE_SIZE);
+                default:
+                    return (0);
+            }
+        }
+
+        /*
+         * Gets the child for the character. Returns null if there is not one.
+         */
+        AdaptiveNode getChild(final char character)
+        {
+            switch (this._kind)
+            {
+                case NODE4:
+                {
+                    final char[] keys = this._keys;
+                    for (int i = 0; i < this._count; ++i)
+                    {
+                        if (keys[i] == character)
+                        {
+                            return (this._children[i]);
+                        }
+                    }
+                    return (null);
+                }
+                case NODE16:
+                {
+                    final int index = Arrays.binarySearch(this._keys, 0, this._count, character);
+                    return (index < 0 ? null : this._children[index]);
+                }
+                case NODE48:
+                {
+                    if (pageOf(character) != this._page)
+                    {
+                        return (null);
+                    }
+                    final int slot = this._index[character % PAGE_SIZE];
+                    return (slot == 0 ? null : this._children[slot - 1]);
+                }
+                case NODE256:
+                {
+                    return (pageOf(character) != this._page ? null : this._children[character % PAGE_SIZE]);
+                }
+                default:
+                    return (null);
+            }
+        }
+
+        /*
+         * Adds a child. A child for the character must not exist. The storage
+         * is changed to the next kind when it is full.
+         */
+        void addChild(final char character, final AdaptiveNode child)
+        {
+            assert (this.getChild(character) == null) : "A child for the character should not exist.";
+            switch (this._kind)
+            {
+                case LEAF:
+                    this._kind = NODE4;
+                    this._keys = new char[CAPACITY4];
+                    this._children = new AdaptiveNode[CAPACITY4];
+                    this.insertSorted(character, child);
+                    break;
+                case NODE4:
+                    if (this._count == CAPACITY4)
+                    {
+                        this._kind = NODE16;
+                        this._keys = Arrays.copyOf(this._keys, CAPACITY16);
+                        this._children = Arrays.copyOf(this._children, CAPACITY16);
+                    }
+                    this.insertSorted(character, child);
+                    break;
+                case NODE16:
+                    if (this._count < CAPACITY16 || !this.isOnePage(character))
+                    {
+                        if (this._count == this._keys.length)
+                        {
+                            this._keys = Arrays.copyOf(this._keys, this._count << 1);
+                            this._children = Arrays.copyOf(this._children, this._count << 1);
+                        }
+                        this.insertSorted(character, child);
+                    }
+                    else
+                    {
+                        this.convert(this._count < CAPACITY48 ? NODE48 : NODE256);
+                        this.addChild(character, child);
+                    }
+                    break;
+                case NODE48:
+                    if (pageOf(character) != this._page)
+                    {
+                        this.convert(NODE16);
+                        this.addChild(character, child);
+                    }
+                    else if (this._count == CAPACITY48)
+                    {
+                        this.convert(NODE256);
+                        this.addChild(character, child);
+                    }
+                    else
+                    {
+                        // the slots are kept packed, so the next slot is free.
+                        this._children[this._count] = child;
+                        ++this._count;
+                        this._index[character % PAGE_SIZE] = (byte) this._count;
+                    }
+                    break;
+                case NODE256:
+                    if (pageOf(character) != this._page)
+                    {
+                        this.convert(NODE16);
+                        this.addChild(character, child);
+                    }
+                    else
+                    {
+                        this._children[character % PAGE_SIZE] = child;
+                        ++this._count;
+                    }
+                    break;
+                default:
+                    throw (new IllegalStateException("The node kind " + this._kind + " is not known."));
+            }
+        }
+
+        /*
+         * Removes the child for the character. The child must exist. The
+         * storage is changed to a smaller kind when it is mostly empty.
+         */
+        void removeChild(final char character)
+        {
+            assert (this.getChild(character) != null) : "A child for the character should exist.";
+            switch (this._kind)
+            {
+                case NODE4:
+                case NODE16:
+                {
+                    final int index = Arrays.binarySearch(this._keys, 0, this._count, character);
+                    --this._count;
+                    System.arraycopy(this._keys, index + 1, this._keys, index, this._count - index);
+                    System.arraycopy(this._children, index + 1, this._children, index, this._count - index);
+                    this._children[this._count] = null;
+                    if (this._kind == NODE16 && this._count <= CAPACITY4 - 1)
+                    {
+                        this.convert(NODE4);
+                    }
+                    else if (this._kind == NODE16 && this._count > CAPACITY16
+                            && this._count <= this._keys.length >> 2)
+                    {
+                        this._keys = Arrays.copyOf(this._keys, this._keys.length >> 1);
+                        this._children = Arrays.copyOf(this._children, this._children.length >> 1);
+                    }
+                    break;
+                }
+                case NODE48:
+                {
+                    // move the last slot into the hole so the slots stay
+                    // packed.
+                    final int hole = this._index[character % PAGE_SIZE] - 1;
+                    this._index[character % PAGE_SIZE] = 0;
+                    --this._count;
+                    if (hole != this._count)
+                    {
+                        this._children[hole] = this._children[this._count];
+                        for (int i = 0; i < PAGE_SIZE; ++i)
+                        {
+                            if (this._index[i] == this._count + 1)
+                            {
+                                this._index[i] = (byte) (hole + 1);
+                                break;
+                            }
+                        }
+                    }
+                    this._children[this._count] = null;
+                    if (this._count <= CAPACITY16 - 4)
+                    {
+                        this.convert(NODE16);
+                    }
+                    break;
+                }
+                case NODE256:
+                {
+                    this._children[character % PAGE_SIZE] = null;
+                    --this._count;
+                    if (this._count <= CAPACITY48 - 8)
+                    {
+                        this.convert(NODE48);
+                    }
+                    break;
+                }
+                default:
+                    throw (new IllegalStateException("The node does not have children."));
+            }
+
+            if (this._count == 0)
+            {
+                this._kind = LEAF;
+                this._keys = null;
+                this._index = null;
+                this._children = null;
+            }
+        }
+
+        /*
+         * Gets the position of the first child at or after the position, in
+         * character order. Returns -1 if there is not one.
+         */
+        int nextPosition(final int position)
+        {
+            switch (this._kind)
+            {
+                case NODE4:
+                case NODE16:
+                    return (position < this._count ? position : -1);
+                case NODE48:
+                    for (int i = position; i < PAGE_SIZE; ++i)
+                    {
+                        if (this._index[i] != 0)
+                        {
+                            return (i);
+                        }
+                    }
+                    return (-1);
+                case NODE256:
+                    for (int i = position; i < PAGE_SIZE; ++i)
+                    {
+                        if (this._children[i] != null)
+                        {
+                            return (i);
+                        }
+                    }
+                    return (-1);
+                default:
+                    return (-1);
+            }
+        }
+
+        /*
+         * Gets the character of the child at a position.
+         */
+        char keyAt(final int position)
+        {
+            return (this._kind <= NODE16 ? this._keys[position] : (char) (this._page + position));
+        }
+
+        /*
+         * Gets the child at a position.
+         */
+        AdaptiveNode childAt(final int position)
+        {
+            return (this._kind == NODE48 ? this._children[this._index[position] - 1] : this._children[position]);
+        }
+
+        /*
+         * Adds a child to the sorted keys. There must be room.
+         */
+        private void insertSorted(final char character, final AdaptiveNode child)
+        {
+            int index = this._count;
+            while (index > 0 && this._keys[index - 1] > character)
+            {
+                --index;
+            }
+            System.arraycopy(this._keys, index, this._keys, index + 1, this._count - index);
+            System.arraycopy(this._children, index, this._children, index + 1, this._count - index);
+            this._keys[index] = character;
+            this._children[index] = child;
+            ++this._count;
+        }
+
+        /*
+         * Determines if the sorted keys and the character are on one page.
+         */
+        private boolean isOnePage(final char character)
+        {
+            final char page = pageOf(character);
+            return (pageOf(this._keys[0]) == page && pageOf(this._keys[this._count - 1]) == page);
+        }
+
+        /*
+         * Moves the children to a new kind of storage.
+         */
+        private void convert(final byte kind)
+        {
+            final int count = this._count;
+            final char[] keys = new char[count];
+            final AdaptiveNode[] children = new AdaptiveNode[count];
+            int position = this.nextPosition(0);
+            for (int i = 0; i < count; ++i)
+            {
+                keys[i] = this.keyAt(position);
+                children[i] = this.childAt(position);
+                position = this.nextPosition(position + 1);
+            }
+
+            this._kind = kind;
+            this._keys = null;
+            this._index = null;
+            switch (kind)
+            {
+                case NODE4:
+                case NODE16:
+                {
+                    final int capacity = (kind == NODE4 ? CAPACITY4 : Math.max(CAPACITY16, count + 1));
+                    this._keys = Arrays.copyOf(keys, capacity);
+                    this._children = Arrays.copyOf(children, capacity);
+                    break;
+                }
+                case NODE48:
+                {
+                    this._page = pageOf(keys[0]);
+                    this._index = new byte[PAGE_SIZE];
+                    this._children = Arrays.copyOf(children, CAPACITY48);
+                    for (int i = 0; i < count; ++i)
+                    {
+                        this._index[keys[i] % PAGE_SIZE] = (byte) (i + 1);
+                    }
+                    break;
+                }
+                case NODE256:
+                {
+                    this._page = pageOf(keys[0]);
+                    this._children = new AdaptiveNode[PAGE_SIZE];
+                    for (int i = 0; i < count; ++i)
+                    {
+                        this._children[keys[i] % PAGE_SIZE] = children[i];
+                    }
+                    break;
+                }
+                default:
+                    throw (new IllegalStateException("The node kind " + kind + " is not known."));
+            }
+        }
+
+        /*
+         * Gets the first character of the page of a character.
+         */
+        private static char pageOf(final char character)
+        {
+            return ((char) (character & ~(PAGE_SIZE - 1)));
+        }
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of nodes and the next child position to visit at each node.
+     */
+    private static class WordIterator implements Iterator<String>
+    {
+        /*
+         * The nodes on the current path.
+         */
+        private AdaptiveNode[]      _nodes;
+
+        /*
+         * The position of the next child to visit at each node.
+         */
+        private int[]               _positions;
+
+        /*
+         * The number of nodes on the current path.
+         */
+        private int                 _size;
+
+        /*
+         * The length of the word at the start node.
+         */
+        private final int           _prefixLength;
+
+        /*
+         * The word that ends at the current node.
+         */
+        private final StringBuilder _word;
+
+        /*
+         * The next word to return. Is null if it has not been found yet.
+         */
+        private String              _next;
+
+        /*
+         * @param start The node to start from.
+         *
+         * @param prefix The word that ends at the start node.
+         */
+        WordIterator(final AdaptiveNode start, final StringBuilder prefix)
+        {
+            this._nodes = new AdaptiveNode[16];
+            this._positions = new int[16];
+            this._nodes[0] = start;
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (start._isWord)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the nodes until the next word is found or all of the
+         * nodes were visited.
+         */
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final AdaptiveNode node = this._nodes[top];
+                final int position = node.nextPosition(this._positions[top]);
+                if (position >= 0)
+                {
+                    this._positions[top] = position + 1;
+                    final AdaptiveNode child = node.childAt(position);
+                    this._word.setLength(this._prefixLength + top);
+                    this._word.append(node.keyAt(position));
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._positions = Arrays.copyOf(this._positions, this._size << 1);
+                    }
+                    this._nodes[this._size] = child;
+                    this._positions[this._size] = 0;
+                    ++this._size;
+                    if (child._isWord)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._nodes[top] = null;
+                    --this._size;
+                }
+            }
+        }
+    }
+
+    /*
+     * The root of the Trie.
+     */
+    private AdaptiveNode _root;
+
+    /*
+     * The number of words in the Trie.
+     */
+    private int          _size;
+
+    /**
+     * Constructor.
+     */
+    public AdaptiveTrie()
+    {
+        this._root = new AdaptiveNode();
+    }
+
+    /**
+     * Used to clear and reset the Trie.
+     */
+    @Override
+    public void clear()
+    {
+        this._root = new AdaptiveNode();
+        this._size = 0;
+    }
+
+    /**
+     * Gets the root of the Trie.
+     *
+     * @return The root <code>AdaptiveNode</code> instance.
+     */
+    public AdaptiveNode getRoot()
+    {
+        return (this._root);
+    }
+
+    /**
+     * Gets the number of nodes including the root.
+     *
+     * @return An integer value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        int count = 0;
+        AdaptiveNode[] stack = new AdaptiveNode[16];
+        stack[0] = this._root;
+        int size = 1;
+        while (size > 0)
+        {
+            final AdaptiveNode node = stack[--size];
+            ++count;
+            for (int position = node.nextPosition(0); position >= 0; position = node.nextPosition(position + 1))
+            {
+                if (size == stack.length)
+                {
+                    stack = Arrays.copyOf(stack, size << 1);
+                }
+                stack[size++] = node.childAt(position);
+            }
+        }
+        return (count);
+    }
+
+    /**
+     * Add a word to the Trie.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.addWord(word, 0, word.length());
+    }
+
+    /**
+     * Add a range of characters as a word. Only a null check is done, so
+     * adding a word that is already in the Trie does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+        this.addWord(word, start, end);
+    }
+
+    /**
+     * Removes a word from the Trie. The nodes that no longer lead to a word
+     * are removed, up to the nearest node that is a word or has another
+     * child.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        final AdaptiveNode[] path = new AdaptiveNode[count + 1];
+        path[0] = this._root;
+        for (int i = 0; i < count; ++i)
+        {
+            path[i + 1] = path[i].getChild(word.charAt(i));
+            if (path[i + 1] == null)
+            {
+                return (false);
+            }
+        }
+        if (!path[count]._isWord)
+        {
+            return (false);
+        }
+
+        path[count]._isWord = false;
+        --this._size;
+        for (int i = count; i > 0 && path[i].isLeaf() && !path[i]._isWord; --i)
+        {
+            path[i - 1].removeChild(word.charAt(i - 1));
+        }
+        return (true);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (this.containsWord(word, 0, word.length()));
+    }
+
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done, so the lookup does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        return (start < end && this.containsWord(word, start, end));
+    }
+
+    /**
+     * Gets the number of words in the Trie.
+     *
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int size()
+    {
+        return (this._size);
+    }
+
+    /**
+     * Gets all of the words that were added.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords("");
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix. The prefix is walked as far as it matches
+     * and the words below the last matching character are returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix. The words are found
+     * as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int count = prefix.length();
+        AdaptiveNode node = this._root;
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final AdaptiveNode child = node.getChild(character);
+            if (child == null)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            node = child;
+            prefixWord.append(character);
+        }
+        return (new WordIterator(node, prefixWord));
+    }
+
+    /*
+     * Adds the nodes for the characters of a word from start to end and marks
+     * the last node as the end of a word.
+     */
+    private void addWord(final CharSequence word, final int start, final int end)
+    {
+        AdaptiveNode node = this._root;
+        for (int i = start; i < end; ++i)
+        {
+            final char character = word.charAt(i);
+            AdaptiveNode child = node.getChild(character);
+            if (child == null)
+            {
+                child = new AdaptiveNode();
+                node.addChild(character, child);
+            }
+            node = child;
+        }
+        if (!node._isWord)
+        {
+            node._isWord = true;
+            ++this._size;
+        }
+    }
+
+    /*
+     * Walks the characters of a word from start to end. The range must not be
+     * empty.
+     */
+    private boolean containsWord(final CharSequence word, final int start, final int end)
+    {
+        AdaptiveNode node = this._root;
+        for (int i = start; i < end; ++i)
+        {
+            node = node.getChild(word.charAt(i));
+            if (node == null)
+            {
+                // if the character is not found. STOP.
+                return (false);
+            }
+        }
+        return (node._isWord);
+    }
+}
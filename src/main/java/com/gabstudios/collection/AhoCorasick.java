@@ -0,0 +1,403 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An Aho-Corasick automaton that finds every word of a Trie in a text in one
+ * pass. Use compile( Trie trie ) to create one. The automaton is a copy of the
+ * words, so the Trie may be changed after it is compiled.
+ *
+ * The states are numbered in breadth first order and held in int arrays. The
+ * children of a state are the states between its first and last child, sorted
+ * by their character. Each state has a failure link to the state of its
+ * longest proper suffix, and an output link to the next state on the failure
+ * chain that is the end of a word.
+ *
+ * An instance is immutable and may be shared by threads.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public final class AhoCorasick
+{
+
+    /**
+     * Receives the words that are found by a match method.
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public interface MatchListener
+    {
+        /**
+         * Called for each word that is found. Words that end at the same
+         * position are reported longest first.
+         *
+         * @param start
+         *            The position of the first character of the word.
+         * @param end
+         *            The position after the last character of the word.
+         * @param word
+         *            The word that was found.
+         */
+        public void onMatch(long start, long end, String word);
+    }
+
+    /*
+     * The state of the empty word.
+     */
+    private static final int ROOT        = 0;
+
+    /*
+     * A missing child, word or output link.
+     */
+    private static final int NONE        = -1;
+
+    /*
+     * The number of characters that are read from a reader at a time.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /*
+     * The character of the edge into each state.
+     */
+    private final char[]     _labels;
+
+    /*
+     * The first child of each state.
+     */
+    private final int[]      _firstChild;
+
+    /*
+     * The state after the last child of each state.
+     */
+    private final int[]      _endChild;
+
+    /*
+     * The failure link of each state.
+     */
+    private final int[]      _fail;
+
+    /*
+     * The index of the word that ends at each state, or NONE.
+     */
+    private final int[]      _word;
+
+    /*
+     * The next state on the failure chain that is the end of a word, or NONE.
+     */
+    private final int[]      _output;
+
+    /*
+     * The words, sorted.
+     */
+    private final String[]   _words;
+
+    /*
+     * Use compile( Trie trie ).
+     */
+    private AhoCorasick(final char[] labels, final int[] firstChild, final int[] endChild, final int[] fail,
+            final int[] word, final int[] output, final String[] words)
+    {
+        this._labels = labels;
+        this._firstChild = firstChild;
+        this._endChild = endChild;
+        this._fail = fail;
+        this._word = word;
+        this._output = output;
+        this._words = words;
+    }
+
+    /**
+     * Compiles the words of a Trie into an automaton.
+     *
+     * @param trie
+     *            The <code>Trie</code> instance to compile. Must not be null.
+     * @return The <code>AhoCorasick</code> instance that was created.
+     */
+    public static AhoCorasick compile(final Trie trie)
+    {
+        Validate.defineObject(trie).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final List<String> list = new ArrayList<String>();
+        long characterCount = 0;
+        final Iterator<String> iterator = trie.iterateWords("");
+        while (iterator.hasNext())
+        {
+            final String word = iterator.next();
+            list.add(word);
+            characterCount += word.length();
+        }
+        if (characterCount >= Integer.MAX_VALUE)
+        {
+            throw (new IllegalArgumentException("The Trie has too many characters to compile."));
+        }
+
+        final String[] words = list.toArray(new String[list.size()]);
+        Arrays.sort(words);
+
+        // there is at most one state for each character, plus the root.
+        final int capacity = (int) characterCount + 1;
+        final char[] labels = new char[capacity];
+        final int[] firstChild = new int[capacity];
+        final int[] endChild = new int[capacity];
+        final int[] word = new int[capacity];
+        final int[] parent = new int[capacity];
+
+        // the words below a state are the words from its low to its high
+        // index, and the state is at the depth of its word length.
+        final int[] low = new int[capacity];
+        final int[] high = new int[capacity];
+        final int[] depth = new int[capacity];
+        high[ROOT] = words.length;
+        parent[ROOT] = NONE;
+
+        // each state is visited in the order it was created, so the children
+        // are created in breadth first order.
+        int stateCount = 1;
+        for (int state = 0; state < stateCount; ++state)
+        {
+            int i = low[state];
+            final int end = high[state];
+            final int length = depth[state];
+            word[state] = NONE;
+            if (i < end && words[i].length() == length)
+            {
+                // a word that ends at this state sorts before the longer words.
+                word[state] = i;
+                ++i;
+            }
+
+            firstChild[state] = stateCount;
+            while (i < end)
+            {
+                final char label = words[i].charAt(length);
+                int j = i + 1;
+                while (j < end && words[j].charAt(length) == label)
+                {
+                    ++j;
+                }
+                final int child = stateCount++;
+                labels[child] = label;
+                parent[child] = state;
+                low[child] = i;
+                high[child] = j;
+                depth[child] = length + 1;
+                i = j;
+            }
+            endChild[state] = stateCount;
+        }
+
+        final AhoCorasick automaton = new AhoCorasick(Arrays.copyOf(labels, stateCount),
+                Arrays.copyOf(firstChild, stateCount), Arrays.copyOf(endChild, stateCount), new int[stateCount],
+                Arrays.copyOf(word, stateCount), new int[stateCount], words);
+        automaton.link(parent);
+        return (automaton);
+    }
+
+    /**
+     * Gets the number of words.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getWordCount()
+    {
+        return (this._words.length);
+    }
+
+    /**
+     * Gets the number of states, including the root.
+     *
+     * @return An int value of 1 or more.
+     */
+    public int getStateCount()
+    {
+        return (this._labels.length);
+    }
+
+    /**
+     * Finds the words in a text.
+     *
+     * @param text
+     *            The <code>CharSequence</code> instance to search. Must not be
+     *            null.
+     * @param listener
+     *            The <code>MatchListener</code> instance to report each word
+     *            to. Must not be null.
+     */
+    public void match(final CharSequence text, final MatchListener listener)
+    {
+        Validate.defineObject(text).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(listener).testNotNull().throwValidationExceptionOnFail().validate();
+
+        int state = ROOT;
+        final int count = text.length();
+        for (int i = 0; i < count; ++i)
+        {
+            state = this.step(state, text.charAt(i));
+            this.report(state, i + 1, listener);
+        }
+    }
+
+    /**
+     * Finds the words in the remaining characters of a buffer. The position of
+     * the buffer is not changed. The positions that are reported are relative
+     * to the position of the buffer.
+     *
+     * @param buffer
+     *            The <code>CharBuffer</code> instance to search. Must not be
+     *            null.
+     * @param listener
+     *            The <code>MatchListener</code> instance to report each word
+     *            to. Must not be null.
+     */
+    public void match(final CharBuffer buffer, final MatchListener listener)
+    {
+        Validate.defineObject(buffer).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(listener).testNotNull().throwValidationExceptionOnFail().validate();
+
+        int state = ROOT;
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+        for (int i = position; i < limit; ++i)
+        {
+            state = this.step(state, buffer.get(i));
+            this.report(state, i + 1 - position, listener);
+        }
+    }
+
+    /**
+     * Finds the words in the characters of a reader. The reader is read to its
+     * end but is not closed.
+     *
+     * @param reader
+     *            The <code>Reader</code> instance to search. Must not be null.
+     * @param listener
+     *            The <code>MatchListener</code> instance to report each word
+     *            to. Must not be null.
+     * @throws IOException
+     *             if the reader can not be read.
+     */
+    public void match(final Reader reader, final MatchListener listener) throws IOException
+    {
+        Validate.defineObject(reader).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(listener).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final char[] buffer = new char[BUFFER_SIZE];
+        int state = ROOT;
+        long offset = 0;
+        int count;
+        while ((count = reader.read(buffer, 0, BUFFER_SIZE)) != -1)
+        {
+            for (int i = 0; i < count; ++i)
+            {
+                state = this.step(state, buffer[i]);
+                this.report(state, offset + i + 1, listener);
+            }
+            offset += count;
+        }
+    }
+
+    /*
+     * Computes the failure and output links in breadth first order, so the
+     * links of the shorter states are known.
+     */
+    private void link(final int[] parent)
+    {
+        final int count = this._labels.length;
+        this._fail[ROOT] = ROOT;
+        this._output[ROOT] = NONE;
+        for (int state = 1; state < count; ++state)
+        {
+            final int from = parent[state];
+            int fail = ROOT;
+            if (from != ROOT)
+            {
+                final char label = this._labels[state];
+                int suffix = this._fail[from];
+                int next = this.getChild(suffix, label);
+                while (next == NONE && suffix != ROOT)
+                {
+                    suffix = this._fail[suffix];
+                    next = this.getChild(suffix, label);
+                }
+                fail = (next == NONE ? ROOT : next);
+            }
+            this._fail[state] = fail;
+            this._output[state] = (this._word[fail] != NONE ? fail : this._output[fail]);
+        }
+    }
+
+    /*
+     * Gets the child of a state for a character, or NONE.
+     */
+    private int getChild(final int state, final char label)
+    {
+        final int index = Arrays.binarySearch(this._labels, this._firstChild[state], this._endChild[state], label);
+        return (index < 0 ? NONE : index);
+    }
+
+    /*
+     * Moves from a state for a character, following the failure links until a
+     * state has a child for the character or the root is reached.
+     */
+    private int step(final int state, final char character)
+    {
+        int current = state;
+        while (true)
+        {
+            final int next = this.getChild(current, character);
+            if (next != NONE)
+            {
+                return (next);
+            }
+            if (current == ROOT)
+            {
+                return (ROOT);
+            }
+            current = this._fail[current];
+        }
+    }
+
+    /*
+     * Reports the words that end at a state, following the output links.
+     */
+    private void report(final int state, final long end, final MatchListener listener)
+    {
+        int current = (this._word[state] != NONE ? state : this._output[state]);
+        while (current != NONE)
+        {
+            final String word = this._words[this._word[current]];
+            listener.onMatch(end - word.length(), end, word);
+            current = this._output[current];
+        }
+    }
+}
@@ -342,6 +342,41 @@ public class BinaryTree<T> {
 		return (this._root.getHeight());
 	}
 
+	/**
+	 * Gets the structure of the tree in one pass over its nodes. A leaf is
+	 * counted as a word. The nodes are walked with a stack, so a deep tree does
+	 * not overflow the call stack.
+	 * 
+	 * @return A <code>Statistics</code> instance.
+	 */
+	public Statistics getStatistics() {
+		final Statistics statistics = new Statistics();
+		final Stack<Node<T>> nodes = new Stack<Node<T>>();
+		final Stack<int[]> states = new Stack<int[]>();
+		nodes.push(this._root);
+		states.push(new int[] { 0, 0 });
+		while (!nodes.isEmpty()) {
+			final Node<T> node = nodes.pop();
+			final int[] state = states.pop();
+			final Node<T> leftChild = node.getLeftChild();
+			final Node<T> rightChild = node.getRightChild();
+			final int fanout = (leftChild == null ? 0 : 1) + (rightChild == null ? 0 : 1);
+
+			// a node holds its data, children, parent and tree.
+			final long bytes = Statistics.estimateObjectBytes(5, 0);
+			final int chain = statistics.addNode(state[0], fanout, node.isLeaf(), state[1], bytes);
+			if (rightChild != null) {
+				nodes.push(rightChild);
+				states.push(new int[] { state[0] + 1, chain });
+			}
+			if (leftChild != null) {
+				nodes.push(leftChild);
+				states.push(new int[] { state[0] + 1, chain });
+			}
+		}
+		return (statistics);
+	}
+
 	/**
 	 * Gets all of the leaf data sorted by in ordering. A leaf is a Node that does
 	 * not have children.
@@ -0,0 +1,510 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A Trie that keeps the words of the most recently used prefixes. The
+ * getWords methods return the cached words when the prefix was asked for
+ * before. The cache is limited by the number of prefixes and by the total
+ * number of cached words, and the least recently used prefixes are dropped
+ * until it is under both limits. All other methods are passed to the Trie that
+ * is wrapped.
+ *
+ * The words of a prefix are found below the node where the prefix stops
+ * matching, so a change to a word only drops the cached prefixes whose
+ * matching part is a prefix of that word.
+ *
+ * The methods are synchronized. The wrapped Trie should only be changed
+ * through this Trie, otherwise the cached words may be out of date. The lists
+ * that are returned can not be changed.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class CachingTrie implements Trie
+{
+
+    /*
+     * The cached words of a prefix and the part of the prefix that matched a
+     * node.
+     */
+    private static class CacheEntry
+    {
+        private final List<String> _words;
+        private final String       _match;
+
+        CacheEntry(final List<String> words, final String match)
+        {
+            this._words = words;
+            this._match = match;
+        }
+    }
+
+    /**
+     * The most words to cache if none is given.
+     */
+    public static final int                         DEFAULT_MAX_WORDS = 100000;
+
+    /*
+     * The Trie that holds the words.
+     */
+    private final Trie                              _trie;
+
+    /*
+     * The most prefixes and the most words to cache.
+     */
+    private final int                               _maxEntries;
+    private final int                               _maxWords;
+
+    /*
+     * The cached words by prefix, in least recently used order.
+     */
+    private final LinkedHashMap<String, CacheEntry> _cache;
+
+    /*
+     * The number of words in all of the cached lists.
+     */
+    private long                                    _cachedWordCount;
+
+    /*
+     * The cached prefixes by the part of the prefix that matched a node. Is
+     * used to find the prefixes that are changed by a word.
+     */
+    private final Map<String, Set<String>>          _prefixesByMatch;
+
+    /*
+     * The length of the longest matching part of a cached prefix.
+     */
+    private int                                     _maxMatchLength;
+
+    /*
+     * The number of calls that returned cached words.
+     */
+    private long                                    _hitCount;
+
+    /*
+     * The number of calls that had to get the words from the Trie.
+     */
+    private long                                    _missCount;
+
+    /**
+     * Constructor that caches at most DEFAULT_MAX_WORDS words.
+     *
+     * @param trie
+     *            The <code>Trie</code> instance to wrap. May not be null.
+     * @param maxEntries
+     *            The most prefixes to keep. Must be more than 0.
+     */
+    public CachingTrie(final Trie trie, final int maxEntries)
+    {
+        this(trie, maxEntries, DEFAULT_MAX_WORDS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param trie
+     *            The <code>Trie</code> instance to wrap. May not be null.
+     * @param maxEntries
+     *            The most prefixes to keep. Must be more than 0.
+     * @param maxWords
+     *            The most words to keep in all of the cached lists. Must be
+     *            more than 0. The words of a prefix that has more words are not
+     *            cached.
+     */
+    public CachingTrie(final Trie trie, final int maxEntries, final int maxWords)
+    {
+        Validate.defineObject(trie).testNotNull().throwValidationExceptionOnFail().validate();
+        if (maxEntries < 1)
+        {
+            throw (new IllegalArgumentException("The parameter 'maxEntries' should be more than 0."));
+        }
+        if (maxWords < 1)
+        {
+            throw (new IllegalArgumentException("The parameter 'maxWords' should be more than 0."));
+        }
+
+        this._trie = trie;
+        this._maxEntries = maxEntries;
+        this._maxWords = maxWords;
+        this._prefixesByMatch = new HashMap<String, Set<String>>();
+        this._cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the number of calls to the getWords methods that returned cached
+     * words.
+     *
+     * @return A long value of 0 or more.
+     */
+    public synchronized long getHitCount()
+    {
+        return (this._hitCount);
+    }
+
+    /**
+     * Gets the number of calls to the getWords methods that had to get the
+     * words from the wrapped Trie.
+     *
+     * @return A long value of 0 or more.
+     */
+    public synchronized long getMissCount()
+    {
+        return (this._missCount);
+    }
+
+    /**
+     * Gets the number of prefixes that are cached.
+     *
+     * @return An int value of 0 or more.
+     */
+    public synchronized int getCacheSize()
+    {
+        return (this._cache.size());
+    }
+
+    /**
+     * Gets the number of words in all of the cached lists.
+     *
+     * @return A long value of 0 or more.
+     */
+    public synchronized long getCachedWordCount()
+    {
+        return (this._cachedWordCount);
+    }
+
+    /**
+     * Gets words based on a prefix. The words are cached.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances. The list can not be changed.
+     */
+    @Override
+    public synchronized List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final CacheEntry entry = this._cache.get(prefix);
+        if (entry != null)
+        {
+            ++this._hitCount;
+            return (entry._words);
+        }
+        ++this._missCount;
+        return (this.cache(prefix, this._trie.getWords(prefix)));
+    }
+
+    /**
+     * Gets all of the words that were added. The words are cached.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances. The list can not be changed.
+     */
+    @Override
+    public synchronized List<String> getWords()
+    {
+        // a prefix can not be empty, so the empty string is the key for all
+        // of the words.
+        final CacheEntry entry = this._cache.get("");
+        if (entry != null)
+        {
+            ++this._hitCount;
+            return (entry._words);
+        }
+        ++this._missCount;
+        return (this.cache("", this._trie.getWords()));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#iterateWords(java.lang.CharSequence)
+     */
+    @Override
+    public synchronized Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        return (this._trie.iterateWords(prefix));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#countWords(java.lang.CharSequence)
+     */
+    @Override
+    public synchronized int countWords(final CharSequence prefix)
+    {
+        return (this._trie.countWords(prefix));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#size()
+     */
+    @Override
+    public synchronized int size()
+    {
+        return (this._trie.size());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#fuzzyWords(java.lang.CharSequence,
+     * int, int)
+     */
+    @Override
+    public synchronized List<String> fuzzyWords(final CharSequence query, final int maxEdits, final int limit)
+    {
+        return (this._trie.fuzzyWords(query, maxEdits, limit));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#longestPrefixOf(java.lang.CharSequence)
+     */
+    @Override
+    public synchronized String longestPrefixOf(final CharSequence input)
+    {
+        return (this._trie.longestPrefixOf(input));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#prefixesOf(java.lang.CharSequence)
+     */
+    @Override
+    public synchronized List<String> prefixesOf(final CharSequence input)
+    {
+        return (this._trie.prefixesOf(input));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public synchronized boolean contains(final String word)
+    {
+        return (this._trie.contains(word));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.CharSequence, int,
+     * int)
+     */
+    @Override
+    public synchronized boolean contains(final CharSequence word, final int start, final int end)
+    {
+        return (this._trie.contains(word, start, end));
+    }
+
+    /**
+     * Add a range of characters as a word. The cached prefixes that the word
+     * changes are dropped.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     */
+    @Override
+    public synchronized void add(final CharSequence word, final int start, final int end)
+    {
+        this._trie.add(word, start, end);
+        this.invalidate(word, start, end);
+    }
+
+    /**
+     * Add a word. The cached prefixes that the word changes are dropped.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public synchronized void add(final String word)
+    {
+        this._trie.add(word);
+        this.invalidate(word, 0, word.length());
+    }
+
+    /**
+     * Removes a word. The cached prefixes that the word changes are dropped.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public synchronized boolean remove(final String word)
+    {
+        final boolean isRemoved = this._trie.remove(word);
+        if (isRemoved)
+        {
+            this.invalidate(word, 0, word.length());
+        }
+        return (isRemoved);
+    }
+
+    /**
+     * Clears the wrapped Trie and all of the cached prefixes. The hit and
+     * miss counts are kept.
+     */
+    @Override
+    public synchronized void clear()
+    {
+        this._trie.clear();
+        this._cache.clear();
+        this._cachedWordCount = 0;
+        this._prefixesByMatch.clear();
+        this._maxMatchLength = 0;
+    }
+
+    /*
+     * Caches the words of a prefix. The matching part of the prefix is where
+     * the prefix and the first word differ, because the first word is below
+     * the node where the prefix stopped matching and the prefix did not match
+     * the next character. Words that are more than the limit are returned
+     * without being cached.
+     */
+    private List<String> cache(final String prefix, final List<String> words)
+    {
+        final List<String> cached = Collections.unmodifiableList(new ArrayList<String>(words));
+        if (cached.size() > this._maxWords)
+        {
+            return (cached);
+        }
+
+        String match = "";
+        if (!cached.isEmpty())
+        {
+            final String first = cached.get(0);
+            final int count = Math.min(prefix.length(), first.length());
+            int length = 0;
+            while (length < count && prefix.charAt(length) == first.charAt(length))
+            {
+                ++length;
+            }
+            match = prefix.substring(0, length);
+        }
+
+        final CacheEntry entry = new CacheEntry(cached, match);
+        Set<String> prefixes = this._prefixesByMatch.get(match);
+        if (prefixes == null)
+        {
+            prefixes = new HashSet<String>();
+            this._prefixesByMatch.put(match, prefixes);
+        }
+        prefixes.add(prefix);
+        this._maxMatchLength = Math.max(this._maxMatchLength, match.length());
+        this._cache.put(prefix, entry);
+        this._cachedWordCount += cached.size();
+        this.evict();
+        return (cached);
+    }
+
+    /*
+     * Drops the least recently used prefixes until the cache is under both
+     * limits. The prefix that was just cached is the most recently used and
+     * fits by itself, so it is kept.
+     */
+    private void evict()
+    {
+        final Iterator<Map.Entry<String, CacheEntry>> iterator = this._cache.entrySet().iterator();
+        while ((this._cache.size() > this._maxEntries || this._cachedWordCount > this._maxWords)
+                && iterator.hasNext())
+        {
+            final Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            this._cachedWordCount -= eldest.getValue()._words.size();
+            this.unindex(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /*
+     * Removes a cached prefix from the index by matching part.
+     */
+    private void unindex(final String prefix, final CacheEntry entry)
+    {
+        final Set<String> prefixes = this._prefixesByMatch.get(entry._match);
+        if (prefixes != null)
+        {
+            prefixes.remove(prefix);
+            if (prefixes.isEmpty())
+            {
+                this._prefixesByMatch.remove(entry._match);
+            }
+        }
+    }
+
+    /*
+     * Drops the cached prefixes whose matching part is a prefix of the word,
+     * including the empty matching part.
+     */
+    private void invalidate(final CharSequence word, final int start, final int end)
+    {
+        if (this._prefixesByMatch.isEmpty())
+        {
+            return;
+        }
+
+        final String changed = word.subSequence(start, end).toString();
+        final int count = Math.min(changed.length(), this._maxMatchLength);
+        for (int length = 0; length <= count; ++length)
+        {
+            final Set<String> prefixes = this._prefixesByMatch.remove(changed.substring(0, length));
+            if (prefixes != null)
+            {
+                for (final String prefix : prefixes)
+                {
+                    final CacheEntry entry = this._cache.remove(prefix);
+                    if (entry != null)
+                    {
+                        this._cachedWordCount -= entry._words.size();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+
+/**
+ * Helper methods for the lookups that must not allocate. The range of a
+ * <code>CharSequence</code> is checked without the fluent validator, and a
+ * <code>char</code> is boxed to a cached <code>Character</code> instance.
+ * 
+ * @author Gregory Brown (sysdevone)
+ * 
+ */
+final class Characters
+{
+    
+    /*
+     * The number of characters in a page of the cache.
+     */
+    private static final int           PAGE_SIZE = 256;
+    
+    /*
+     * The cached Character instances, in pages that are created when a
+     * character of the page is first boxed. A race only boxes a character
+     * twice, because a Character instance is immutable.
+     */
+    private static final Character[][] PAGES     = new Character[(Character.MAX_VALUE + 1) / PAGE_SIZE][];
+    
+    /*
+     * Not created.
+     */
+    private Characters()
+    {
+        // static methods only.
+    }
+    
+    /**
+     * Checks that the range is within a <code>CharSequence</code>.
+     * 
+     * @param sequence
+     *            Must not be null.
+     * @param start
+     *            The first index of the range.
+     * @param end
+     *            The index after the range. Must not be less than start.
+     * @throws IllegalArgumentException
+     *             if the sequence is null.
+     * @throws IndexOutOfBoundsException
+     *             if the range is not within the sequence.
+     */
+    static void checkRange(final CharSequence sequence, final int start, final int end)
+    {
+        if (sequence == null)
+        {
+            throw (new IllegalArgumentException("The parameter 'sequence' should not be null."));
+        }
+        if (start < 0 || start > end || end > sequence.length())
+        {
+            throw (new IndexOutOfBoundsException("The range " + start + " to " + end
+                    + " is not within the length " + sequence.length() + "."));
+        }
+    }
+    
+    /**
+     * Gets the cached <code>Character</code> instance for a character. Only the
+     * first call for a character allocates.
+     * 
+     * @param character
+     *            The character to box.
+     * @return A <code>Character</code> instance.
+     */
+    static Character valueOf(final char character)
+    {
+        if (character < 128)
+        {
+            // Character.valueOf already caches these.
+            return (Character.valueOf(character));
+        }
+        
+        final int page = character / PAGE_SIZE;
+        Character[] values = PAGES[page];
+        if (values == null)
+        {
+            values = new Character[PAGE_SIZE];
+            PAGES[page] = values;
+        }
+        final int index = character % PAGE_SIZE;
+        Character value = values[index];
+        if (value == null)
+        {
+            value = Character.valueOf(character);
+            values[index] = value;
+        }
+        return (value);
+    }
+}
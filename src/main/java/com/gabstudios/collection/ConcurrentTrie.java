@@ -0,0 +1,884 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A thread safe implementation of a Trie that does not lock. It follows the
+ * design of a concurrent trie (Ctrie) by Prokopec, Bronson, Bagwell and
+ * Odersky.
+ *
+ * Each node is an indirection node that points at an immutable node holding
+ * the children and the end of word flag. A change replaces the immutable node
+ * with a compare and set, so threads that add words below different nodes do
+ * not contend with each other.
+ *
+ * The getWords and iterateWords methods read from a snapshot that is taken in
+ * constant time, so the words they return are the words of the Trie at one
+ * point in time even while other threads add words.
+ *
+ * A node that no longer has a word or children is replaced by a tomb, and the
+ * tomb is removed from its parent. A tomb that is left behind when the parent
+ * could not be changed is removed by the next add, remove or contains that
+ * finds it, so the nodes follow the words that are in the Trie.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class ConcurrentTrie implements Trie
+{
+    /*
+     * A generation of indirection nodes. A snapshot starts a new generation,
+     * and a node of an older generation is copied before it is changed.
+     */
+    private static final class Generation
+    {
+    }
+
+    /*
+     * The value held by an indirection node. The previous field is used while
+     * the value is being set and is null once the value is committed.
+     */
+    private abstract static class MainNode
+    {
+        volatile MainNode _previous;
+    }
+
+    /*
+     * Marks a change that failed, so the previous value is put back.
+     */
+    private static final class FailedNode extends MainNode
+    {
+        FailedNode(final MainNode previous)
+        {
+            this._previous = previous;
+        }
+    }
+
+    /*
+     * Marks a node that has no words and no children. A tomb is never changed,
+     * so it is only removed from its parent.
+     */
+    private static final class TNode extends MainNode
+    {
+    }
+
+    /*
+     * An immutable node that holds the children sorted by character and the
+     * end of word flag.
+     */
+    private static final class CNode extends MainNode
+    {
+        private static final CNode EMPTY = new CNode(new char[0], new INode[0], false);
+
+        final char[]               _keys;
+        final INode[]              _children;
+        final boolean              _isWord;
+
+        CNode(final char[] keys, final INode[] children, final boolean isWord)
+        {
+            this._keys = keys;
+            this._children = children;
+            this._isWord = isWord;
+        }
+
+        /*
+         * Gets the index of the child or the negative insertion point.
+         */
+        int indexOf(final char character)
+        {
+            return (Arrays.binarySearch(this._keys, character));
+        }
+
+        CNode withWord(final boolean isWord)
+        {
+            return (new CNode(this._keys, this._children, isWord));
+        }
+
+        CNode inserted(final int index, final char character, final INode child)
+        {
+            final int count = this._keys.length;
+            final char[] keys = new char[count + 1];
+            final INode[] children = new INode[count + 1];
+            System.arraycopy(this._keys, 0, keys, 0, index);
+            System.arraycopy(this._children, 0, children, 0, index);
+            keys[index] = character;
+            children[index] = child;
+            System.arraycopy(this._keys, index, keys, index + 1, count - index);
+            System.arraycopy(this._children, index, children, index + 1, count - index);
+            return (new CNode(keys, children, this._isWord));
+        }
+
+        CNode removed(final int index)
+        {
+            final int count = this._keys.length;
+            final char[] keys = new char[count - 1];
+            final INode[] children = new INode[count - 1];
+            System.arraycopy(this._keys, 0, keys, 0, index);
+            System.arraycopy(this._children, 0, children, 0, index);
+            System.arraycopy(this._keys, index + 1, keys, index, count - index - 1);
+            System.arraycopy(this._children, index + 1, children, index, count - index - 1);
+            return (new CNode(keys, children, this._isWord));
+        }
+
+        /*
+         * Copies the node with every child moved to the generation.
+         */
+        CNode renewed(final Generation generation, final ConcurrentTrie trie)
+        {
+            final INode[] children = new INode[this._children.length];
+            for (int i = 0; i < children.length; ++i)
+            {
+                final INode child = this._children[i];
+                children[i] = new INode(generation, trie.gcasRead(child, false));
+            }
+            return (new CNode(this._keys, children, this._isWord));
+        }
+    }
+
+    /*
+     * An indirection node. The main node is only changed with gcas.
+     */
+    private static final class INode
+    {
+        volatile MainNode _main;
+        final Generation  _generation;
+
+        INode(final Generation generation, final MainNode main)
+        {
+            this._generation = generation;
+            this._main = main;
+        }
+    }
+
+    /*
+     * Describes a change of the root that only happens if the main node of
+     * the old root has not changed.
+     */
+    private static final class RootDescriptor
+    {
+        final INode      _oldRoot;
+        final MainNode   _expectedMain;
+        final INode      _newRoot;
+        volatile boolean _isCommitted;
+
+        RootDescriptor(final INode oldRoot, final MainNode expectedMain, final INode newRoot)
+        {
+            this._oldRoot = oldRoot;
+            this._expectedMain = expectedMain;
+            this._newRoot = newRoot;
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<INode, MainNode>          MAIN     = AtomicReferenceFieldUpdater
+            .newUpdater(INode.class, MainNode.class, "_main");
+
+    private static final AtomicReferenceFieldUpdater<MainNode, MainNode>       PREVIOUS = AtomicReferenceFieldUpdater
+            .newUpdater(MainNode.class, MainNode.class, "_previous");
+
+    private static final AtomicReferenceFieldUpdater<ConcurrentTrie, Object>   ROOT     = AtomicReferenceFieldUpdater
+            .newUpdater(ConcurrentTrie.class, Object.class, "_root");
+
+    /*
+     * The results of delete.
+     */
+    private static final int REMOVED = 1;
+    private static final int ABSENT  = 0;
+    private static final int RESTART = -1;
+
+    /*
+     * The root of the Trie. Is an INode or a RootDescriptor while the root is
+     * being changed.
+     */
+    private volatile Object _root;
+
+    /**
+     * Constructor.
+     */
+    public ConcurrentTrie()
+    {
+        this._root = new INode(new Generation(), CNode.EMPTY);
+    }
+
+    /**
+     * Used to clear and reset the Trie. Readers that already took a snapshot
+     * still see the words.
+     */
+    @Override
+    public void clear()
+    {
+        while (true)
+        {
+            final INode root = this.readRoot(false);
+            final MainNode main = this.gcasRead(root, false);
+            if (this.rdcssRoot(root, main, new INode(new Generation(), CNode.EMPTY)))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add a word to the Trie. May be called by many threads at once.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        while (true)
+        {
+            final INode root = this.readRoot(false);
+            if (this.insert(root, word))
+            {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Adds the word below the root. Returns false if the add must be started
+     * again from a new root.
+     */
+    private boolean insert(final INode root, final String word)
+    {
+        final Generation generation = root._generation;
+        final int count = word.length();
+        INode parent = null;
+        INode node = root;
+        int i = 0;
+        while (true)
+        {
+            final MainNode read = this.gcasRead(node, false);
+            if (read instanceof TNode)
+            {
+                // the node is being removed, so it is removed from its parent
+                // before the word is added again.
+                this.clean(parent, parent == root);
+                return (false);
+            }
+
+            final CNode main = (CNode) read;
+            if (i == count)
+            {
+                // mark the last node with terminator.
+                return (main._isWord || this.gcas(node, main, main.withWord(true)));
+            }
+
+            final char character = word.charAt(i);
+            final int index = main.indexOf(character);
+            if (index < 0)
+            {
+                // the rest of the word is a new chain of nodes.
+                final INode chain = createChain(word, i + 1, generation);
+                return (this.gcas(node, main, main.inserted(-(index + 1), character, chain)));
+            }
+
+            final INode child = main._children[index];
+            if (child._generation == generation)
+            {
+                parent = node;
+                node = child;
+                ++i;
+            }
+            else if (!this.gcas(node, main, main.renewed(generation, this)))
+            {
+                // the child is shared with a snapshot, so it is copied first.
+                return (false);
+            }
+        }
+    }
+
+    /**
+     * Removes a word from the Trie. May be called by many threads at once.
+     * Readers that already took a snapshot still see the word.
+     *
+     * The end of word mark is cleared. A node that is left without a word or
+     * children is replaced by a tomb and removed from its parent, up to the
+     * nearest node that still has a word or another child.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        while (true)
+        {
+            final INode root = this.readRoot(false);
+            final int result = this.delete(root, word);
+            if (result != RESTART)
+            {
+                return (result == REMOVED);
+            }
+        }
+    }
+
+    /*
+     * Clears the end of word mark below the root. Returns REMOVED, ABSENT or
+     * RESTART if the remove must be started again from a new root.
+     */
+    private int delete(final INode root, final String word)
+    {
+        final Generation generation = root._generation;
+        final int count = word.length();
+        final INode[] path = new INode[count + 1];
+        path[0] = root;
+        int i = 0;
+        while (true)
+        {
+            final INode node = path[i];
+            final MainNode read = this.gcasRead(node, false);
+            if (read instanceof TNode)
+            {
+                // a tomb has no words, so it is only removed from its parent.
+                this.clean(path[i - 1], i == 1);
+                return (ABSENT);
+            }
+
+            final CNode main = (CNode) read;
+            if (i == count)
+            {
+                if (!main._isWord)
+                {
+                    return (ABSENT);
+                }
+
+                // the root is never at the end of a word, so the node can be
+                // a tomb.
+                final MainNode removed = (main._keys.length == 0 ? new TNode() : main.withWord(false));
+                if (!this.gcas(node, main, removed))
+                {
+                    return (RESTART);
+                }
+                if (removed instanceof TNode)
+                {
+                    this.cleanParents(path, word, generation);
+                }
+                return (REMOVED);
+            }
+
+            final int index = main.indexOf(word.charAt(i));
+            if (index < 0)
+            {
+                return (ABSENT);
+            }
+
+            final INode child = main._children[index];
+            if (child._generation == generation)
+            {
+                ++i;
+                path[i] = child;
+            }
+            else if (!this.gcas(node, main, main.renewed(generation, this)))
+            {
+                // the child is shared with a snapshot, so it is copied first.
+                return (RESTART);
+            }
+        }
+    }
+
+    /*
+     * Removes the tomb at the end of the path from its parent. A parent that is
+     * left without a word or children becomes a tomb and is removed from its
+     * parent too. Stops when a parent changed or the generation changed, and
+     * the tombs that are left are removed later by clean.
+     */
+    private void cleanParents(final INode[] path, final String word, final Generation generation)
+    {
+        for (int i = word.length(); i > 0; --i)
+        {
+            if (!this.cleanParent(path[i - 1], path[i], word.charAt(i - 1), i == 1, generation))
+            {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Removes a tomb from its parent. Returns true if the parent became a tomb.
+     */
+    private boolean cleanParent(final INode parent, final INode child, final char character,
+            final boolean isRoot, final Generation generation)
+    {
+        while (true)
+        {
+            final MainNode read = this.gcasRead(parent, false);
+            if (!(read instanceof CNode))
+            {
+                return (false);
+            }
+
+            final CNode main = (CNode) read;
+            final int index = main.indexOf(character);
+            if (index < 0 || main._children[index] != child)
+            {
+                // another thread already removed or replaced the child.
+                return (false);
+            }
+
+            final CNode removed = main.removed(index);
+            final MainNode contracted = contract(removed, isRoot);
+            if (this.gcas(parent, main, contracted))
+            {
+                return (contracted instanceof TNode);
+            }
+            if (this.readRoot(false)._generation != generation)
+            {
+                return (false);
+            }
+        }
+    }
+
+    /*
+     * Removes the tombs from the children of a node. Is called when a tomb is
+     * found on the way to a word. The change is only tried once, since the
+     * caller starts again.
+     */
+    private void clean(final INode node, final boolean isRoot)
+    {
+        final MainNode read = this.gcasRead(node, false);
+        if (!(read instanceof CNode))
+        {
+            return;
+        }
+
+        final CNode main = (CNode) read;
+        final int count = main._keys.length;
+        final char[] keys = new char[count];
+        final INode[] children = new INode[count];
+        int live = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            if (!(this.gcasRead(main._children[i], false) instanceof TNode))
+            {
+                keys[live] = main._keys[i];
+                children[live] = main._children[i];
+                ++live;
+            }
+        }
+        if (live < count)
+        {
+            final CNode compressed = new CNode(Arrays.copyOf(keys, live), Arrays.copyOf(children, live),
+                    main._isWord);
+            this.gcas(node, main, contract(compressed, isRoot));
+        }
+    }
+
+    /*
+     * Gets a tomb for a node that has no word and no children, other than the
+     * root.
+     */
+    private static MainNode contract(final CNode main, final boolean isRoot)
+    {
+        return (!isRoot && main._keys.length == 0 && !main._isWord ? new TNode() : main);
+    }
+
+    /*
+     * Creates the nodes for the characters of the word from the start. The
+     * last node is the end of the word.
+     */
+    private static INode createChain(final String word, final int start, final Generation generation)
+    {
+        INode node = new INode(generation, CNode.EMPTY.withWord(true));
+        for (int i = word.length() - 1; i >= start; --i)
+        {
+            final CNode main = new CNode(new char[] { word.charAt(i) }, new INode[] { node }, false);
+            node = new INode(generation, main);
+        }
+        return (node);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        final INode root = this.readRoot(false);
+        INode parent = null;
+        INode node = root;
+        for (int i = 0;; ++i)
+        {
+            final MainNode read = this.gcasRead(node, false);
+            if (read instanceof TNode)
+            {
+                // a tomb has no words, so it is removed from its parent.
+                this.clean(parent, parent == root);
+                return (false);
+            }
+
+            final CNode main = (CNode) read;
+            if (i == count)
+            {
+                return (main._isWord);
+            }
+            final int index = main.indexOf(word.charAt(i));
+            if (index < 0)
+            {
+                // if the character is not found. STOP.
+                return (false);
+            }
+            parent = node;
+            node = main._children[index];
+        }
+    }
+
+    /**
+     * Gets all of the words that were added, from a snapshot of the Trie.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords("");
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix, from a snapshot of the Trie. The prefix is
+     * walked as far as it matches and the words below the last matching
+     * character are returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix. The iterator reads
+     * from a snapshot of the Trie, so words added after this call are not
+     * returned.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int count = prefix.length();
+        CNode main = this.readSnapshotNode(this.readOnlySnapshot());
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final int index = main.indexOf(character);
+            final CNode child = (index < 0 ? null : this.readSnapshotNode(main._children[index]));
+            if (child == null)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            main = child;
+            prefixWord.append(character);
+        }
+        return (new WordIterator(main, prefixWord));
+    }
+
+    /*
+     * An iterator over the immutable nodes of a snapshot. It holds a stack of
+     * nodes and the next child to visit at each node.
+     */
+    private class WordIterator implements Iterator<String>
+    {
+        private CNode[]             _nodes;
+        private int[]               _nextChildren;
+        private int                 _size;
+        private final int           _prefixLength;
+        private final StringBuilder _word;
+        private String              _next;
+
+        WordIterator(final CNode start, final StringBuilder prefix)
+        {
+            this._nodes = new CNode[16];
+            this._nextChildren = new int[16];
+            this._nodes[0] = start;
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (start._isWord)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final CNode node = this._nodes[top];
+                final int index = this._nextChildren[top];
+                if (index < node._keys.length)
+                {
+                    ++this._nextChildren[top];
+                    final CNode child = ConcurrentTrie.this.readSnapshotNode(node._children[index]);
+                    if (child == null)
+                    {
+                        // a tomb has no words.
+                        continue;
+                    }
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                    }
+                    this._nodes[this._size] = child;
+                    this._nextChildren[this._size] = 0;
+                    ++this._size;
+                    this._word.append(node._keys[index]);
+                    if (child._isWord)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._nodes[top] = null;
+                    --this._size;
+                    this._word.setLength(this._prefixLength + Math.max(this._size - 1, 0));
+                }
+            }
+        }
+    }
+
+    /*
+     * Takes a read only snapshot. The live root is replaced by a copy in a new
+     * generation, so the old root is no longer changed and can be read.
+     */
+    private INode readOnlySnapshot()
+    {
+        while (true)
+        {
+            final INode root = this.readRoot(false);
+            final MainNode main = this.gcasRead(root, false);
+            if (this.rdcssRoot(root, main, new INode(new Generation(), main)))
+            {
+                return (root);
+            }
+        }
+    }
+
+    /*
+     * Reads a node of a snapshot. Returns null for a tomb, which a snapshot
+     * can not remove.
+     */
+    private CNode readSnapshotNode(final INode node)
+    {
+        final MainNode main = this.gcasRead(node, true);
+        return (main instanceof TNode ? null : (CNode) main);
+    }
+
+    /*
+     * Reads the committed main node of an indirection node.
+     */
+    private MainNode gcasRead(final INode node, final boolean isReadOnly)
+    {
+        final MainNode main = node._main;
+        return (main._previous == null ? main : this.gcasCommit(node, main, isReadOnly));
+    }
+
+    /*
+     * Sets the main node of an indirection node if it is the old main node and
+     * the generation of the root did not change. Returns true if the new main
+     * node was committed.
+     */
+    private boolean gcas(final INode node, final MainNode oldMain, final MainNode newMain)
+    {
+        newMain._previous = oldMain;
+        if (MAIN.compareAndSet(node, oldMain, newMain))
+        {
+            this.gcasCommit(node, newMain, false);
+            return (newMain._previous == null);
+        }
+        return (false);
+    }
+
+    /*
+     * Commits or rolls back a main node that is being set. A read only
+     * snapshot always rolls back, since the change started before it.
+     */
+    private MainNode gcasCommit(final INode node, final MainNode start, final boolean isReadOnly)
+    {
+        MainNode main = start;
+        while (true)
+        {
+            final MainNode previous = main._previous;
+            final INode root = this.readRoot(true);
+            if (previous == null)
+            {
+                return (main);
+            }
+
+            if (previous instanceof FailedNode)
+            {
+                final MainNode restored = previous._previous;
+                if (MAIN.compareAndSet(node, main, restored))
+                {
+                    return (restored);
+                }
+                main = node._main;
+            }
+            else if (root._generation == node._generation && !isReadOnly)
+            {
+                if (PREVIOUS.compareAndSet(main, previous, null))
+                {
+                    return (main);
+                }
+            }
+            else
+            {
+                PREVIOUS.compareAndSet(main, previous, new FailedNode(previous));
+                main = node._main;
+            }
+        }
+    }
+
+    /*
+     * Reads the root. A root change that is in progress is completed or, when
+     * abort is true, rolled back.
+     */
+    private INode readRoot(final boolean abort)
+    {
+        final Object root = this._root;
+        return (root instanceof INode ? (INode) root : this.rdcssComplete(abort));
+    }
+
+    /*
+     * Replaces the root if it is the old root and its main node is the
+     * expected main node. Returns true if the root was replaced.
+     */
+    private boolean rdcssRoot(final INode oldRoot, final MainNode expectedMain, final INode newRoot)
+    {
+        final RootDescriptor descriptor = new RootDescriptor(oldRoot, expectedMain, newRoot);
+        if (ROOT.compareAndSet(this, oldRoot, descriptor))
+        {
+            this.rdcssComplete(false);
+            return (descriptor._isCommitted);
+        }
+        return (false);
+    }
+
+    /*
+     * Completes or rolls back the root change that is in progress.
+     */
+    private INode rdcssComplete(final boolean abort)
+    {
+        while (true)
+        {
+            final Object root = this._root;
+            if (root instanceof INode)
+            {
+                return ((INode) root);
+            }
+
+            final RootDescriptor descriptor = (RootDescriptor) root;
+            if (abort)
+            {
+                if (ROOT.compareAndSet(this, descriptor, descriptor._oldRoot))
+                {
+                    return (descriptor._oldRoot);
+                }
+            }
+            else if (this.gcasRead(descriptor._oldRoot, false) == descriptor._expectedMain)
+            {
+                if (ROOT.compareAndSet(this, descriptor, descriptor._newRoot))
+                {
+                    descriptor._isCommitted = true;
+                    return (descriptor._newRoot);
+                }
+            }
+            else if (ROOT.compareAndSet(this, descriptor, descriptor._oldRoot))
+            {
+                return (descriptor._oldRoot);
+            }
+        }
+    }
+}
@@ -0,0 +1,576 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+import java.util.stream.Stream;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A read only Trie that is a minimal directed acyclic word graph (DAWG). The
+ * words that share a suffix share the nodes of the suffix, so the graph has
+ * far fewer nodes than a <code>LinkedHashMapTrie</code> with the same words.
+ *
+ * The graph is built in one pass from words that are sorted by
+ * <code>String.compareTo</code>, using the incremental algorithm of Daciuk,
+ * Mihov, Watson and Watson. Use the build methods to create one.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class DawgTrie implements Trie
+{
+
+    /*
+     * A node in the graph. A node is changed only while it is on the path of
+     * the last word that was added. After that it is registered and is not
+     * changed, so its hash code can be cached.
+     */
+    private static final class State
+    {
+        private char[]  _labels;
+        private State[] _targets;
+        private int     _count;
+        private boolean _isWord;
+        private int     _hashCode;
+
+        State()
+        {
+            this._labels = new char[2];
+            this._targets = new State[2];
+        }
+
+        /*
+         * Adds an edge. The labels are added in order because the words are
+         * sorted.
+         */
+        void addEdge(final char label, final State target)
+        {
+            if (this._count == this._labels.length)
+            {
+                this._labels = Arrays.copyOf(this._labels, this._count << 1);
+                this._targets = Arrays.copyOf(this._targets, this._count << 1);
+            }
+            this._labels[this._count] = label;
+            this._targets[this._count] = target;
+            ++this._count;
+        }
+
+        /*
+         * Gets the target of the edge with the label. Returns null if there is
+         * not one.
+         */
+        State getTarget(final char label)
+        {
+            final int index = Arrays.binarySearch(this._labels, 0, this._count, label);
+            return (index < 0 ? null : this._targets[index]);
+        }
+
+        /*
+         * Trims the arrays to the number of edges and computes the hash code.
+         */
+        void freeze()
+        {
+            this._labels = Arrays.copyOf(this._labels, this._count);
+            this._targets = Arrays.copyOf(this._targets, this._count);
+
+            int hashCode = (this._isWord ? 1 : 0);
+            for (int i = 0; i < this._count; ++i)
+            {
+                hashCode = 31 * hashCode + this._labels[i];
+                hashCode = 31 * hashCode + System.identityHashCode(this._targets[i]);
+            }
+            this._hashCode = hashCode;
+        }
+
+        /*
+         * Two states are equal if they have the same flag and the same edges to
+         * the same states. The targets are already unique, so they are
+         * compared by reference.
+         */
+        @Override
+        public boolean equals(final Object object)
+        {
+            if (this == object)
+            {
+                return (true);
+            }
+            if (!(object instanceof State))
+            {
+                return (false);
+            }
+
+            final State other = (State) object;
+            if (this._isWord != other._isWord || this._count != other._count || this._hashCode != other._hashCode)
+            {
+                return (false);
+            }
+            for (int i = 0; i < this._count; ++i)
+            {
+                if (this._labels[i] != other._labels[i] || this._targets[i] != other._targets[i])
+                {
+                    return (false);
+                }
+            }
+            return (true);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (this._hashCode);
+        }
+    }
+
+    /*
+     * Builds the graph from sorted words. The states on the path of the last
+     * word are not yet registered, because the next word may add edges to
+     * them.
+     */
+    private static final class Builder
+    {
+        private final State              _root;
+        private final Map<State, State>  _register;
+        private final List<State>        _path;
+        private String                   _previousWord;
+
+        Builder()
+        {
+            this._root = new State();
+            this._register = new HashMap<State, State>();
+            this._path = new ArrayList<State>();
+            this._path.add(this._root);
+            this._previousWord = "";
+        }
+
+        void add(final String word)
+        {
+            Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+            final int compare = word.compareTo(this._previousWord);
+            if (compare < 0)
+            {
+                throw (new IllegalArgumentException("The words must be sorted.  The word '" + word
+                        + "' comes after '" + this._previousWord + "'."));
+            }
+            else if (compare == 0)
+            {
+                return;
+            }
+
+            final int commonLength = commonPrefixLength(word, this._previousWord);
+            this.minimize(commonLength);
+
+            State state = this._path.get(commonLength);
+            final int count = word.length();
+            for (int i = commonLength; i < count; ++i)
+            {
+                final State next = new State();
+                state.addEdge(word.charAt(i), next);
+                this._path.add(next);
+                state = next;
+            }
+            state._isWord = true;
+            this._previousWord = word;
+        }
+
+        State build()
+        {
+            this.minimize(0);
+            this._root.freeze();
+            this._register.clear();
+            return (this._root);
+        }
+
+        /*
+         * Replaces each state on the path below the depth with an equal state
+         * that is already registered, or registers it.
+         */
+        private void minimize(final int depth)
+        {
+            for (int i = this._path.size() - 1; i > depth; --i)
+            {
+                final State child = this._path.remove(i);
+                final State parent = this._path.get(i - 1);
+                child.freeze();
+
+                final State registered = this._register.get(child);
+                if (registered == null)
+                {
+                    this._register.put(child, child);
+                }
+                else
+                {
+                    // the child is always the last edge of the parent.
+                    parent._targets[parent._count - 1] = registered;
+                }
+            }
+        }
+
+        private static int commonPrefixLength(final String first, final String second)
+        {
+            final int count = Math.min(first.length(), second.length());
+            int length = 0;
+            while (length < count && first.charAt(length) == second.charAt(length))
+            {
+                ++length;
+            }
+            return (length);
+        }
+    }
+
+    /*
+     * The root of the graph.
+     */
+    private final State _root;
+
+    /*
+     * The number of words in the graph.
+     */
+    private final int   _wordCount;
+
+    /*
+     * Use the build methods to create a DawgTrie.
+     */
+    private DawgTrie(final State root, final int wordCount)
+    {
+        this._root = root;
+        this._wordCount = wordCount;
+    }
+
+    /**
+     * Builds a DawgTrie from words that are sorted by
+     * <code>String.compareTo</code>. A word that is the same as the word
+     * before it is skipped.
+     *
+     * @param words
+     *            An <code>Iterator</code> instance over the sorted words. Must
+     *            not be null. A word must not be null or empty.
+     * @return A <code>DawgTrie</code> instance that holds the words.
+     * @throws IllegalArgumentException
+     *             if the words are not sorted.
+     */
+    public static DawgTrie build(final Iterator<String> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final Builder builder = new Builder();
+        int wordCount = 0;
+        while (words.hasNext())
+        {
+            final String word = words.next();
+            final String previousWord = builder._previousWord;
+            builder.add(word);
+            if (!word.equals(previousWord))
+            {
+                ++wordCount;
+            }
+        }
+        return (new DawgTrie(builder.build(), wordCount));
+    }
+
+    /**
+     * Builds a DawgTrie from a stream of words that are sorted by
+     * <code>String.compareTo</code>.
+     *
+     * @param words
+     *            A <code>Stream</code> instance of the sorted words. Must not
+     *            be null.
+     * @return A <code>DawgTrie</code> instance that holds the words.
+     * @throws IllegalArgumentException
+     *             if the words are not sorted.
+     */
+    public static DawgTrie build(final Stream<String> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        return (build(words.iterator()));
+    }
+
+    /**
+     * Gets the number of words in the Trie.
+     *
+     * @return An integer value from 0 to n.
+     */
+    public int getWordCount()
+    {
+        return (this._wordCount);
+    }
+
+    /**
+     * Gets the number of words in the Trie. Is the same as getWordCount().
+     *
+     * @return An integer value from 0 to n.
+     */
+    @Override
+    public int size()
+    {
+        return (this._wordCount);
+    }
+
+    /**
+     * Gets the number of nodes in the graph. A node that is shared by many
+     * words is counted once.
+     *
+     * @return An integer value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        final Map<State, Boolean> visited = new IdentityHashMap<State, Boolean>();
+        final Stack<State> stack = new Stack<State>();
+        stack.push(this._root);
+        visited.put(this._root, Boolean.TRUE);
+        while (!stack.isEmpty())
+        {
+            final State state = stack.pop();
+            for (int i = 0; i < state._count; ++i)
+            {
+                final State target = state._targets[i];
+                if (visited.put(target, Boolean.TRUE) == null)
+                {
+                    stack.push(target);
+                }
+            }
+        }
+        return (visited.size());
+    }
+
+    /**
+     * A DawgTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public void add(final String word)
+    {
+        throw (new UnsupportedOperationException("A DawgTrie is read only.  Use the build methods to create one."));
+    }
+
+    /**
+     * A DawgTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        throw (new UnsupportedOperationException("A DawgTrie is read only.  Use the build methods to create one."));
+    }
+
+    /**
+     * A DawgTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public void clear()
+    {
+        throw (new UnsupportedOperationException("A DawgTrie is read only.  Use the build methods to create one."));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        State state = this._root;
+        for (int i = 0; i < count && state != null; ++i)
+        {
+            state = state.getTarget(word.charAt(i));
+        }
+        return (state != null && state._isWord);
+    }
+
+    /**
+     * Gets all of the words, in sorted order.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        return (this.collectWords(this.iterateWords("")));
+    }
+
+    /**
+     * Gets words based on a prefix, in sorted order. The prefix is walked as
+     * far as it matches and the words below the last matching character are
+     * returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (this.collectWords(this.iterateWords(prefix)));
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix, in sorted order. The
+     * words are found as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int count = prefix.length();
+        State state = this._root;
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final State target = state.getTarget(character);
+            if (target == null)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            state = target;
+            prefixWord.append(character);
+        }
+        return (new WordIterator(state, prefixWord));
+    }
+
+    private List<String> collectWords(final Iterator<String> iterator)
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /*
+     * An iterator that walks the paths below a start state in order. It holds
+     * a stack of states and the next edge to follow at each state.
+     */
+    private static class WordIterator implements Iterator<String>
+    {
+        private State[]             _states;
+        private int[]               _nextEdges;
+        private int                 _size;
+        private final int           _prefixLength;
+        private final StringBuilder _word;
+        private String              _next;
+
+        WordIterator(final State start, final StringBuilder prefix)
+        {
+            this._states = new State[16];
+            this._nextEdges = new int[16];
+            this._states[0] = start;
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (start._isWord)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final State state = this._states[top];
+                final int edge = this._nextEdges[top];
+                if (edge < state._count)
+                {
+                    ++this._nextEdges[top];
+                    final State target = state._targets[edge];
+                    if (this._size == this._states.length)
+                    {
+                        this._states = Arrays.copyOf(this._states, this._size << 1);
+                        this._nextEdges = Arrays.copyOf(this._nextEdges, this._size << 1);
+                    }
+                    this._states[this._size] = target;
+                    this._nextEdges[this._size] = 0;
+                    ++this._size;
+                    this._word.append(state._labels[edge]);
+                    if (target._isWord)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._states[top] = null;
+                    --this._size;
+                    this._word.setLength(this._prefixLength + Math.max(this._size - 1, 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,970 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie that is backed by two primitive
+ * <code>int</code> arrays, <code>base</code> and <code>check</code>. A state
+ * <code>t</code> is a child of state <code>s</code> by the code
+ * <code>c</code> when <code>t = base[s] + c</code> and
+ * <code>check[t] == s</code>.
+ *
+ * Characters are mapped to dense codes in the order they are first seen so
+ * the arrays stay small. The code 0 is reserved as the end of word marker.
+ * The children of each state are also linked in code order, so walking them
+ * does not try every code.
+ *
+ * This Trie does not create an object per character, so it uses a fraction of
+ * the memory of a <code>LinkedHashMapTrie</code> and a lookup only reads two
+ * arrays.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class DoubleArrayTrie implements Trie
+{
+    /*
+     * The initial size of the base and check arrays.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /*
+     * The code that marks the end of a word.
+     */
+    private static final int END_OF_WORD      = 0;
+
+    /*
+     * The index of the root state. Index 0 is not used.
+     */
+    private static final int ROOT             = 1;
+
+    /*
+     * The value returned when a state is not found. Index 0 is never a state.
+     */
+    private static final int NONE             = 0;
+
+    /*
+     * The initial size of the codes array, which covers ASCII.
+     */
+    private static final int INITIAL_CODES    = 128;
+
+    /*
+     * Maps a character to its dense code. A value of 0 means the character has
+     * not been seen. Is only as long as the largest character seen, so a
+     * character past the end has not been seen.
+     */
+    private int[]            _codes;
+
+    /*
+     * Maps a dense code back to its character. Index 0 is the code 1.
+     */
+    private char[]           _alphabet;
+
+    /*
+     * The number of characters that have a code.
+     */
+    private int              _alphabetSize;
+
+    /*
+     * The base offset of each state. A value of 0 means the state does not
+     * have children yet. An empty cell holds the negative index of the
+     * previous empty cell.
+     */
+    private int[]            _base;
+
+    /*
+     * The parent state of each cell. An empty cell holds the negative index of
+     * the next empty cell.
+     */
+    private int[]            _check;
+
+    /*
+     * The first child of each state and the next sibling of each child, in
+     * code order. A value of NONE ends the list. Is not used by empty cells.
+     */
+    private int[]            _firstChild;
+    private int[]            _nextSibling;
+
+    /*
+     * The first cell in the circular list of empty cells. A value of 0 means
+     * there are no empty cells.
+     */
+    private int              _emptyHead;
+
+    /*
+     * An iterator that walks the states below a start state in order. It holds
+     * a stack of states and the next child to visit at each state.
+     */
+    private class WordIterator implements Iterator<String>
+    {
+        /*
+         * The states on the current path.
+         */
+        private int[]               _states;
+
+        /*
+         * The next child to visit at each state on the current path.
+         */
+        private int[]               _nextChildren;
+
+        /*
+         * The number of states on the current path.
+         */
+        private int                 _size;
+
+        /*
+         * The length of the word at the start state.
+         */
+        private final int           _prefixLength;
+
+        /*
+         * The word that ends at the current state.
+         */
+        private final StringBuilder _word;
+
+        /*
+         * The next word to return. Is null if it has not been found yet.
+         */
+        private String              _next;
+
+        /*
+         * @param start The state to start from.
+         *
+         * @param prefix The word that ends at the start state.
+         */
+        WordIterator(final int start, final StringBuilder prefix)
+        {
+            this._states = new int[16];
+            this._nextChildren = new int[16];
+            this._states[0] = start;
+            this._nextChildren[0] = DoubleArrayTrie.this.getFirstLetterChild(start);
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (DoubleArrayTrie.this.getChild(start, END_OF_WORD) != NONE)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the states until the next word is found or all of the
+         * states were visited.
+         */
+        private void advance()
+        {
+            final DoubleArrayTrie trie = DoubleArrayTrie.this;
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final int state = this._states[top];
+                final int child = this._nextChildren[top];
+
+                if (child == NONE)
+                {
+                    --this._size;
+                    this._word.setLength(this._prefixLength + Math.max(this._size - 1, 0));
+                }
+                else
+                {
+                    this._nextChildren[top] = trie._nextSibling[child];
+                    if (this._size == this._states.length)
+                    {
+                        this._states = Arrays.copyOf(this._states, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                    }
+                    this._states[this._size] = child;
+                    this._nextChildren[this._size] = trie.getFirstLetterChild(child);
+                    ++this._size;
+                    this._word.append(trie.toCharacter(child - trie._base[state]));
+                    if (trie.getChild(child, END_OF_WORD) != NONE)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public DoubleArrayTrie()
+    {
+        this.clear();
+    }
+
+    /**
+     * Used to clear and reset the Trie. The codes array is kept and only the
+     * codes of the characters that were seen are reset.
+     */
+    @Override
+    public void clear()
+    {
+        if (this._codes == null)
+        {
+            this._codes = new int[INITIAL_CODES];
+            this._alphabet = new char[16];
+        }
+        for (int i = 0; i < this._alphabetSize; ++i)
+        {
+            this._codes[this._alphabet[i]] = END_OF_WORD;
+        }
+        this._alphabetSize = 0;
+        this._base = new int[INITIAL_CAPACITY];
+        this._check = new int[INITIAL_CAPACITY];
+        this._firstChild = new int[INITIAL_CAPACITY];
+        this._nextSibling = new int[INITIAL_CAPACITY];
+        this._emptyHead = NONE;
+        this.linkEmpty(ROOT + 1, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Add a word to the Trie.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.addWord(word, 0, word.length());
+    }
+
+    /**
+     * Add a range of characters as a word. Only a null check is done, so
+     * adding a word that is already in the Trie does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+        this.addWord(word, start, end);
+    }
+
+    /*
+     * Adds the states for the characters of a word from start to end and the
+     * end of word state.
+     */
+    private void addWord(final CharSequence word, final int start, final int end)
+    {
+        int state = ROOT;
+        for (int i = start; i < end; ++i)
+        {
+            state = this.addChild(state, this.toCode(word.charAt(i)));
+        }
+        // mark the last state with the terminator.
+        this.addChild(state, END_OF_WORD);
+    }
+
+    /**
+     * Removes a word from the Trie. The end of word cell is freed, and so is
+     * each state that no longer has a child, up to the nearest state that is
+     * a word or has another child. The freed cells are reused by later adds.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        int state = this.walk(word, 0, word.length());
+        final int end = (state == NONE ? NONE : this.getChild(state, END_OF_WORD));
+        if (end == NONE)
+        {
+            return (false);
+        }
+        this.unlinkChild(state, end);
+        this.linkEmpty(end, end + 1);
+
+        // the root is never freed.
+        while (state != ROOT && !this.hasChildren(state))
+        {
+            final int parent = this._check[state];
+            this.unlinkChild(parent, state);
+            this.linkEmpty(state, state + 1);
+            state = parent;
+        }
+        if (!this.hasChildren(state))
+        {
+            // a state without children does not hold a base, so its old
+            // cells can be used by any state.
+            this._base[state] = 0;
+        }
+        return (true);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int state = this.walk(word, 0, word.length());
+        return (state != NONE && this.getChild(state, END_OF_WORD) != NONE);
+    }
+
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done, so the lookup does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            return (false);
+        }
+        final int state = this.walk(word, start, end);
+        return (state != NONE && this.getChild(state, END_OF_WORD) != NONE);
+    }
+
+    /**
+     * Gets the longest word that is a prefix of the input. The input is walked
+     * once and the walk stops at the first character that is not a child.
+     *
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return The longest word that is a prefix of the input, or null if no
+     *         word is a prefix of the input.
+     */
+    @Override
+    public String longestPrefixOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+
+        int length = 0;
+        final int count = input.length();
+        int state = ROOT;
+        for (int i = 0; i < count; ++i)
+        {
+            final int code = this.getCode(input.charAt(i));
+            state = (code == END_OF_WORD ? NONE : this.getChild(state, code));
+            if (state == NONE)
+            {
+                break;
+            }
+            if (this.getChild(state, END_OF_WORD) != NONE)
+            {
+                length = i + 1;
+            }
+        }
+        return (length == 0 ? null : input.subSequence(0, length).toString());
+    }
+
+    /**
+     * Gets all of the words that are a prefix of the input, shortest first.
+     * The input is walked once and the walk stops at the first character that
+     * is not a child.
+     *
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> prefixesOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final List<String> data = new ArrayList<String>();
+        final int count = input.length();
+        int state = ROOT;
+        for (int i = 0; i < count; ++i)
+        {
+            final int code = this.getCode(input.charAt(i));
+            state = (code == END_OF_WORD ? NONE : this.getChild(state, code));
+            if (state == NONE)
+            {
+                break;
+            }
+            if (this.getChild(state, END_OF_WORD) != NONE)
+            {
+                data.add(input.subSequence(0, i + 1).toString());
+            }
+        }
+        return (data);
+    }
+
+    /**
+     * Gets all of the words that were added.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        this.collectWords(ROOT, new StringBuilder(), data);
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix. The prefix is walked as far as it matches
+     * and the words below the last matching character are returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int state = this.walkPrefix(prefix, prefixWord);
+
+        final LinkedList<String> data = new LinkedList<String>();
+        this.collectWords(state, prefixWord, data);
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix. The words are found
+     * as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int state = this.walkPrefix(prefix, prefixWord);
+        return (new WordIterator(state, prefixWord));
+    }
+
+    /*
+     * Walks the prefix as far as it matches. The matching characters are
+     * appended to the prefix word and the last matching state is returned.
+     */
+    private int walkPrefix(final CharSequence prefix, final StringBuilder prefixWord)
+    {
+        final int count = prefix.length();
+        int state = ROOT;
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final int code = this.getCode(character);
+            final int child = (code == END_OF_WORD ? NONE : this.getChild(state, code));
+            if (child == NONE)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            state = child;
+            prefixWord.append(character);
+        }
+        return (state);
+    }
+
+    /*
+     * Adds the words below the state to the list. Uses an explicit stack of
+     * states and the length of the word at each state.
+     */
+    private void collectWords(final int start, final StringBuilder prefix, final List<String> data)
+    {
+        final int prefixLength = prefix.length();
+        int[] states = new int[16];
+        int[] depths = new int[16];
+        int size = 0;
+        states[size] = start;
+        depths[size] = prefixLength;
+        ++size;
+
+        final StringBuilder word = prefix;
+        while (size > 0)
+        {
+            --size;
+            final int state = states[size];
+            word.setLength(depths[size]);
+            if (state != start)
+            {
+                word.append(this.toCharacter(state - this._base[this._check[state]]));
+            }
+
+            if (this._base[state] == 0)
+            {
+                continue;
+            }
+
+            if (this.getChild(state, END_OF_WORD) != NONE)
+            {
+                data.add(word.toString());
+            }
+
+            final int first = size;
+            for (int child = this.getFirstLetterChild(state); child != NONE; child = this._nextSibling[child])
+            {
+                if (size == states.length)
+                {
+                    states = Arrays.copyOf(states, size << 1);
+                    depths = Arrays.copyOf(depths, size << 1);
+                }
+                states[size] = child;
+                depths[size] = word.length();
+                ++size;
+            }
+
+            // reverse the children so that the codes are visited in the order
+            // they were first seen. The depths are all the same.
+            for (int i = first, j = size - 1; i < j; ++i, --j)
+            {
+                final int child = states[i];
+                states[i] = states[j];
+                states[j] = child;
+            }
+        }
+        word.setLength(prefixLength);
+    }
+
+    /*
+     * Walks the characters of the word from start to end. Returns the state
+     * that was reached or NONE if a character is not found.
+     */
+    private int walk(final CharSequence word, final int start, final int end)
+    {
+        int state = ROOT;
+        for (int i = start; i < end && state != NONE; ++i)
+        {
+            final int code = this.getCode(word.charAt(i));
+            state = (code == END_OF_WORD ? NONE : this.getChild(state, code));
+        }
+        return (state);
+    }
+
+    /*
+     * Gets the child of a state by code. Returns NONE if the child does not
+     * exist.
+     */
+    private int getChild(final int state, final int code)
+    {
+        final int base = this._base[state];
+        if (base == 0)
+        {
+            return (NONE);
+        }
+        final int child = base + code;
+        return (child < this._check.length && this._check[child] == state ? child : NONE);
+    }
+
+    /*
+     * Gets the first child of a state that is not the end of word child.
+     * Returns NONE if there is none. The end of word child has the lowest
+     * code, so it can only be first.
+     */
+    private int getFirstLetterChild(final int state)
+    {
+        final int child = this._firstChild[state];
+        if (child != NONE && child == this._base[state] + END_OF_WORD)
+        {
+            return (this._nextSibling[child]);
+        }
+        return (child);
+    }
+
+    /*
+     * Determines if a state has a child, including the end of word child.
+     */
+    private boolean hasChildren(final int state)
+    {
+        return (this._firstChild[state] != NONE);
+    }
+
+    /*
+     * Links a new child into the children of a state. The children share the
+     * base of the state, so their cells are in code order.
+     */
+    private void linkChild(final int state, final int child)
+    {
+        int previous = NONE;
+        int next = this._firstChild[state];
+        while (next != NONE && next < child)
+        {
+            previous = next;
+            next = this._nextSibling[next];
+        }
+        this._nextSibling[child] = next;
+        if (previous == NONE)
+        {
+            this._firstChild[state] = child;
+        }
+        else
+        {
+            this._nextSibling[previous] = child;
+        }
+    }
+
+    /*
+     * Unlinks a child from the children of a state.
+     */
+    private void unlinkChild(final int state, final int child)
+    {
+        if (this._firstChild[state] == child)
+        {
+            this._firstChild[state] = this._nextSibling[child];
+            return;
+        }
+        int previous = this._firstChild[state];
+        while (this._nextSibling[previous] != child)
+        {
+            previous = this._nextSibling[previous];
+        }
+        this._nextSibling[previous] = this._nextSibling[child];
+    }
+
+    /*
+     * Gets or creates the child of a state by code. The children of the state
+     * are relocated when the cell for the new child is in use.
+     */
+    private int addChild(final int state, final int code)
+    {
+        int child = this.getChild(state, code);
+        if (child == NONE)
+        {
+            int base = this._base[state];
+            if (base == 0)
+            {
+                base = this.findBase(new int[] { code }, 1);
+                this._base[state] = base;
+            }
+            else if (!this.isEmpty(base + code))
+            {
+                base = this.relocate(state, code);
+            }
+            child = base + code;
+            this.ensureCapacity(child + 1);
+            this.occupy(child, state);
+            this.linkChild(state, child);
+        }
+        return (child);
+    }
+
+    /*
+     * Moves the children of a state to a new base that also has room for the
+     * new code. Returns the new base.
+     */
+    private int relocate(final int state, final int newCode)
+    {
+        final int oldBase = this._base[state];
+        int count = 0;
+        for (int child = this._firstChild[state]; child != NONE; child = this._nextSibling[child])
+        {
+            ++count;
+        }
+        final int[] codes = new int[count + 1];
+        count = 0;
+        for (int child = this._firstChild[state]; child != NONE; child = this._nextSibling[child])
+        {
+            codes[count++] = child - oldBase;
+        }
+        codes[count] = newCode;
+
+        final int newBase = this.findBase(codes, count + 1);
+        this._base[state] = newBase;
+        this._firstChild[state] = NONE;
+
+        // the new code is placed and linked by the caller. The codes are in
+        // order, so each moved child is linked after the one before it.
+        int previous = NONE;
+        for (int i = 0; i < count; ++i)
+        {
+            final int oldChild = oldBase + codes[i];
+            final int newChild = newBase + codes[i];
+            final int childBase = this._base[oldChild];
+            final int firstGrandchild = this._firstChild[oldChild];
+            this.occupy(newChild, state);
+            this._base[newChild] = childBase;
+            this._firstChild[newChild] = firstGrandchild;
+            if (previous == NONE)
+            {
+                this._firstChild[state] = newChild;
+            }
+            else
+            {
+                this._nextSibling[previous] = newChild;
+            }
+            previous = newChild;
+
+            // the grandchildren now point at the new cell.
+            for (int grandchild = firstGrandchild; grandchild != NONE; grandchild = this._nextSibling[grandchild])
+            {
+                this._check[grandchild] = newChild;
+            }
+            this.linkEmpty(oldChild, oldChild + 1);
+        }
+        return (newBase);
+    }
+
+    /*
+     * Finds a base where the cell for every code is empty. The empty cells are
+     * tried in list order, starting after the last fit, before the arrays are
+     * grown.
+     */
+    private int findBase(final int[] codes, final int count)
+    {
+        int min = codes[0];
+        int max = codes[0];
+        for (int i = 1; i < count; ++i)
+        {
+            min = Math.min(min, codes[i]);
+            max = Math.max(max, codes[i]);
+        }
+
+        int base = 0;
+        if (this._emptyHead != NONE)
+        {
+            int cell = this._emptyHead;
+            do
+            {
+                final int candidate = cell - min;
+                if (candidate > 0 && this.isEmpty(candidate, codes, count))
+                {
+                    // the next search starts here so the cells that did not
+                    // fit are not tried again right away.
+                    this._emptyHead = cell;
+                    base = candidate;
+                    break;
+                }
+                cell = -this._check[cell];
+            }
+            while (cell != this._emptyHead);
+        }
+
+        if (base == 0)
+        {
+            base = Math.max(this._check.length - min, 1);
+        }
+        this.ensureCapacity(base + max + 1);
+        return (base);
+    }
+
+    /*
+     * Determines if the cell for every code is empty.
+     */
+    private boolean isEmpty(final int base, final int[] codes, final int count)
+    {
+        boolean isEmpty = true;
+        for (int i = 0; i < count && isEmpty; ++i)
+        {
+            isEmpty = this.isEmpty(base + codes[i]);
+        }
+        return (isEmpty);
+    }
+
+    /*
+     * Determines if a cell is empty. Cells past the end of the arrays are
+     * empty.
+     */
+    private boolean isEmpty(final int index)
+    {
+        return (index >= this._check.length || this._check[index] < 0);
+    }
+
+    /*
+     * Removes a cell from the empty list and makes it a child of the parent.
+     */
+    private void occupy(final int index, final int parent)
+    {
+        assert (this.isEmpty(index)) : "The cell should be empty.";
+        final int next = -this._check[index];
+        final int previous = -this._base[index];
+        if (next == index)
+        {
+            this._emptyHead = NONE;
+        }
+        else
+        {
+            this._check[previous] = -next;
+            this._base[next] = -previous;
+            if (this._emptyHead == index)
+            {
+                this._emptyHead = next;
+            }
+        }
+        this._check[index] = parent;
+        this._base[index] = 0;
+        this._firstChild[index] = NONE;
+        this._nextSibling[index] = NONE;
+    }
+
+    /*
+     * Adds the cells from start to end, exclusive, to the end of the empty
+     * list.
+     */
+    private void linkEmpty(final int start, final int end)
+    {
+        for (int index = start; index < end; ++index)
+        {
+            if (this._emptyHead == NONE)
+            {
+                this._check[index] = -index;
+                this._base[index] = -index;
+                this._emptyHead = index;
+            }
+            else
+            {
+                final int last = -this._base[this._emptyHead];
+                this._check[index] = -this._emptyHead;
+                this._base[index] = -last;
+                this._check[last] = -index;
+                this._base[this._emptyHead] = -index;
+            }
+        }
+    }
+
+    /*
+     * Grows the base and check arrays so they can hold the index. The new
+     * cells are added to the empty list.
+     */
+    private void ensureCapacity(final int size)
+    {
+        final int length = this._check.length;
+        if (size > length)
+        {
+            int capacity = length;
+            while (capacity < size)
+            {
+                capacity <<= 1;
+            }
+            this._base = Arrays.copyOf(this._base, capacity);
+            this._check = Arrays.copyOf(this._check, capacity);
+            this._firstChild = Arrays.copyOf(this._firstChild, capacity);
+            this._nextSibling = Arrays.copyOf(this._nextSibling, capacity);
+            this.linkEmpty(length, capacity);
+        }
+    }
+
+    /*
+     * Gets the code for a character. Returns END_OF_WORD if the character has
+     * not been seen.
+     */
+    private int getCode(final char character)
+    {
+        return (character < this._codes.length ? this._codes[character] : END_OF_WORD);
+    }
+
+    /*
+     * Gets the code for a character. A new code is assigned if the character
+     * has not been seen.
+     */
+    private int toCode(final char character)
+    {
+        int code = this.getCode(character);
+        if (code == END_OF_WORD)
+        {
+            if (character >= this._codes.length)
+            {
+                final int length = Math.min(Math.max(character + 1, this._codes.length << 1), Character.MAX_VALUE + 1);
+                this._codes = Arrays.copyOf(this._codes, length);
+            }
+            if (this._alphabetSize == this._alphabet.length)
+            {
+                this._alphabet = Arrays.copyOf(this._alphabet, this._alphabetSize << 1);
+            }
+            this._alphabet[this._alphabetSize] = character;
+            ++this._alphabetSize;
+            code = this._alphabetSize;
+            this._codes[character] = code;
+        }
+        return (code);
+    }
+
+    /*
+     * Gets the character for a code.
+     */
+    private char toCharacter(final int code)
+    {
+        assert (code > END_OF_WORD) : "The parameter 'code' should not be the end of word code.";
+        return (this._alphabet[code - 1]);
+    }
+}
@@ -0,0 +1,152 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * Helper methods to compute the Levenshtein edit distance one row at a time,
+ * so a Trie can compute the distance of each node from the row of its parent
+ * while it walks down.
+ * 
+ * @author Gregory Brown (sysdevone)
+ * 
+ */
+final class Levenshtein
+{
+    
+    /*
+     * Not created.
+     */
+    private Levenshtein()
+    {
+        // static methods only.
+    }
+    
+    /**
+     * Validates the parameters of a fuzzy search.
+     * 
+     * @param query
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @param maxEdits
+     *            Must be 0 or more.
+     * @param limit
+     *            Must be 0 or more.
+     */
+    static void validate(final CharSequence query, final int maxEdits, final int limit)
+    {
+        Validate.defineObject(query).testNotNull().throwValidationExceptionOnFail().validate();
+        if (maxEdits < 0)
+        {
+            throw (new IllegalArgumentException("The parameter 'maxEdits' should not be negative."));
+        }
+        if (limit < 0)
+        {
+            throw (new IllegalArgumentException("The parameter 'limit' should not be negative."));
+        }
+    }
+    
+    /**
+     * Creates the row for an empty word.
+     * 
+     * @param query
+     *            The word to compare with.
+     * @return An int array of the length of the query plus one.
+     */
+    static int[] firstRow(final CharSequence query)
+    {
+        final int[] row = new int[query.length() + 1];
+        for (int i = 0; i < row.length; ++i)
+        {
+            row[i] = i;
+        }
+        return (row);
+    }
+    
+    /**
+     * Computes the row for a word from the row of the word without its last
+     * character. The last value of the row is the distance to the query and
+     * the lowest value is the least distance of any word that starts with the
+     * word.
+     * 
+     * @param previous
+     *            The row of the word without its last character.
+     * @param row
+     *            The row to fill. Must be the same length as the previous row.
+     * @param query
+     *            The word to compare with.
+     * @param character
+     *            The last character of the word.
+     * @return The lowest value in the row.
+     */
+    static int nextRow(final int[] previous, final int[] row, final CharSequence query, final char character)
+    {
+        row[0] = previous[0] + 1;
+        int min = row[0];
+        final int count = query.length();
+        for (int i = 1; i <= count; ++i)
+        {
+            final int replace = previous[i - 1] + (query.charAt(i - 1) == character ? 0 : 1);
+            final int value = Math.min(replace, Math.min(previous[i], row[i - 1]) + 1);
+            row[i] = value;
+            if (value < min)
+            {
+                min = value;
+            }
+        }
+        return (min);
+    }
+    
+    /**
+     * Determines if a word is within a number of edits of the query. Stops as
+     * soon as a row is over the number of edits.
+     * 
+     * @param query
+     *            The word to compare with.
+     * @param word
+     *            The word to test.
+     * @param maxEdits
+     *            The maximum number of edits.
+     * @return A boolean value of true if the distance is maxEdits or less.
+     */
+    static boolean isWithin(final CharSequence query, final CharSequence word, final int maxEdits)
+    {
+        if (Math.abs(query.length() - word.length()) > maxEdits)
+        {
+            return (false);
+        }
+        
+        int[] previous = firstRow(query);
+        int[] row = new int[previous.length];
+        final int count = word.length();
+        for (int i = 0; i < count; ++i)
+        {
+            if (nextRow(previous, row, query, word.charAt(i)) > maxEdits)
+            {
+                return (false);
+            }
+            final int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return (previous[previous.length - 1] <= maxEdits);
+    }
+}
@@ -19,10 +19,23 @@
 
 package com.gabstudios.collection;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Stack;
+import java.util.TreeMap;
 
 import com.gabstudios.validate.Validate;
 
@@ -33,11 +46,14 @@ import com.gabstudios.validate.Validate;
  * node can have 1 to many children. Duplicate siblings with the same value are
  * not allowed.
  * 
- * The order of when a child is added is maintained.
+ * The order of when a child is added is maintained, unless the tree is
+ * created with a <code>Comparator</code>. Then the children are kept in the
+ * order of the comparator.
  * 
  * A tree may hold onto multiple nodes with the same data.
  * 
- * A Node uses a hashmap to hold its children so the search is O(1).
+ * A Node uses a hashmap to hold its children so the search is O(1). When the
+ * children are ordered a treemap is used, so the search is O(log n).
  * 
  * @author Gregory Brown (sysdevone)
  * 
@@ -61,22 +77,22 @@ public class LinkedHashMapTree<T>
         /*
          * Holds the child nodes of this node. Will not hold a duplicate child.
          */
-        private final java.util.LinkedHashMap<T, Node<T>> _children;
+        private final java.util.Map<T, Node<T>> _children;
         
         /*
          * The data held in this node. May be null.
          */
-        private final T                                   _data;
+        private final T                         _data;
         
         /*
          * The parent node to this node. May be null if this node is the root.
          */
-        private Node<T>                                   _parent;
+        private Node<T>                         _parent;
         
         /*
          * The tree that this node belongs too.
          */
-        private final LinkedHashMapTree<T>                _tree;
+        private final LinkedHashMapTree<T>      _tree;
         
         /**
          * Constructor to create a node in the Tree.
@@ -93,7 +109,14 @@ public class LinkedHashMapTree<T>
             
             this._tree = tree;
             this._data = data;
-            this._children = new java.util.LinkedHashMap<T, Node<T>>();
+            if (tree._comparator == null)
+            {
+                this._children = new java.util.LinkedHashMap<T, Node<T>>();
+            }
+            else
+            {
+                this._children = new TreeMap<T, Node<T>>(tree._comparator);
+            }
         }
         
         /**
@@ -183,6 +206,36 @@ public class LinkedHashMapTree<T>
             return (children);
         }
         
+        /*
+         * Gets an iterator over the children without copying them. Used to
+         * walk the tree lazily.
+         */
+        Iterator<Node<T>> getChildIterator()
+        {
+            return (this._children.values().iterator());
+        }
+        
+        /*
+         * Gets the node associated with the data without validating the data.
+         * Returns null if the data is not a child. Used by the lookups that
+         * walk the tree one child at a time.
+         */
+        Node<T> findChild(final T data)
+        {
+            return (this._children.get(data));
+        }
+        
+        /*
+         * Gets the children by data in the order of the comparator. Used by
+         * the lookups that need the next or previous child. The tree must be
+         * ordered.
+         */
+        NavigableMap<T, Node<T>> getOrderedChildren()
+        {
+            assert (this._tree._comparator != null) : "The tree should be ordered.";
+            return ((NavigableMap<T, Node<T>>) this._children);
+        }
+        
         /**
          * Gets the data bound to the node.
          * 
@@ -312,7 +365,7 @@ public class LinkedHashMapTree<T>
             // clear parent on node that is removed.
             if (removedNode != null)
             {
-                removedNode.setParent(null);
+                removedNode._parent = null;
             }
             
             return (removedNode);
@@ -343,10 +396,61 @@ public class LinkedHashMapTree<T>
         }
     }
     
+    /**
+     * Writes and reads the data held in a node for the writeTo and readFrom
+     * methods.
+     * 
+     * @author Gregory Brown (sysdevone)
+     * 
+     * @param <T>
+     *            This defines the class type of the data.
+     */
+    public interface Codec<T>
+    {
+        /**
+         * Writes the data of a node.
+         * 
+         * @param output
+         *            The <code>DataOutput</code> instance to write to.
+         * @param data
+         *            The data held in the node. Will not be null.
+         * @throws IOException
+         *             if the data can not be written.
+         */
+        public void write(DataOutput output, T data) throws IOException;
+        
+        /**
+         * Reads the data of a node.
+         * 
+         * @param input
+         *            The <code>DataInput</code> instance to read from.
+         * @return The data of the node. Must not be null.
+         * @throws IOException
+         *             if the data can not be read.
+         */
+        public T read(DataInput input) throws IOException;
+    }
+    
+    /*
+     * The magic number at the start of a stream. It is "GABS".
+     */
+    private static final int MAGIC   = 0x47414253;
+    
+    /*
+     * The version of the stream format.
+     */
+    private static final int VERSION = 2;
+    
     /*
-     * The root of the tree. Should not be null.
+     * The root of the tree. Should not be null. Is replaced by readFrom.
      */
-    private final Node<T> _root;
+    private Node<T>                     _root;
+    
+    /*
+     * Orders the children of each node. Is null if the children are kept in
+     * the order they were added.
+     */
+    private final Comparator<? super T> _comparator;
     
     /**
      * Constructor of the Tree. A Tree must have one <code>Node</code> instance
@@ -356,12 +460,41 @@ public class LinkedHashMapTree<T>
      *            The data of the root <code>Node</code> instance. May be null.
      */
     public LinkedHashMapTree(final T data)
+    {
+        this(data, null);
+    }
+    
+    /**
+     * Constructor of the Tree where the children of each node are kept in the
+     * order of a comparator.
+     * 
+     * @param data
+     *            The data of the root <code>Node</code> instance. May be null.
+     * @param comparator
+     *            The <code>Comparator</code> instance that orders the children.
+     *            May be null to keep the children in the order they were
+     *            added.
+     */
+    public LinkedHashMapTree(final T data, final Comparator<? super T> comparator)
     {
     	Validate.defineObject(data).testNotNull().throwValidationExceptionOnFail().validate();
+        this._comparator = comparator;
         final Node<T> root = this.createNode(data);
         this._root = root;
     }
     
+    /**
+     * Determines if the children of each node are kept in the order of a
+     * comparator.
+     * 
+     * @return A boolean value of true if the children are ordered, or false
+     *         if they are kept in the order they were added.
+     */
+    public boolean isOrdered()
+    {
+        return (this._comparator != null);
+    }
+    
     /**
      * Adds a child to the root <code>Node</code> instance. This is a helper
      * method that performs the same action as getting the root node and adding
@@ -435,6 +568,39 @@ public class LinkedHashMapTree<T>
         return (this._root);
     }
     
+    /**
+     * Gets the structure of the tree in one pass over its nodes. The nodes are
+     * walked with a stack, so a deep tree does not overflow the call stack.
+     * 
+     * @return A <code>Statistics</code> instance.
+     */
+    public Statistics getStatistics()
+    {
+        final Statistics statistics = new Statistics();
+        final boolean isSorted = (this._comparator != null);
+        final Stack<Node<T>> nodes = new Stack<Node<T>>();
+        final Stack<int[]> states = new Stack<int[]>();
+        nodes.push(this._root);
+        states.push(new int[] { 0, 0 });
+        while (!nodes.isEmpty())
+        {
+            final Node<T> node = nodes.pop();
+            final int[] state = states.pop();
+            final int fanout = node._children.size();
+            
+            // a node holds its children map, data, parent and tree.
+            final long bytes = Statistics.estimateObjectBytes(4, this.getNodeStateBytes(node))
+                    + Statistics.estimateMapBytes(fanout, isSorted);
+            final int chain = statistics.addNode(state[0], fanout, this.isWordNode(node), state[1], bytes);
+            for (final Node<T> child : node._children.values())
+            {
+                nodes.push(child);
+                states.push(new int[] { state[0] + 1, chain });
+            }
+        }
+        return (statistics);
+    }
+    
     /**
      * Removes a child from the root <code>Node</code> instance. This is a
      * helper method that performs the same action as getting the root node and
@@ -451,4 +617,281 @@ public class LinkedHashMapTree<T>
         return (node);
     }
     
+    /**
+     * Writes the tree to a stream. The format named by getStreamFormat is
+     * written first, then the nodes in pre order. Each node is its data, the
+     * state written by writeNodeState and its number of children. The stream
+     * is flushed but not closed.
+     * 
+     * @param output
+     *            The <code>OutputStream</code> instance to write to. Must not
+     *            be null.
+     * @param codec
+     *            The <code>Codec</code> instance that writes the data. Must not
+     *            be null.
+     * @throws IOException
+     *             if the tree can not be written.
+     */
+    public void writeTo(final OutputStream output, final Codec<T> codec) throws IOException
+    {
+        Validate.defineObject(output).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(codec).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeUTF(this.getStreamFormat());
+        this.writeNode(data, this._root, codec);
+        
+        final Stack<Iterator<Node<T>>> stack = new Stack<Iterator<Node<T>>>();
+        stack.push(this._root.getChildIterator());
+        while (!stack.isEmpty())
+        {
+            final Iterator<Node<T>> iterator = stack.peek();
+            if (iterator.hasNext())
+            {
+                final Node<T> child = iterator.next();
+                this.writeNode(data, child, codec);
+                if (!child.isLeaf())
+                {
+                    stack.push(child.getChildIterator());
+                }
+            }
+            else
+            {
+                stack.pop();
+            }
+        }
+        data.flush();
+    }
+    
+    /**
+     * Reads a tree that was written by writeTo. The nodes are read into a new
+     * root, which is passed to finishRead and then replaces the root of this
+     * tree, so the tree is not changed if the stream can not be read. The nodes
+     * are created directly, not with addChild. Only the bytes of the tree are
+     * read and the stream is not closed, so more data can be read after it.
+     * The stream is not buffered, so a caller that reads a large tree should
+     * pass a buffered stream.
+     * 
+     * @param input
+     *            The <code>InputStream</code> instance to read from. Must not
+     *            be null.
+     * @param codec
+     *            The <code>Codec</code> instance that reads the data. Must not
+     *            be null.
+     * @throws IOException
+     *             if the tree can not be read, the stream was written in
+     *             another format, a node has two children with the same data
+     *             or the root data in the stream does not equal the root data
+     *             of this tree.
+     */
+    public void readFrom(final InputStream input, final Codec<T> codec) throws IOException
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(codec).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION)
+        {
+            throw (new IOException("The stream is not a tree of version " + VERSION + "."));
+        }
+        final String format = data.readUTF();
+        if (!this.getStreamFormat().equals(format))
+        {
+            throw (new IOException("The stream has the format '" + format + "' but the format '"
+                    + this.getStreamFormat() + "' was expected."));
+        }
+        
+        final T rootData = codec.read(data);
+        if (!this._root.getData().equals(rootData))
+        {
+            throw (new IOException("The root data '" + rootData + "' does not equal the root data '"
+                    + this._root.getData() + "' of the tree."));
+        }
+        final Node<T> root = this.createNode(rootData);
+        this.readNodeState(data, root);
+        
+        final Stack<Node<T>> nodes = new Stack<Node<T>>();
+        final Stack<int[]> remaining = new Stack<int[]>();
+        final int rootCount = readCount(data);
+        if (rootCount > 0)
+        {
+            nodes.push(root);
+            remaining.push(new int[] { rootCount });
+        }
+        while (!nodes.isEmpty())
+        {
+            final int[] count = remaining.peek();
+            if (count[0] == 0)
+            {
+                nodes.pop();
+                remaining.pop();
+                continue;
+            }
+            --count[0];
+            
+            final Node<T> parent = nodes.peek();
+            final T childData = codec.read(data);
+            if (childData == null)
+            {
+                throw (new IOException("The codec read null data."));
+            }
+            if (parent._children.containsKey(childData))
+            {
+                throw (new IOException("The data '" + childData + "' is a child of '" + parent.getData()
+                        + "' more than once."));
+            }
+            final Node<T> child = this.createNode(childData);
+            child._parent = parent;
+            parent._children.put(childData, child);
+            this.readNodeState(data, child);
+            
+            final int childCount = readCount(data);
+            if (childCount > 0)
+            {
+                nodes.push(child);
+                remaining.push(new int[] { childCount });
+            }
+        }
+        
+        this.finishRead(root);
+        this._root = root;
+    }
+    
+    /**
+     * A hook to name the format of the state written by writeNodeState. It is
+     * written by writeTo, and readFrom does not read a stream with another
+     * format. A subclass that writes its own state should return its own
+     * format. Is "tree" by default.
+     * 
+     * @return A String instance. Will not be null.
+     */
+    protected String getStreamFormat()
+    {
+        return ("tree");
+    }
+    
+    /**
+     * A hook to set the state of the nodes read by readFrom that is not in the
+     * stream, for example a count. Is called with the new root after the whole
+     * tree is read and before it replaces the root of this tree. Does nothing
+     * by default.
+     * 
+     * @param root
+     *            The <code>Node</code> instance that is the new root.
+     */
+    protected void finishRead(final Node<T> root)
+    {
+        // there is no state to set by default.
+    }
+    
+    /**
+     * A hook to write the state of a node that is not its data, for example a
+     * flag. Is called after the data of the node is written. Does nothing by
+     * default.
+     * 
+     * @param output
+     *            The <code>DataOutput</code> instance to write to.
+     * @param node
+     *            The <code>Node</code> instance being written.
+     * @throws IOException
+     *             if the state can not be written.
+     */
+    protected void writeNodeState(final DataOutput output, final Node<T> node) throws IOException
+    {
+        // there is no state by default.
+    }
+    
+    /**
+     * A hook to read the state that was written by writeNodeState. Is called
+     * after the node is created, before its children are read. Does nothing by
+     * default.
+     * 
+     * @param input
+     *            The <code>DataInput</code> instance to read from.
+     * @param node
+     *            The <code>Node</code> instance being read.
+     * @throws IOException
+     *             if the state can not be read.
+     */
+    protected void readNodeState(final DataInput input, final Node<T> node) throws IOException
+    {
+        // there is no state by default.
+    }
+    
+    /**
+     * A hook to determine if a node is counted as a word by getStatistics. A
+     * tree does not hold words, so its leaves are counted by default.
+     * 
+     * @param node
+     *            The <code>Node</code> instance being counted.
+     * @return A boolean value of true if the node is a word, otherwise it is
+     *         false.
+     */
+    protected boolean isWordNode(final Node<T> node)
+    {
+        return (node.isLeaf());
+    }
+    
+    /**
+     * A hook to get the bytes of the fields that a subclass adds to a node,
+     * for the estimate of getStatistics. Is 0 by default.
+     * 
+     * @param node
+     *            The <code>Node</code> instance being counted.
+     * @return An int value of 0 or more.
+     */
+    protected int getNodeStateBytes(final Node<T> node)
+    {
+        return (0);
+    }
+    
+    /*
+     * Writes the data, the state and the number of children of a node.
+     */
+    private void writeNode(final DataOutput output, final Node<T> node, final Codec<T> codec) throws IOException
+    {
+        codec.write(output, node.getData());
+        this.writeNodeState(output, node);
+        writeCount(output, node._children.size());
+    }
+    
+    /*
+     * Writes a count in 7 bit groups, so a small count is one byte.
+     */
+    private static void writeCount(final DataOutput output, final int count) throws IOException
+    {
+        int value = count;
+        while ((value & ~0x7F) != 0)
+        {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+    
+    /*
+     * Reads a count that was written by writeCount.
+     */
+    private static int readCount(final DataInput input) throws IOException
+    {
+        int value = 0;
+        int shift = 0;
+        while (true)
+        {
+            final int part = input.readUnsignedByte();
+            value |= (part & 0x7F) << shift;
+            if ((part & 0x80) == 0)
+            {
+                return (value);
+            }
+            shift += 7;
+            if (shift > 28)
+            {
+                throw (new IOException("The child count is not valid."));
+            }
+        }
+    }
+    
 }
@@ -19,8 +19,22 @@
 
 package com.gabstudios.collection;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 
 import com.gabstudios.validate.Validate;
@@ -31,6 +45,10 @@ import com.gabstudios.validate.Validate;
  * add(String word ) method. This can be used to get words that are similar
  * prefix by using the getWords( String prefix ) method.
  * 
+ * An ordered Trie keeps the children of each node in character order. Its
+ * words are returned in lexicographic order and it can answer the range,
+ * ceiling, floor and rank queries by walking the nodes.
+ * 
  * @author Gregory Brown (sysdevone)
  * 
  */
@@ -52,6 +70,11 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
          */
         private boolean _isWord;
         
+        /*
+         * The number of words that end at or below this node.
+         */
+        private int     _wordCount;
+        
         /**
          * @param tree
          *            The tree that this node is part of.
@@ -75,16 +98,178 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
             return (this._isWord);
         }
         
+        /**
+         * Gets the number of words that end at or below this node.
+         * 
+         * @return An int value of 0 or more.
+         */
+        public int getWordCount()
+        {
+            return (this._wordCount);
+        }
+        
+        /*
+         * Used to clear the end of a word mark. The word count of this node
+         * and each node above it is decreased.
+         */
+        void unmarkWord()
+        {
+            if (this._isWord)
+            {
+                this._isWord = false;
+                for (TrieNode node = this; node != null; node = (TrieNode) node.getParent())
+                {
+                    --node._wordCount;
+                }
+            }
+        }
+        
         /*
-         * Used to mark a node as the end of a word.
+         * Used to mark a node as the end of a word. The word count of this
+         * node and each node above it is increased the first time.
          */
         void markWord()
         {
-            this._isWord = true;
+            if (!this._isWord)
+            {
+                this._isWord = true;
+                for (TrieNode node = this; node != null; node = (TrieNode) node.getParent())
+                {
+                    ++node._wordCount;
+                }
+            }
+        }
+        
+    }
+    
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of child iterators, one for each level, and the word that ends at
+     * the current node.
+     */
+    private static class WordIterator implements Iterator<String>
+    {
+        /*
+         * The child iterators of the nodes on the current path.
+         */
+        private final Stack<Iterator<Node<Character>>> _iterators;
+        
+        /*
+         * The length of the word at the start node.
+         */
+        private final int                              _prefixLength;
+        
+        /*
+         * The word that ends at the current node.
+         */
+        private final StringBuilder                    _word;
+        
+        /*
+         * The next word to return. Is null if it has not been found yet.
+         */
+        private String                                 _next;
+        
+        /*
+         * @param start The node to start from.
+         * 
+         * @param prefix The word that ends at the start node.
+         */
+        WordIterator(final TrieNode start, final StringBuilder prefix)
+        {
+            this._iterators = new Stack<Iterator<Node<Character>>>();
+            this._iterators.push(start.getChildIterator());
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (start.isWord())
+            {
+                this._next = prefix.toString();
+            }
+        }
+        
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+        
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
         }
         
+        /*
+         * Walks down the nodes until the next word is found or all of the
+         * nodes were visited.
+         */
+        private void advance()
+        {
+            while (!this._iterators.isEmpty())
+            {
+                final Iterator<Node<Character>> iterator = this._iterators.peek();
+                if (iterator.hasNext())
+                {
+                    final TrieNode child = (TrieNode) iterator.next();
+                    this._word.append(child.getData().charValue());
+                    this._iterators.push(child.getChildIterator());
+                    if (child.isWord())
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._iterators.pop();
+                    if (!this._iterators.isEmpty())
+                    {
+                        this._word.setLength(this._prefixLength + this._iterators.size() - 1);
+                    }
+                }
+            }
+        }
     }
     
+    /*
+     * Writes and reads a node character as two bytes.
+     */
+    private static final Codec<Character> CHARACTER_CODEC = new Codec<Character>()
+    {
+        @Override
+        public void write(final DataOutput output, final Character data) throws IOException
+        {
+            output.writeChar(data.charValue());
+        }
+        
+        @Override
+        public Character read(final DataInput input) throws IOException
+        {
+            return (input.readChar());
+        }
+    };
+    
+    /*
+     * The flag that is written for a node that is the end of a word.
+     */
+    private static final int WORD_FLAG = 0x01;
+    
+    /*
+     * The operations of merge( LinkedHashMapTrie other, int operation ).
+     */
+    private static final int UNION      = 0;
+    private static final int INTERSECT  = 1;
+    private static final int DIFFERENCE = 2;
+    
     /**
      * Constructor.
      * 
@@ -92,7 +277,22 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
      */
     public LinkedHashMapTrie()
     {
-        super('*');
+        this(false);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * The root is the '*' character.
+     * 
+     * @param isOrdered
+     *            A boolean value of true to keep the children of each node in
+     *            character order, or false to keep them in the order they
+     *            were added.
+     */
+    public LinkedHashMapTrie(final boolean isOrdered)
+    {
+        super('*', (isOrdered ? Comparator.<Character> naturalOrder() : null));
     }
     
     /**
@@ -101,8 +301,9 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
     @Override
 	public void clear()
     {
-    	Node<Character> root = this.getRoot();
+    	TrieNode root = (TrieNode) this.getRoot();
     	root.removeChildren();
+    	root._wordCount = 0;
     }
     
     /**
@@ -115,23 +316,108 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
 	public void add(final String word)
     {
     	Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.addWord(word, 0, word.length());
+    }
+    
+    /**
+     * Add a range of characters as a word. Only a null check is done, and the
+     * characters are boxed to cached <code>Character</code> instances, so
+     * adding a word that is already in the Trie does not allocate.
+     * 
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+        this.addWord(word, start, end);
+    }
+    
+    /**
+     * Removes a word from the Trie. The end of word mark is cleared and the
+     * chain of nodes that no longer lead to a word is removed, up to the
+     * nearest node that is a word or has another child.
+     * 
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (this.removeWord(word) != null);
+    }
+    
+    /*
+     * Clears the end of word mark of a word and removes the nodes that no
+     * longer lead to a word. The word must have been validated.
+     * 
+     * @return The deepest <code>TrieNode</code> instance of the word that was
+     * not removed, or null if the word was not in the Trie.
+     */
+    TrieNode removeWord(final String word)
+    {
+        final int count = word.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count && node != null; ++i)
+        {
+            node = (TrieNode) node.findChild(Characters.valueOf(word.charAt(i)));
+        }
+        if (node == null || !node._isWord)
+        {
+            return (null);
+        }
         
+        node.unmarkWord();
+        
+        // walk up and remove each node that is not a word and has no
+        // children. The root is never removed.
+        TrieNode parent = (TrieNode) node.getParent();
+        while (parent != null && node._wordCount == 0)
+        {
+            parent.removeChild(node.getData());
+            node = parent;
+            parent = (TrieNode) node.getParent();
+        }
+        return (node);
+    }
+    
+    /*
+     * Adds the nodes for the characters of a word from start to end and marks
+     * the last node as the end of a word. The word must have been validated.
+     * 
+     * @return The <code>TrieNode</code> instance at the end of the word.
+     */
+    TrieNode addWord(final CharSequence word, final int start, final int end)
+    {
         // TODO - what is the max length of a word?
         
-        final int count = word.length();
         TrieNode node = (TrieNode) this.getRoot();
-        for (int i = 0; i < count; ++i)
+        for (int i = start; i < end; ++i)
         {
             // break the word into characters and add each character to the
             // tree.
             // A character will be a child of the previous character.
             // The complete word is the final leaf.
-            final Character character = word.charAt(i);
-            if (node.containsChild(character))
+            final Character character = Characters.valueOf(word.charAt(i));
+            final TrieNode child = (TrieNode) node.findChild(character);
+            if (child != null)
             {
                 // if the character is contained, get that node so that further
                 // characters can be added to it.
-                node = (TrieNode) node.getChild(character);
+                node = child;
             }
             else
             {
@@ -142,6 +428,7 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
         }
         // mark the last node with terminator.
         node.markWord();
+        return (node);
     }
     
     /*
@@ -184,33 +471,10 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
         Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
         //TODO - add a max.
         
-        // walk prefix to known set of nodes.
-        // input helo
-        // helloworld
-        // hello
-        // Tests to see if the character exists in the tree.
-        // -------------------
         final LinkedList<String> data = new LinkedList<String>();
         
         final StringBuilder prefixWord = new StringBuilder();
-        final int count = prefix.length();
-        TrieNode node = (TrieNode) this.getRoot();
-        for (int i = 0; i < count; ++i)
-        {
-            final char character = prefix.charAt(i);
-            if (node.containsChild(character))
-            {
-                // if the character exists, then get that node.
-                // continue walking down the tree character by character.
-                node = (TrieNode) node.getChild(character);
-                prefixWord.append(character);
-            }
-            else
-            {
-                // if the character is not found. STOP.
-                break;
-            }
-        }
+        final TrieNode node = this.walkPrefix(prefix, prefixWord);
         
         final Stack<TrieNode> stack = new Stack<TrieNode>();
         stack.push(node);
@@ -233,6 +497,11 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
             }
             
             final List<Node<Character>> children = stackNode.getChildren();
+            if (this.isOrdered())
+            {
+                // the last child pushed is the first popped.
+                Collections.reverse(children);
+            }
             for (final Node<Character> child : children)
             {
                 stack.push((TrieNode) child);
@@ -244,40 +513,1114 @@ public class LinkedHashMapTrie extends LinkedHashMapTree<Character> implements T
         return (data);
     }
     
-    /*
-     * (non-Javadoc)
+    /**
+     * Gets an iterator over the words based on a prefix. The words are found
+     * as the iterator is advanced.
      * 
-     * @see org.gabsocial.collection.Trie#contains(java.lang.String)
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
      */
     @Override
-	public boolean contains(String word)
+    public Iterator<String> iterateWords(final CharSequence prefix)
     {
-    	Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
-    	
-        boolean isContained = false;
-        if (word != null && word.length() > 0)
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final StringBuilder prefixWord = new StringBuilder();
+        final TrieNode node = this.walkPrefix(prefix, prefixWord);
+        return (new WordIterator(node, prefixWord));
+    }
+    
+    /**
+     * Gets the number of words that are a close match to the prefix. The
+     * prefix is walked and the count that is kept in the last matching node is
+     * returned, so the words are not visited.
+     * 
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix counts all words.
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int countWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final int count = prefix.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count; ++i)
+        {
+            final TrieNode child = (TrieNode) node.findChild(Characters.valueOf(prefix.charAt(i)));
+            if (child == null)
+            {
+                break;
+            }
+            node = child;
+        }
+        return (node._wordCount);
+    }
+    
+    /**
+     * Gets the number of words in the Trie.
+     * 
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int size()
+    {
+        return (((TrieNode) this.getRoot())._wordCount);
+    }
+    
+    /**
+     * Gets the words that are within a number of edits of the query. The edit
+     * distance is computed one row for each node while the Trie is walked, so
+     * a node whose row is over maxEdits is skipped with all of the nodes below
+     * it.
+     * 
+     * @param query
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param maxEdits
+     *            The maximum number of edits. Must be 0 or more.
+     * @param limit
+     *            The maximum number of words to return. Must be 0 or more.
+     * @return A <code>List</code> instance containing zero to limit
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> fuzzyWords(final CharSequence query, final int maxEdits, final int limit)
+    {
+        Levenshtein.validate(query, maxEdits, limit);
+        
+        final List<String> data = new ArrayList<String>();
+        final int last = query.length();
+        
+        // rows.get( n ) is the row of the node at depth n on the current path.
+        final List<int[]> rows = new ArrayList<int[]>();
+        rows.add(Levenshtein.firstRow(query));
+        
+        final StringBuilder word = new StringBuilder();
+        final Stack<Iterator<Node<Character>>> stack = new Stack<Iterator<Node<Character>>>();
+        stack.push(this.getRoot().getChildIterator());
+        while (data.size() < limit && !stack.isEmpty())
         {
-            final int count = word.length();
-            TrieNode node = (TrieNode) this.getRoot();
-            for (int i = 0; i < count; ++i)
+            final Iterator<Node<Character>> iterator = stack.peek();
+            if (iterator.hasNext())
             {
-                final char character = word.charAt(i);
-                if (node.containsChild(character))
+                final TrieNode child = (TrieNode) iterator.next();
+                final int depth = stack.size();
+                if (rows.size() == depth)
                 {
-                    // if the character exists, then get that node.
-                    // continue walking down the tree character by character.
-                    node = (TrieNode) node.getChild(character);
-                    isContained = node._isWord;
+                    rows.add(new int[last + 1]);
                 }
-                else
+                final int[] row = rows.get(depth);
+                final char character = child.getData().charValue();
+                if (Levenshtein.nextRow(rows.get(depth - 1), row, query, character) > maxEdits)
                 {
-                    // if the character is not found. STOP.
-                    isContained = false;
-                    break;
+                    // no word below this node can be close enough.
+                    continue;
+                }
+                
+                word.append(character);
+                if (child._isWord && row[last] <= maxEdits)
+                {
+                    data.add(word.toString());
+                }
+                stack.push(child.getChildIterator());
+            }
+            else
+            {
+                stack.pop();
+                if (!stack.isEmpty())
+                {
+                    word.setLength(stack.size() - 1);
                 }
             }
         }
-        
-        return (isContained);
+        return (data);
+    }
+    
+    /*
+     * Throws an IllegalStateException if the children are not in character
+     * order.
+     */
+    private void checkOrdered()
+    {
+        if (!this.isOrdered())
+        {
+            throw (new IllegalStateException(
+                    "The Trie is not ordered.  Use the LinkedHashMapTrie( true ) constructor to create an ordered Trie."));
+        }
+    }
+    
+    /*
+     * Walks the characters of a word and holds each node of the path, starting
+     * with the root. Returns the number of characters that were found.
+     */
+    private int walkPath(final CharSequence word, final TrieNode[] path)
+    {
+        final int count = word.length();
+        path[0] = (TrieNode) this.getRoot();
+        int depth = 0;
+        while (depth < count)
+        {
+            final TrieNode child = (TrieNode) path[depth].findChild(Characters.valueOf(word.charAt(depth)));
+            if (child == null)
+            {
+                break;
+            }
+            path[++depth] = child;
+        }
+        return (depth);
+    }
+    
+    /*
+     * Gets an iterator over the children of a node at a depth of the range.
+     * While the path is the start of from, the children start at the next
+     * character of from. While the path is the start of to, they end at the next
+     * character of to.
+     */
+    private static Iterator<Node<Character>> childIterator(final TrieNode node, final CharSequence from,
+            final CharSequence to, final int depth, final boolean isLow, final boolean isHigh)
+    {
+        NavigableMap<Character, Node<Character>> children = node.getOrderedChildren();
+        if (isLow)
+        {
+            children = children.tailMap(Characters.valueOf(from.charAt(depth)), true);
+        }
+        if (isHigh)
+        {
+            children = children.headMap(Characters.valueOf(to.charAt(depth)), true);
+        }
+        return (children.values().iterator());
+    }
+    
+    /*
+     * Appends the characters down to the lowest word below a node, which is the
+     * first word found by taking the first child with words.
+     */
+    private static String appendLowest(final TrieNode start, final StringBuilder word)
+    {
+        TrieNode node = start;
+        while (true)
+        {
+            word.append(node.getData().charValue());
+            if (node._isWord)
+            {
+                return (word.toString());
+            }
+            TrieNode next = null;
+            for (final Node<Character> child : node.getOrderedChildren().values())
+            {
+                if (((TrieNode) child)._wordCount > 0)
+                {
+                    next = (TrieNode) child;
+                    break;
+                }
+            }
+            node = next;
+        }
+    }
+    
+    /*
+     * Appends the characters down to the highest word below a node, which is
+     * the last node found by taking the last child with words.
+     */
+    private static String appendHighest(final TrieNode start, final StringBuilder word)
+    {
+        TrieNode node = start;
+        while (node != null)
+        {
+            word.append(node.getData().charValue());
+            TrieNode next = null;
+            for (final Node<Character> child : node.getOrderedChildren().descendingMap().values())
+            {
+                if (((TrieNode) child)._wordCount > 0)
+                {
+                    next = (TrieNode) child;
+                    break;
+                }
+            }
+            node = next;
+        }
+        return (word.toString());
+    }
+    
+    /*
+     * Builds a new Trie by walking the nodes of this Trie and the other Trie
+     * together. Each entry of the stack is a node of this Trie, the node of the
+     * other Trie at the same path and the node of the result. Either of the
+     * first two may be null when the path is only in one Trie. A null other
+     * Trie copies this Trie.
+     */
+    private LinkedHashMapTrie merge(final LinkedHashMapTrie other, final int operation)
+    {
+        final LinkedHashMapTrie result = new LinkedHashMapTrie(this.isOrdered());
+        final List<TrieNode> created = new ArrayList<TrieNode>();
+        final Stack<TrieNode[]> stack = new Stack<TrieNode[]>();
+        stack.push(new TrieNode[] { (TrieNode) this.getRoot(), (other == null ? null : (TrieNode) other.getRoot()),
+                (TrieNode) result.getRoot() });
+        while (!stack.isEmpty())
+        {
+            final TrieNode[] entry = stack.pop();
+            final TrieNode first = entry[0];
+            final TrieNode second = entry[1];
+            final TrieNode node = entry[2];
+            created.add(node);
+            
+            final boolean isFirstWord = (first != null && first._isWord);
+            final boolean isSecondWord = (second != null && second._isWord);
+            if (operation == UNION)
+            {
+                node._isWord = isFirstWord || isSecondWord;
+            }
+            else if (operation == INTERSECT)
+            {
+                node._isWord = isFirstWord && isSecondWord;
+            }
+            else
+            {
+                node._isWord = isFirstWord && !isSecondWord;
+            }
+            
+            if (first != null)
+            {
+                final Iterator<Node<Character>> iterator = first.getChildIterator();
+                while (iterator.hasNext())
+                {
+                    final TrieNode child = (TrieNode) iterator.next();
+                    final TrieNode match = (second == null ? null : (TrieNode) second.findChild(child.getData()));
+                    if (operation == INTERSECT && match == null)
+                    {
+                        // the subtree is not in the other Trie.
+                        continue;
+                    }
+                    stack.push(new TrieNode[] { child, match, (TrieNode) node.addChild(child.getData()) });
+                }
+            }
+            if (second != null && operation == UNION)
+            {
+                final Iterator<Node<Character>> iterator = second.getChildIterator();
+                while (iterator.hasNext())
+                {
+                    final TrieNode child = (TrieNode) iterator.next();
+                    if (first == null || first.findChild(child.getData()) == null)
+                    {
+                        stack.push(new TrieNode[] { null, child, (TrieNode) node.addChild(child.getData()) });
+                    }
+                }
+            }
+        }
+        
+        // a node is created before its children, so in reverse the children are
+        // counted before their parent. A node without words is removed.
+        for (int i = created.size() - 1; i >= 0; --i)
+        {
+            final TrieNode node = created.get(i);
+            if (node._isWord)
+            {
+                ++node._wordCount;
+            }
+            final TrieNode parent = (TrieNode) node.getParent();
+            if (parent != null)
+            {
+                if (node._wordCount == 0)
+                {
+                    parent.removeChild(node.getData());
+                }
+                else
+                {
+                    parent._wordCount += node._wordCount;
+                }
+            }
+        }
+        return (result);
+    }
+    
+    /*
+     * Gets the order to visit a batch of words in sorted order. Returns null if
+     * the batch is already sorted. The indexes are sorted as ints with a merge
+     * sort, so the words are not boxed or copied.
+     */
+    private static int[] sortedOrder(final CharSequence[] batch)
+    {
+        boolean isSorted = true;
+        for (int i = 0; i < batch.length; ++i)
+        {
+            if (batch[i] == null)
+            {
+                throw (new IllegalArgumentException("The parameter 'words' should not hold null."));
+            }
+            if (isSorted && i > 0 && compare(batch[i - 1], batch[i]) > 0)
+            {
+                isSorted = false;
+            }
+        }
+        if (isSorted)
+        {
+            return (null);
+        }
+        
+        int[] order = new int[batch.length];
+        for (int i = 0; i < order.length; ++i)
+        {
+            order[i] = i;
+        }
+        
+        // merge runs of width 1, 2, 4 and so on from one array into the other.
+        int[] merged = new int[batch.length];
+        for (int width = 1; width < order.length; width <<= 1)
+        {
+            for (int low = 0; low < order.length; low += width << 1)
+            {
+                final int middle = Math.min(low + width, order.length);
+                final int high = Math.min(low + (width << 1), order.length);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; ++i)
+                {
+                    if (left < middle && (right == high || compare(batch[order[left]], batch[order[right]]) <= 0))
+                    {
+                        merged[i] = order[left++];
+                    }
+                    else
+                    {
+                        merged[i] = order[right++];
+                    }
+                }
+            }
+            final int[] swap = order;
+            order = merged;
+            merged = swap;
+        }
+        return (order);
+    }
+    
+    /*
+     * Gets the length of the prefix that two words share, up to a limit.
+     */
+    private static int sharedLength(final CharSequence first, final CharSequence second, final int limit)
+    {
+        final int count = Math.min(limit, Math.min(first.length(), second.length()));
+        int length = 0;
+        while (length < count && first.charAt(length) == second.charAt(length))
+        {
+            ++length;
+        }
+        return (length);
+    }
+    
+    /*
+     * Compares two words in lexicographic order of their characters.
+     */
+    private static int compare(final CharSequence first, final CharSequence second)
+    {
+        final int count = Math.min(first.length(), second.length());
+        for (int i = 0; i < count; ++i)
+        {
+            final int difference = first.charAt(i) - second.charAt(i);
+            if (difference != 0)
+            {
+                return (difference);
+            }
+        }
+        return (first.length() - second.length());
+    }
+    
+    /*
+     * Walks the prefix as far as it matches. The matching characters are
+     * appended to the prefix word and the last matching node is returned.
+     */
+    TrieNode walkPrefix(final CharSequence prefix, final StringBuilder prefixWord)
+    {
+        // walk prefix to known set of nodes.
+        // input helo
+        // helloworld
+        // hello
+        // Tests to see if the character exists in the tree.
+        // -------------------
+        final int count = prefix.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final TrieNode child = (TrieNode) node.findChild(Characters.valueOf(character));
+            if (child != null)
+            {
+                // if the character exists, then get that node.
+                // continue walking down the tree character by character.
+                node = child;
+                prefixWord.append(character);
+            }
+            else
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+        }
+        return (node);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.gabsocial.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+	public boolean contains(String word)
+    {
+    	Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (this.containsWord(word, 0, word.length()));
+    }
+    
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done, and the characters are boxed to cached
+     * <code>Character</code> instances, so the lookup does not allocate.
+     * 
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        return (start < end && this.containsWord(word, start, end));
+    }
+    
+    /*
+     * Walks the characters of a word from start to end. The range must not be
+     * empty.
+     */
+    private boolean containsWord(final CharSequence word, final int start, final int end)
+    {
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = start; i < end; ++i)
+        {
+            // continue walking down the tree character by character.
+            node = (TrieNode) node.findChild(Characters.valueOf(word.charAt(i)));
+            if (node == null)
+            {
+                // if the character is not found. STOP.
+                return (false);
+            }
+        }
+        return (node._isWord);
+    }
+    
+    /**
+     * Determines which words of a batch are in the Trie. The words are walked
+     * in sorted order and each walk starts from the node of the prefix that the
+     * word shares with the word before it, so the nodes of a shared prefix are
+     * found once. A batch that is already sorted is not sorted again.
+     *
+     * @param words
+     *            A <code>List</code> instance. May not be null or hold null.
+     * @return A <code>BitSet</code> instance where bit i is set if the word at
+     *         index i is found. An empty word is not found.
+     */
+    @Override
+    public BitSet containsAll(final List<? extends CharSequence> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final int count = words.size();
+        final CharSequence[] batch = words.toArray(new CharSequence[count]);
+        final int[] order = sortedOrder(batch);
+        final BitSet found = new BitSet(count);
+        
+        TrieNode[] path = new TrieNode[16];
+        path[0] = (TrieNode) this.getRoot();
+        int depth = 0;
+        CharSequence previous = "";
+        for (int i = 0; i < count; ++i)
+        {
+            final int index = (order == null ? i : order[i]);
+            final CharSequence word = batch[index];
+            final int length = word.length();
+            if (path.length <= length)
+            {
+                path = Arrays.copyOf(path, Math.max(length + 1, path.length << 1));
+            }
+            
+            // the nodes of the prefix shared with the previous word were found.
+            depth = sharedLength(previous, word, depth);
+            while (depth < length)
+            {
+                final TrieNode child = (TrieNode) path[depth].findChild(Characters.valueOf(word.charAt(depth)));
+                if (child == null)
+                {
+                    // if the character is not found. STOP.
+                    break;
+                }
+                path[++depth] = child;
+            }
+            if (length > 0 && depth == length && path[depth]._isWord)
+            {
+                found.set(index);
+            }
+            previous = word;
+        }
+        return (found);
+    }
+    
+    /**
+     * Adds a batch of words. The words are added in sorted order and each walk
+     * starts from the node of the prefix that the word shares with the word
+     * before it. The word counts are added to each node once, when the walk
+     * leaves it, instead of once for each word. Each word is validated before
+     * any word is added.
+     *
+     * @param words
+     *            A <code>Collection</code> instance. May not be null. Each word
+     *            may not be null or empty.
+     */
+    @Override
+    public void addAll(final Collection<String> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final String[] batch = words.toArray(new String[words.size()]);
+        for (final String word : batch)
+        {
+            if (word == null || word.isEmpty())
+            {
+                throw (new IllegalArgumentException("The parameter 'words' should not hold a null or empty word."));
+            }
+        }
+        Arrays.sort(batch);
+        
+        // the number of words added at or below each node of the path that are
+        // not in its word count yet.
+        TrieNode[] path = new TrieNode[16];
+        int[] pending = new int[16];
+        path[0] = (TrieNode) this.getRoot();
+        int depth = 0;
+        String previous = "";
+        for (final String word : batch)
+        {
+            final int length = word.length();
+            if (path.length <= length)
+            {
+                final int capacity = Math.max(length + 1, path.length << 1);
+                path = Arrays.copyOf(path, capacity);
+                pending = Arrays.copyOf(pending, capacity);
+            }
+            
+            final int shared = sharedLength(previous, word, depth);
+            for (; depth > shared; --depth)
+            {
+                path[depth]._wordCount += pending[depth];
+                pending[depth - 1] += pending[depth];
+                pending[depth] = 0;
+            }
+            while (depth < length)
+            {
+                final Character character = Characters.valueOf(word.charAt(depth));
+                TrieNode child = (TrieNode) path[depth].findChild(character);
+                if (child == null)
+                {
+                    child = (TrieNode) path[depth].addChild(character);
+                }
+                path[++depth] = child;
+            }
+            if (!path[depth]._isWord)
+            {
+                path[depth]._isWord = true;
+                ++pending[depth];
+            }
+            previous = word;
+        }
+        for (; depth > 0; --depth)
+        {
+            path[depth]._wordCount += pending[depth];
+            pending[depth - 1] += pending[depth];
+        }
+        path[0]._wordCount += pending[0];
+    }
+    
+    /**
+     * Gets the longest word that is a prefix of the input. The input is walked
+     * once and the walk stops at the first character that is not a child.
+     * 
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return The longest word that is a prefix of the input, or null if no
+     *         word is a prefix of the input.
+     */
+    @Override
+    public String longestPrefixOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        int length = 0;
+        final int count = input.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count; ++i)
+        {
+            node = (TrieNode) node.findChild(Characters.valueOf(input.charAt(i)));
+            if (node == null)
+            {
+                break;
+            }
+            if (node._isWord)
+            {
+                length = i + 1;
+            }
+        }
+        return (length == 0 ? null : input.subSequence(0, length).toString());
+    }
+    
+    /**
+     * Gets all of the words that are a prefix of the input, shortest first.
+     * The input is walked once and the walk stops at the first character that
+     * is not a child.
+     * 
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> prefixesOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final List<String> data = new ArrayList<String>();
+        final int count = input.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count; ++i)
+        {
+            node = (TrieNode) node.findChild(Characters.valueOf(input.charAt(i)));
+            if (node == null)
+            {
+                break;
+            }
+            if (node._isWord)
+            {
+                data.add(input.subSequence(0, i + 1).toString());
+            }
+        }
+        return (data);
+    }
+    
+    /**
+     * Gets the words from a word up to but not including another word, in
+     * lexicographic order. Only the nodes between the two words are visited.
+     * The Trie must be ordered.
+     *
+     * @param from
+     *            The lowest word of the range. May not be null. An empty word
+     *            is lower than all of the words.
+     * @param to
+     *            The word after the highest word of the range. May not be null.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     * @throws IllegalStateException
+     *             if the Trie is not ordered.
+     */
+    public List<String> range(final CharSequence from, final CharSequence to)
+    {
+        Validate.defineObject(from).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(to).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOrdered();
+        
+        final List<String> data = new ArrayList<String>();
+        if (compare(from, to) >= 0)
+        {
+            return (data);
+        }
+        
+        // a level is low or high while the path is the start of from or to.
+        // Then its children are limited to those from the next character of
+        // from, or up to the next character of to.
+        final BitSet isLow = new BitSet();
+        final BitSet isHigh = new BitSet();
+        isLow.set(0, from.length() > 0);
+        isHigh.set(0);
+        
+        final Stack<Iterator<Node<Character>>> iterators = new Stack<Iterator<Node<Character>>>();
+        iterators.push(childIterator((TrieNode) this.getRoot(), from, to, 0, isLow.get(0), true));
+        final StringBuilder word = new StringBuilder();
+        while (!iterators.isEmpty())
+        {
+            final Iterator<Node<Character>> iterator = iterators.peek();
+            if (!iterator.hasNext())
+            {
+                iterators.pop();
+                continue;
+            }
+            
+            final int depth = iterators.size() - 1;
+            final TrieNode child = (TrieNode) iterator.next();
+            final char character = child.getData().charValue();
+            word.setLength(depth);
+            word.append(character);
+            final int length = depth + 1;
+            final boolean isChildLow = isLow.get(depth) && character == from.charAt(depth);
+            final boolean isChildHigh = isHigh.get(depth) && character == to.charAt(depth);
+            if (isChildHigh && length == to.length())
+            {
+                // the path is to, so it and the words below it are after the
+                // range.
+                continue;
+            }
+            if (child._isWord && (!isChildLow || length == from.length()))
+            {
+                data.add(word.toString());
+            }
+            isLow.set(length, isChildLow && length < from.length());
+            isHigh.set(length, isChildHigh);
+            iterators.push(childIterator(child, from, to, length, isLow.get(length), isChildHigh));
+        }
+        return (data);
+    }
+    
+    /**
+     * Gets the lowest word that is the same as or after a word in lexicographic
+     * order. The Trie must be ordered.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A <code>String</code> instance, or null if there is not a word
+     *         that is the same or after.
+     * @throws IllegalStateException
+     *             if the Trie is not ordered.
+     */
+    public String ceiling(final CharSequence word)
+    {
+        Validate.defineObject(word).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOrdered();
+        
+        final int count = word.length();
+        final TrieNode[] path = new TrieNode[count + 1];
+        final int depth = this.walkPath(word, path);
+        if (depth == count && count > 0 && path[depth]._isWord)
+        {
+            return (word.toString());
+        }
+        
+        // find the deepest node with a child after the word, then take the
+        // lowest word below that child.
+        for (int i = depth; i >= 0; --i)
+        {
+            NavigableMap<Character, Node<Character>> children = path[i].getOrderedChildren();
+            if (i < count)
+            {
+                children = children.tailMap(Characters.valueOf(word.charAt(i)), false);
+            }
+            for (final Node<Character> child : children.values())
+            {
+                if (((TrieNode) child)._wordCount > 0)
+                {
+                    final StringBuilder data = new StringBuilder().append(word, 0, i);
+                    return (appendLowest((TrieNode) child, data));
+                }
+            }
+        }
+        return (null);
+    }
+    
+    /**
+     * Gets the highest word that is the same as or before a word in
+     * lexicographic order. The Trie must be ordered.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A <code>String</code> instance, or null if there is not a word
+     *         that is the same or before.
+     * @throws IllegalStateException
+     *             if the Trie is not ordered.
+     */
+    public String floor(final CharSequence word)
+    {
+        Validate.defineObject(word).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOrdered();
+        
+        final int count = word.length();
+        final TrieNode[] path = new TrieNode[count + 1];
+        final int depth = this.walkPath(word, path);
+        if (depth == count && count > 0 && path[depth]._isWord)
+        {
+            return (word.toString());
+        }
+        
+        // find the deepest node with a child before the word and take the
+        // highest word below that child. A node on the path that is a word is
+        // before the word and after the children before it.
+        for (int i = Math.min(depth, count - 1); i >= 0; --i)
+        {
+            final NavigableMap<Character, Node<Character>> children = path[i].getOrderedChildren()
+                    .headMap(Characters.valueOf(word.charAt(i)), false);
+            for (final Node<Character> child : children.descendingMap().values())
+            {
+                if (((TrieNode) child)._wordCount > 0)
+                {
+                    final StringBuilder data = new StringBuilder().append(word, 0, i);
+                    return (appendHighest((TrieNode) child, data));
+                }
+            }
+            if (i > 0 && path[i]._isWord)
+            {
+                return (word.subSequence(0, i).toString());
+            }
+        }
+        return (null);
+    }
+    
+    /**
+     * Gets the number of words that are before a word in lexicographic order.
+     * The word counts of the children before each character are added, so only
+     * the nodes on the path of the word are visited. The Trie must be ordered.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return An int value of 0 or more.
+     * @throws IllegalStateException
+     *             if the Trie is not ordered.
+     */
+    public int rank(final CharSequence word)
+    {
+        Validate.defineObject(word).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOrdered();
+        
+        int rank = 0;
+        final int count = word.length();
+        TrieNode node = (TrieNode) this.getRoot();
+        for (int i = 0; i < count && node != null; ++i)
+        {
+            if (node._isWord)
+            {
+                // a word that is a prefix of the word is before it.
+                ++rank;
+            }
+            final Character character = Characters.valueOf(word.charAt(i));
+            for (final Node<Character> child : node.getOrderedChildren().headMap(character, false).values())
+            {
+                rank += ((TrieNode) child)._wordCount;
+            }
+            node = (TrieNode) node.findChild(character);
+        }
+        return (rank);
+    }
+    
+    /**
+     * Gets a new Trie with the words that are in this Trie or the other Trie.
+     * When the other Trie is a <code>LinkedHashMapTrie</code> the nodes of both
+     * are walked together and the result is built from them without creating a
+     * <code>String</code> for each word. Otherwise the words of the other Trie
+     * are added to a copy of this Trie.
+     *
+     * The result is ordered if this Trie is ordered. Only the words are kept,
+     * not the values or scores of a subclass.
+     *
+     * @param other
+     *            A <code>Trie</code> instance. May not be null.
+     * @return A <code>LinkedHashMapTrie</code> instance.
+     */
+    public LinkedHashMapTrie union(final Trie other)
+    {
+        Validate.defineObject(other).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        if (other instanceof LinkedHashMapTrie)
+        {
+            return (this.merge((LinkedHashMapTrie) other, UNION));
+        }
+        final LinkedHashMapTrie result = this.merge(null, UNION);
+        final Iterator<String> iterator = other.iterateWords("");
+        while (iterator.hasNext())
+        {
+            final String word = iterator.next();
+            result.addWord(word, 0, word.length());
+        }
+        return (result);
+    }
+    
+    /**
+     * Gets a new Trie with the words that are in both this Trie and the other
+     * Trie. When the other Trie is a <code>LinkedHashMapTrie</code> only the
+     * nodes that are in both are walked, so a subtree of one Trie that is not
+     * in the other is skipped. Otherwise each word of the other Trie is looked
+     * up in this Trie.
+     *
+     * The result is ordered if this Trie is ordered. Only the words are kept,
+     * not the values or scores of a subclass.
+     *
+     * @param other
+     *            A <code>Trie</code> instance. May not be null.
+     * @return A <code>LinkedHashMapTrie</code> instance.
+     */
+    public LinkedHashMapTrie intersect(final Trie other)
+    {
+        Validate.defineObject(other).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        if (other instanceof LinkedHashMapTrie)
+        {
+            return (this.merge((LinkedHashMapTrie) other, INTERSECT));
+        }
+        final LinkedHashMapTrie result = new LinkedHashMapTrie(this.isOrdered());
+        final Iterator<String> iterator = other.iterateWords("");
+        while (iterator.hasNext())
+        {
+            final String word = iterator.next();
+            if (this.containsWord(word, 0, word.length()))
+            {
+                result.addWord(word, 0, word.length());
+            }
+        }
+        return (result);
+    }
+    
+    /**
+     * Gets a new Trie with the words of this Trie that are not in the other
+     * Trie. When the other Trie is a <code>LinkedHashMapTrie</code> the nodes of
+     * both are walked together, and a subtree of this Trie that is not in the
+     * other is copied without looking at the other again. Otherwise the words
+     * of the other Trie are removed from a copy of this Trie.
+     *
+     * The result is ordered if this Trie is ordered. Only the words are kept,
+     * not the values or scores of a subclass.
+     *
+     * @param other
+     *            A <code>Trie</code> instance. May not be null.
+     * @return A <code>LinkedHashMapTrie</code> instance.
+     */
+    public LinkedHashMapTrie difference(final Trie other)
+    {
+        Validate.defineObject(other).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        if (other instanceof LinkedHashMapTrie)
+        {
+            return (this.merge((LinkedHashMapTrie) other, DIFFERENCE));
+        }
+        final LinkedHashMapTrie result = this.merge(null, DIFFERENCE);
+        final Iterator<String> iterator = other.iterateWords("");
+        while (iterator.hasNext())
+        {
+            result.removeWord(iterator.next());
+        }
+        return (result);
+    }
+    
+    /**
+     * Writes the Trie to a stream. Each node is written in pre order as its
+     * character, a flag byte and its number of children, so it can be read
+     * back with readFrom( InputStream input ) without adding each word again.
+     * The stream is flushed but not closed.
+     * 
+     * @param output
+     *            The <code>OutputStream</code> instance to write to. Must not
+     *            be null.
+     * @throws IOException
+     *             if the Trie can not be written.
+     */
+    public void writeTo(final OutputStream output) throws IOException
+    {
+        this.writeTo(output, CHARACTER_CODEC);
+    }
+    
+    /**
+     * Reads a Trie that was written by writeTo( OutputStream output ). The
+     * words in this Trie are replaced only when the whole Trie was read, so the
+     * Trie is not changed if the stream can not be read. Only the bytes of the
+     * Trie are read and the stream is not closed, so more data can be read
+     * after it.
+     * 
+     * @param input
+     *            The <code>InputStream</code> instance to read from. Must not
+     *            be null.
+     * @throws IOException
+     *             if the Trie can not be read.
+     */
+    public void readFrom(final InputStream input) throws IOException
+    {
+        this.readFrom(input, CHARACTER_CODEC);
+    }
+    
+    /*
+     * The Trie writes a word flag for each node.
+     */
+    @Override
+    protected String getStreamFormat()
+    {
+        return ("trie");
+    }
+    
+    /*
+     * The word counts are not written, so count them in post order, so each
+     * child is done before its parent.
+     */
+    @Override
+    protected void finishRead(final Node<Character> root)
+    {
+        final TrieNode rootNode = (TrieNode) root;
+        rootNode._wordCount = 0;
+        final Stack<TrieNode> nodes = new Stack<TrieNode>();
+        final Stack<Iterator<Node<Character>>> stack = new Stack<Iterator<Node<Character>>>();
+        nodes.push(rootNode);
+        stack.push(rootNode.getChildIterator());
+        while (!stack.isEmpty())
+        {
+            final Iterator<Node<Character>> iterator = stack.peek();
+            if (iterator.hasNext())
+            {
+                final TrieNode child = (TrieNode) iterator.next();
+                child._wordCount = (child._isWord ? 1 : 0);
+                nodes.push(child);
+                stack.push(child.getChildIterator());
+            }
+            else
+            {
+                stack.pop();
+                final TrieNode node = nodes.pop();
+                if (!nodes.isEmpty())
+                {
+                    nodes.peek()._wordCount += node._wordCount;
+                }
+            }
+        }
+    }
+    
+    /*
+     * Writes the word flag of a node.
+     */
+    @Override
+    protected void writeNodeState(final DataOutput output, final Node<Character> node) throws IOException
+    {
+        output.writeByte(((TrieNode) node)._isWord ? WORD_FLAG : 0);
+    }
+    
+    /*
+     * Reads the word flag of a node.
+     */
+    @Override
+    protected void readNodeState(final DataInput input, final Node<Character> node) throws IOException
+    {
+        ((TrieNode) node)._isWord = (input.readUnsignedByte() & WORD_FLAG) != 0;
+    }
+    
+    /*
+     * Counts the nodes that end a word.
+     */
+    @Override
+    protected boolean isWordNode(final Node<Character> node)
+    {
+        return (((TrieNode) node)._isWord);
+    }
+    
+    /*
+     * A node adds its word flag and word count.
+     */
+    @Override
+    protected int getNodeStateBytes(final Node<Character> node)
+    {
+        return (5);
     }
 }
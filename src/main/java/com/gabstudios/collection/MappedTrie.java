@@ -0,0 +1,630 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A read only Trie that is read from a file that is mapped into memory. The
+ * lookups walk the mapped <code>ByteBuffer</code> directly, so opening a file
+ * does not read the nodes into the heap, and the processes on a host that open
+ * the same file share the pages.
+ *
+ * Use the compile methods to write a file and the open method to read it.
+ *
+ * The file starts with a header of four <code>int</code> values: the magic
+ * number, the version, the offset of the root node and the number of words. A
+ * node is a flags byte, an <code>int</code> child count, the child characters
+ * in sorted order and the <code>int</code> offsets of the children. A child is
+ * written before its parent, so the root is the last node. A file may not be
+ * larger than 2GB.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class MappedTrie implements Trie
+{
+    /*
+     * The magic number at the start of a file. It is "GABT".
+     */
+    private static final int MAGIC       = 0x47414254;
+
+    /*
+     * The version of the file format.
+     */
+    private static final int VERSION     = 1;
+
+    /*
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /*
+     * The flag that marks a node as the end of a word.
+     */
+    private static final int WORD_FLAG   = 1;
+
+    /*
+     * A node that is being written. Its children are written first.
+     */
+    private static final class PendingNode
+    {
+        private final char    _label;
+        private boolean       _isWord;
+        private char[]        _labels;
+        private int[]         _offsets;
+        private int           _count;
+
+        PendingNode(final char label)
+        {
+            this._label = label;
+            this._labels = new char[2];
+            this._offsets = new int[2];
+        }
+
+        void addChild(final char label, final int offset)
+        {
+            if (this._count == this._labels.length)
+            {
+                this._labels = Arrays.copyOf(this._labels, this._count << 1);
+                this._offsets = Arrays.copyOf(this._offsets, this._count << 1);
+            }
+            this._labels[this._count] = label;
+            this._offsets[this._count] = offset;
+            ++this._count;
+        }
+    }
+
+    /*
+     * Writes the nodes of sorted words to a channel. The nodes on the path of
+     * the last word are written once the next word leaves them.
+     */
+    private static final class Writer
+    {
+        private final FileChannel       _channel;
+        private final ByteBuffer        _buffer;
+        private final List<PendingNode> _path;
+        private String                  _previousWord;
+        private long                    _position;
+        private int                     _wordCount;
+
+        Writer(final FileChannel channel) throws IOException
+        {
+            this._channel = channel;
+            this._channel.position(HEADER_SIZE);
+            this._buffer = ByteBuffer.allocate(64 * 1024);
+            this._path = new ArrayList<PendingNode>();
+            this._path.add(new PendingNode('*'));
+            this._previousWord = "";
+            this._position = HEADER_SIZE;
+        }
+
+        void add(final String word) throws IOException
+        {
+            Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+            final int compare = word.compareTo(this._previousWord);
+            if (compare < 0)
+            {
+                throw (new IllegalArgumentException("The words must be sorted.  The word '" + word
+                        + "' comes after '" + this._previousWord + "'."));
+            }
+            else if (compare == 0)
+            {
+                return;
+            }
+
+            int commonLength = 0;
+            final int count = Math.min(word.length(), this._previousWord.length());
+            while (commonLength < count && word.charAt(commonLength) == this._previousWord.charAt(commonLength))
+            {
+                ++commonLength;
+            }
+            this.writePath(commonLength);
+
+            for (int i = commonLength; i < word.length(); ++i)
+            {
+                this._path.add(new PendingNode(word.charAt(i)));
+            }
+            this._path.get(this._path.size() - 1)._isWord = true;
+            this._previousWord = word;
+            ++this._wordCount;
+        }
+
+        void finish() throws IOException
+        {
+            this.writePath(0);
+            final int rootOffset = this.writeNode(this._path.remove(0));
+            this.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rootOffset).putInt(this._wordCount);
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining())
+            {
+                position += this._channel.write(header, position);
+            }
+        }
+
+        /*
+         * Writes the nodes on the path below the depth and adds each one to its
+         * parent.
+         */
+        private void writePath(final int depth) throws IOException
+        {
+            for (int i = this._path.size() - 1; i > depth; --i)
+            {
+                final PendingNode node = this._path.remove(i);
+                final int offset = this.writeNode(node);
+                this._path.get(i - 1).addChild(node._label, offset);
+            }
+        }
+
+        private int writeNode(final PendingNode node) throws IOException
+        {
+            final long offset = this._position;
+            if (offset > Integer.MAX_VALUE)
+            {
+                throw (new IOException("The trie file may not be larger than 2GB."));
+            }
+
+            this.ensureRemaining(5);
+            this._buffer.put((byte) (node._isWord ? WORD_FLAG : 0));
+            this._buffer.putInt(node._count);
+            for (int i = 0; i < node._count; ++i)
+            {
+                this.ensureRemaining(2);
+                this._buffer.putChar(node._labels[i]);
+            }
+            for (int i = 0; i < node._count; ++i)
+            {
+                this.ensureRemaining(4);
+                this._buffer.putInt(node._offsets[i]);
+            }
+            this._position += 5 + 6L * node._count;
+            return ((int) offset);
+        }
+
+        private void ensureRemaining(final int size) throws IOException
+        {
+            if (this._buffer.remaining() < size)
+            {
+                this.flush();
+            }
+        }
+
+        private void flush() throws IOException
+        {
+            this._buffer.flip();
+            while (this._buffer.hasRemaining())
+            {
+                this._channel.write(this._buffer);
+            }
+            this._buffer.clear();
+        }
+    }
+
+    /*
+     * The mapped file.
+     */
+    private final ByteBuffer _buffer;
+
+    /*
+     * The offset of the root node.
+     */
+    private final int        _root;
+
+    /*
+     * The number of words in the file.
+     */
+    private final int        _wordCount;
+
+    /*
+     * Use the open method to create a MappedTrie.
+     */
+    private MappedTrie(final ByteBuffer buffer)
+    {
+        this._buffer = buffer;
+        this._root = buffer.getInt(8);
+        this._wordCount = buffer.getInt(12);
+    }
+
+    /**
+     * Writes the words of a Trie to a file. The file is replaced if it
+     * exists.
+     *
+     * @param trie
+     *            The <code>Trie</code> instance to write. Must not be null.
+     * @param file
+     *            The <code>Path</code> of the file to write. Must not be null.
+     * @throws IOException
+     *             if the file can not be written.
+     */
+    public static void compile(final Trie trie, final Path file) throws IOException
+    {
+        Validate.defineObject(trie).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final List<String> words = new ArrayList<String>(trie.getWords());
+        Collections.sort(words);
+        compile(words.iterator(), file);
+    }
+
+    /**
+     * Writes words that are sorted by <code>String.compareTo</code> to a
+     * file. A word that is the same as the word before it is skipped. The file
+     * is replaced if it exists.
+     *
+     * @param words
+     *            An <code>Iterator</code> instance over the sorted words. Must
+     *            not be null.
+     * @param file
+     *            The <code>Path</code> of the file to write. Must not be null.
+     * @throws IOException
+     *             if the file can not be written.
+     * @throws IllegalArgumentException
+     *             if the words are not sorted.
+     */
+    public static void compile(final Iterator<String> words, final Path file) throws IOException
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        Validate.defineObject(file).testNotNull().throwValidationExceptionOnFail().validate();
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            final Writer writer = new Writer(channel);
+            while (words.hasNext())
+            {
+                writer.add(words.next());
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Opens a file that was written by a compile method. The file is mapped
+     * read only and the channel is closed. The mapping stays valid until the
+     * <code>MappedTrie</code> is garbage collected.
+     *
+     * @param file
+     *            The <code>Path</code> of the file to open. Must not be null.
+     * @return A <code>MappedTrie</code> instance.
+     * @throws IOException
+     *             if the file can not be read or is not a trie file.
+     */
+    public static MappedTrie open(final Path file) throws IOException
+    {
+        Validate.defineObject(file).testNotNull().throwValidationExceptionOnFail().validate();
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+            {
+                throw (new IOException("The file '" + file + "' is not a trie file."));
+            }
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            {
+                throw (new IOException("The file '" + file + "' is not a trie file of version " + VERSION + "."));
+            }
+            return (new MappedTrie(buffer));
+        }
+    }
+
+    /**
+     * Gets the number of words in the Trie.
+     *
+     * @return An integer value from 0 to n.
+     */
+    public int getWordCount()
+    {
+        return (this._wordCount);
+    }
+
+    /**
+     * Gets the number of words in the Trie. Is the same as getWordCount().
+     *
+     * @return An integer value from 0 to n.
+     */
+    @Override
+    public int size()
+    {
+        return (this._wordCount);
+    }
+
+    /**
+     * A MappedTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public void add(final String word)
+    {
+        throw (new UnsupportedOperationException("A MappedTrie is read only.  Use the compile methods to write one."));
+    }
+
+    /**
+     * A MappedTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        throw (new UnsupportedOperationException("A MappedTrie is read only.  Use the compile methods to write one."));
+    }
+
+    /**
+     * A MappedTrie is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always.
+     */
+    @Override
+    public void clear()
+    {
+        throw (new UnsupportedOperationException("A MappedTrie is read only.  Use the compile methods to write one."));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        int node = this._root;
+        for (int i = 0; i < count && node >= 0; ++i)
+        {
+            node = this.getChild(node, word.charAt(i));
+        }
+        return (node >= 0 && this.isWord(node));
+    }
+
+    /**
+     * Gets all of the words, in sorted order.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        return (collectWords(this.iterateWords("")));
+    }
+
+    /**
+     * Gets words based on a prefix, in sorted order. The prefix is walked as
+     * far as it matches and the words below the last matching character are
+     * returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (collectWords(this.iterateWords(prefix)));
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix, in sorted order. The
+     * words are found as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int count = prefix.length();
+        int node = this._root;
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final int child = this.getChild(node, character);
+            if (child < 0)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            node = child;
+            prefixWord.append(character);
+        }
+        return (new WordIterator(node, prefixWord));
+    }
+
+    private static List<String> collectWords(final Iterator<String> iterator)
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    private boolean isWord(final int node)
+    {
+        return ((this._buffer.get(node) & WORD_FLAG) != 0);
+    }
+
+    private int getChildCount(final int node)
+    {
+        return (this._buffer.getInt(node + 1));
+    }
+
+    private char getLabel(final int node, final int index)
+    {
+        return (this._buffer.getChar(node + 5 + (index << 1)));
+    }
+
+    private int getOffset(final int node, final int count, final int index)
+    {
+        return (this._buffer.getInt(node + 5 + (count << 1) + (index << 2)));
+    }
+
+    /*
+     * Gets the offset of the child with the character by a binary search of
+     * the labels. Returns -1 if there is not one.
+     */
+    private int getChild(final int node, final char character)
+    {
+        final int count = this.getChildCount(node);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final char label = this.getLabel(node, middle);
+            if (label < character)
+            {
+                low = middle + 1;
+            }
+            else if (label > character)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return (this.getOffset(node, count, middle));
+            }
+        }
+        return (-1);
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of node offsets and the next child to visit at each node.
+     */
+    private class WordIterator implements Iterator<String>
+    {
+        private int[]               _nodes;
+        private int[]               _nextChildren;
+        private int                 _size;
+        private final int           _prefixLength;
+        private final StringBuilder _word;
+        private String              _next;
+
+        WordIterator(final int start, final StringBuilder prefix)
+        {
+            this._nodes = new int[16];
+            this._nextChildren = new int[16];
+            this._nodes[0] = start;
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (MappedTrie.this.isWord(start))
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        private void advance()
+        {
+            final MappedTrie trie = MappedTrie.this;
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final int node = this._nodes[top];
+                final int index = this._nextChildren[top];
+                final int count = trie.getChildCount(node);
+                if (index < count)
+                {
+                    ++this._nextChildren[top];
+                    final int child = trie.getOffset(node, count, index);
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                    }
+                    this._nodes[this._size] = child;
+                    this._nextChildren[this._size] = 0;
+                    ++this._size;
+                    this._word.append(trie.getLabel(node, index));
+                    if (trie.isWord(child))
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    --this._size;
+                    this._word.setLength(this._prefixLength + Math.max(this._size - 1, 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,873 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie whose nodes are held outside of the heap, in
+ * direct ByteBuffer slabs. The heap only holds the list of slabs, so the
+ * garbage collector does not have to trace the nodes of a large dictionary.
+ *
+ * A node is a record of NODE_SIZE bytes that holds its character, its end of
+ * word flag, where its children are, its number of children and the number of
+ * words at or below it. A node is found by its index. The children of a node
+ * are a run of records in character order, so a child is found with a binary
+ * search. A run holds a power of two records and is moved to a run twice as
+ * big when it is full. The runs that are freed are reused.
+ *
+ * The memory is freed when the Trie is closed, and the Trie can not be used
+ * after that. This class is not thread safe.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class OffHeapTrie implements Trie, Closeable
+{
+
+    /*
+     * The iterator over the words below a node. It holds a stack of the next
+     * child to visit and the end of its run at each depth, and the word at the
+     * current node.
+     */
+    private final class WordIterator implements Iterator<String>
+    {
+        private int[]               _nodes;
+        private int[]               _ends;
+        private int                 _size;
+        private final int           _prefixLength;
+        private final StringBuilder _word;
+        private String              _next;
+
+        /*
+         * @param start The node to start from.
+         *
+         * @param prefix The word that ends at the start node.
+         */
+        WordIterator(final int start, final StringBuilder prefix)
+        {
+            final int first = OffHeapTrie.this.getInt(start, CHILDREN);
+            this._nodes = new int[16];
+            this._ends = new int[16];
+            this._nodes[0] = first;
+            this._ends[0] = first + OffHeapTrie.this.getInt(start, CHILD_COUNT);
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (OffHeapTrie.this.isWord(start))
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks the nodes until the next word is found or all of the nodes
+         * were visited.
+         */
+        private void advance()
+        {
+            OffHeapTrie.this.checkOpen();
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final int node = this._nodes[top];
+                if (node == this._ends[top])
+                {
+                    --this._size;
+                    continue;
+                }
+
+                this._nodes[top] = node + 1;
+                this._word.setLength(this._prefixLength + top);
+                this._word.append(OffHeapTrie.this.getKey(node));
+                if (this._size == this._nodes.length)
+                {
+                    this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                    this._ends = Arrays.copyOf(this._ends, this._size << 1);
+                }
+                final int first = OffHeapTrie.this.getInt(node, CHILDREN);
+                this._nodes[this._size] = first;
+                this._ends[this._size] = first + OffHeapTrie.this.getInt(node, CHILD_COUNT);
+                ++this._size;
+                if (OffHeapTrie.this.isWord(node))
+                {
+                    this._next = this._word.toString();
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * The offsets of the fields of a node record. The run of children starts
+     * at CHILDREN and holds 2^RUN_SHIFT records.
+     */
+    private static final int KEY                    = 0;
+    private static final int FLAGS                  = 2;
+    private static final int RUN_SHIFT              = 3;
+    private static final int CHILDREN               = 4;
+    private static final int CHILD_COUNT            = 8;
+    private static final int WORD_COUNT             = 12;
+
+    /*
+     * The number of bytes in a node record, and its log 2.
+     */
+    private static final int NODE_SIZE              = 16;
+    private static final int NODE_SHIFT             = 4;
+
+    /*
+     * The flag of a node that is the end of a word.
+     */
+    private static final int IS_WORD                = 1;
+
+    /*
+     * The index of no node.
+     */
+    private static final int NIL                    = -1;
+
+    /*
+     * The index of the root node.
+     */
+    private static final int ROOT                   = 0;
+
+    /**
+     * The number of nodes in a slab if none is given.
+     */
+    public static final int  DEFAULT_NODES_PER_SLAB = 1 << 16;
+
+    /*
+     * The most nodes in a slab, so a slab is less than 2 GB.
+     */
+    private static final int MAX_NODES_PER_SLAB     = 1 << 26;
+
+    /*
+     * The log 2 of the biggest run, which holds a child for every character.
+     */
+    private static final int MAX_RUN_SHIFT          = 16;
+
+    /*
+     * The slabs that hold the nodes.
+     */
+    private final List<ByteBuffer> _slabs;
+
+    /*
+     * The log 2 of the number of nodes in a slab, and the mask of the index
+     * of a node in its slab.
+     */
+    private final int              _slabShift;
+    private final int              _slabMask;
+
+    /*
+     * The number of node records that were used, including the free ones.
+     */
+    private int                    _allocatedCount;
+
+    /*
+     * The first free run of each size. The free runs are linked by the
+     * CHILDREN field of their first record.
+     */
+    private final int[]            _freeRuns;
+
+    /*
+     * The number of nodes in the Trie including the root.
+     */
+    private int                    _nodeCount;
+
+    /*
+     * Is true after the Trie was closed.
+     */
+    private boolean                _isClosed;
+
+    /**
+     * Constructor that uses slabs of DEFAULT_NODES_PER_SLAB nodes.
+     */
+    public OffHeapTrie()
+    {
+        this(DEFAULT_NODES_PER_SLAB);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nodesPerSlab
+     *            The number of nodes in each slab. Must be a power of two from
+     *            1 to 2^26.
+     */
+    public OffHeapTrie(final int nodesPerSlab)
+    {
+        if (nodesPerSlab < 1 || nodesPerSlab > MAX_NODES_PER_SLAB || Integer.bitCount(nodesPerSlab) != 1)
+        {
+            throw (new IllegalArgumentException(
+                    "The parameter 'nodesPerSlab' should be a power of two from 1 to " + MAX_NODES_PER_SLAB + "."));
+        }
+
+        this._slabs = new ArrayList<ByteBuffer>();
+        this._slabShift = Integer.numberOfTrailingZeros(nodesPerSlab);
+        this._slabMask = nodesPerSlab - 1;
+        this._freeRuns = new int[MAX_RUN_SHIFT + 1];
+        this.reset();
+    }
+
+    /**
+     * Frees the memory of the Trie. The Trie can not be used after it is
+     * closed. Closing it again does nothing.
+     */
+    @Override
+    public void close()
+    {
+        if (this._isClosed)
+        {
+            return;
+        }
+        this._isClosed = true;
+        for (final ByteBuffer slab : this._slabs)
+        {
+            free(slab);
+        }
+        this._slabs.clear();
+    }
+
+    /**
+     * Determines if the Trie was closed.
+     *
+     * @return A boolean value of true if it was closed, otherwise it is false.
+     */
+    public boolean isClosed()
+    {
+        return (this._isClosed);
+    }
+
+    /**
+     * Used to clear and reset the Trie. The first slab is kept and the other
+     * slabs are freed.
+     */
+    @Override
+    public void clear()
+    {
+        this.checkOpen();
+        while (this._slabs.size() > 1)
+        {
+            free(this._slabs.remove(this._slabs.size() - 1));
+        }
+        this.reset();
+    }
+
+    /**
+     * Add a word to the Trie.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.checkOpen();
+
+        if (this.containsWord(word, 0, word.length()))
+        {
+            return;
+        }
+
+        final int count = word.length();
+        int node = ROOT;
+        this.putInt(node, WORD_COUNT, this.getInt(node, WORD_COUNT) + 1);
+        for (int i = 0; i < count; ++i)
+        {
+            // find the child, or where it goes in the run. A new child moves
+            // the children after it, but not the node.
+            final char character = word.charAt(i);
+            final int position = this.searchChildren(node, character);
+            if (position >= 0)
+            {
+                node = this.getInt(node, CHILDREN) + position;
+            }
+            else
+            {
+                node = this.insertChild(node, -(position + 1), character);
+            }
+            this.putInt(node, WORD_COUNT, this.getInt(node, WORD_COUNT) + 1);
+        }
+        this.setWord(node, true);
+    }
+
+    /**
+     * Removes a word from the Trie. The runs of the nodes that no longer lead
+     * to a word are reused.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.checkOpen();
+
+        final int count = word.length();
+        final int[] path = new int[count + 1];
+        path[0] = ROOT;
+        for (int i = 0; i < count; ++i)
+        {
+            final int child = this.findChild(path[i], word.charAt(i));
+            if (child == NIL)
+            {
+                return (false);
+            }
+            path[i + 1] = child;
+        }
+        if (!this.isWord(path[count]))
+        {
+            return (false);
+        }
+
+        this.setWord(path[count], false);
+        for (int i = count; i >= 0; --i)
+        {
+            this.putInt(path[i], WORD_COUNT, this.getInt(path[i], WORD_COUNT) - 1);
+        }
+
+        // the nodes without words are at the end of the path, and each one
+        // only has the next one as a child. Their runs are freed and the
+        // first one is removed from its parent.
+        int top = count + 1;
+        while (top > 1 && this.getInt(path[top - 1], WORD_COUNT) == 0)
+        {
+            --top;
+        }
+        if (top <= count)
+        {
+            for (int i = top; i < count; ++i)
+            {
+                this.freeRun(this.getInt(path[i], CHILDREN), this.getRunShift(path[i]));
+            }
+            final int parent = path[top - 1];
+            this.removeChild(parent, path[top] - this.getInt(parent, CHILDREN));
+            this._nodeCount -= count - top + 1;
+        }
+        return (true);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.checkOpen();
+        return (this.containsWord(word, 0, word.length()));
+    }
+
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done and the range is not copied.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false. An
+     *         empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        this.checkOpen();
+        return (start < end && this.containsWord(word, start, end));
+    }
+
+    /**
+     * Gets the number of words in the Trie.
+     *
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int size()
+    {
+        this.checkOpen();
+        return (this.getInt(ROOT, WORD_COUNT));
+    }
+
+    /**
+     * Gets the number of words below the node where the prefix stops
+     * matching. The count is held in each node.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix counts all words.
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int countWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOpen();
+        return (this.getInt(this.walkPrefix(prefix, new StringBuilder()), WORD_COUNT));
+    }
+
+    /**
+     * Gets all of the words in the Trie, in character order.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords("");
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix, in character order. The prefix is walked
+     * as far as it matches and the words below the last matching character are
+     * returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix, in character order.
+     * The Trie should not be changed while the iterator is used.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        this.checkOpen();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final int node = this.walkPrefix(prefix, prefixWord);
+        return (new WordIterator(node, prefixWord));
+    }
+
+    /**
+     * Gets the number of nodes including the root.
+     *
+     * @return An int value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        this.checkOpen();
+        return (this._nodeCount);
+    }
+
+    /**
+     * Gets the number of bytes of the slabs, which are outside of the heap.
+     *
+     * @return A long value of 0 or more.
+     */
+    public long getAllocatedBytes()
+    {
+        return ((long) this._slabs.size() << (this._slabShift + NODE_SHIFT));
+    }
+
+    /*
+     * Resets the Trie to only the root. The first slab is created if there
+     * are none.
+     */
+    private void reset()
+    {
+        this._allocatedCount = 0;
+        Arrays.fill(this._freeRuns, NIL);
+        this.createNode(this.allocateRun(0), '*');
+        this._nodeCount = 1;
+    }
+
+    /*
+     * Gets a run of 2^shift records, from the free runs or from the end of the
+     * last slab. Slabs are added when the last one is full. The index of the
+     * records is contiguous, so a run may span slabs.
+     */
+    private int allocateRun(final int shift)
+    {
+        final int free = this._freeRuns[shift];
+        if (free != NIL)
+        {
+            this._freeRuns[shift] = this.getInt(free, CHILDREN);
+            return (free);
+        }
+
+        final int capacity = 1 << shift;
+        if (this._allocatedCount > Integer.MAX_VALUE - capacity)
+        {
+            throw (new IllegalStateException("The Trie can not hold more nodes."));
+        }
+        final int first = this._allocatedCount;
+        this._allocatedCount += capacity;
+        while (((this._allocatedCount - 1) >>> this._slabShift) >= this._slabs.size())
+        {
+            final ByteBuffer slab = ByteBuffer.allocateDirect((this._slabMask + 1) * NODE_SIZE);
+            this._slabs.add(slab.order(ByteOrder.nativeOrder()));
+        }
+        return (first);
+    }
+
+    /*
+     * Adds a run of 2^shift records to the free runs.
+     */
+    private void freeRun(final int first, final int shift)
+    {
+        this.putInt(first, CHILDREN, this._freeRuns[shift]);
+        this._freeRuns[shift] = first;
+    }
+
+    /*
+     * Sets a record to a node for a character without children.
+     */
+    private void createNode(final int node, final char character)
+    {
+        final ByteBuffer slab = this.slab(node);
+        final int offset = this.offset(node);
+        slab.putChar(offset + KEY, character);
+        slab.put(offset + FLAGS, (byte) 0);
+        slab.put(offset + RUN_SHIFT, (byte) 0);
+        slab.putInt(offset + CHILDREN, NIL);
+        slab.putInt(offset + CHILD_COUNT, 0);
+        slab.putInt(offset + WORD_COUNT, 0);
+    }
+
+    /*
+     * Inserts a child for a character at a position in the run of a node. The
+     * children after it are moved up, or all of the children are moved to a
+     * run twice as big when the run is full. Returns the child.
+     */
+    private int insertChild(final int node, final int position, final char character)
+    {
+        final int count = this.getInt(node, CHILD_COUNT);
+        int first = this.getInt(node, CHILDREN);
+        if (first == NIL)
+        {
+            first = this.allocateRun(0);
+            this.putInt(node, CHILDREN, first);
+            this.setRunShift(node, 0);
+        }
+        else if (count == 1 << this.getRunShift(node))
+        {
+            final int shift = this.getRunShift(node);
+            final int run = this.allocateRun(shift + 1);
+            for (int i = 0; i < position; ++i)
+            {
+                this.copyNode(first + i, run + i);
+            }
+            for (int i = position; i < count; ++i)
+            {
+                this.copyNode(first + i, run + i + 1);
+            }
+            this.freeRun(first, shift);
+            first = run;
+            this.putInt(node, CHILDREN, first);
+            this.setRunShift(node, shift + 1);
+        }
+        else
+        {
+            for (int i = count; i > position; --i)
+            {
+                this.copyNode(first + i - 1, first + i);
+            }
+        }
+
+        final int child = first + position;
+        this.createNode(child, character);
+        this.putInt(node, CHILD_COUNT, count + 1);
+        ++this._nodeCount;
+        return (child);
+    }
+
+    /*
+     * Removes the child at a position in the run of a node. The children after
+     * it are moved down, and the run is freed when it is empty. The children
+     * of the child are not freed.
+     */
+    private void removeChild(final int node, final int position)
+    {
+        final int count = this.getInt(node, CHILD_COUNT) - 1;
+        final int first = this.getInt(node, CHILDREN);
+        if (count == 0)
+        {
+            this.freeRun(first, this.getRunShift(node));
+            this.putInt(node, CHILDREN, NIL);
+        }
+        else
+        {
+            for (int i = position; i < count; ++i)
+            {
+                this.copyNode(first + i + 1, first + i);
+            }
+        }
+        this.putInt(node, CHILD_COUNT, count);
+    }
+
+    /*
+     * Finds the position of the child of a node for a character with a binary
+     * search of its run. Returns -(insertion point + 1) if there is not one.
+     */
+    private int searchChildren(final int node, final char character)
+    {
+        final int first = this.getInt(node, CHILDREN);
+        int low = 0;
+        int high = this.getInt(node, CHILD_COUNT) - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final char key = this.getKey(first + middle);
+            if (key < character)
+            {
+                low = middle + 1;
+            }
+            else if (key > character)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return (middle);
+            }
+        }
+        return (-(low + 1));
+    }
+
+    /*
+     * Finds the child of a node for a character. Returns NIL if there is not
+     * one.
+     */
+    private int findChild(final int node, final char character)
+    {
+        final int position = this.searchChildren(node, character);
+        return (position < 0 ? NIL : this.getInt(node, CHILDREN) + position);
+    }
+
+    /*
+     * Determines if the characters from start to end are a word.
+     */
+    private boolean containsWord(final CharSequence word, final int start, final int end)
+    {
+        int node = ROOT;
+        for (int i = start; i < end; ++i)
+        {
+            node = this.findChild(node, word.charAt(i));
+            if (node == NIL)
+            {
+                return (false);
+            }
+        }
+        return (this.isWord(node));
+    }
+
+    /*
+     * Walks the prefix as far as it matches. The matching characters are
+     * appended to the prefix word and the last matching node is returned.
+     */
+    private int walkPrefix(final CharSequence prefix, final StringBuilder prefixWord)
+    {
+        final int count = prefix.length();
+        int node = ROOT;
+        for (int i = 0; i < count; ++i)
+        {
+            final char character = prefix.charAt(i);
+            final int child = this.findChild(node, character);
+            if (child == NIL)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+            node = child;
+            prefixWord.append(character);
+        }
+        return (node);
+    }
+
+    /*
+     * Throws an exception if the Trie was closed.
+     */
+    private void checkOpen()
+    {
+        if (this._isClosed)
+        {
+            throw (new IllegalStateException("The Trie is closed."));
+        }
+    }
+
+    private ByteBuffer slab(final int node)
+    {
+        return (this._slabs.get(node >>> this._slabShift));
+    }
+
+    private int offset(final int node)
+    {
+        return ((node & this._slabMask) << NODE_SHIFT);
+    }
+
+    private char getKey(final int node)
+    {
+        return (this.slab(node).getChar(this.offset(node) + KEY));
+    }
+
+    private boolean isWord(final int node)
+    {
+        return ((this.slab(node).get(this.offset(node) + FLAGS) & IS_WORD) != 0);
+    }
+
+    private void setWord(final int node, final boolean isWord)
+    {
+        this.slab(node).put(this.offset(node) + FLAGS, (byte) (isWord ? IS_WORD : 0));
+    }
+
+    private int getRunShift(final int node)
+    {
+        return (this.slab(node).get(this.offset(node) + RUN_SHIFT));
+    }
+
+    private void setRunShift(final int node, final int shift)
+    {
+        this.slab(node).put(this.offset(node) + RUN_SHIFT, (byte) shift);
+    }
+
+    private int getInt(final int node, final int field)
+    {
+        return (this.slab(node).getInt(this.offset(node) + field));
+    }
+
+    private void putInt(final int node, final int field, final int value)
+    {
+        this.slab(node).putInt(this.offset(node) + field, value);
+    }
+
+    /*
+     * Copies a node record. The records may be in different slabs.
+     */
+    private void copyNode(final int from, final int to)
+    {
+        final ByteBuffer fromSlab = this.slab(from);
+        final int fromOffset = this.offset(from);
+        final ByteBuffer toSlab = this.slab(to);
+        final int toOffset = this.offset(to);
+        toSlab.putLong(toOffset, fromSlab.getLong(fromOffset));
+        toSlab.putLong(toOffset + 8, fromSlab.getLong(fromOffset + 8));
+    }
+
+    /*
+     * Frees the memory of a direct buffer now instead of when it is
+     * collected. The cleaner of the buffer is used on Java 8 and
+     * Unsafe.invokeCleaner on later versions. If neither can be used the
+     * memory is freed when the buffer is collected.
+     */
+    private static void free(final ByteBuffer buffer)
+    {
+        try
+        {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null)
+            {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+            return;
+        }
+        catch (final Exception e)
+        {
+            // not Java 8, try the Unsafe below.
+        }
+
+        try
+        {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafe, buffer);
+        }
+        catch (final Exception e)
+        {
+            // the buffer is freed when it is collected.
+        }
+    }
+}
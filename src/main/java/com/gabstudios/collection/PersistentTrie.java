@@ -0,0 +1,789 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A thread safe implementation of a Trie that is made of immutable versions.
+ * Adding or removing a word copies only the nodes on the path of the word and
+ * shares every other node with the previous version, then publishes the new
+ * version with a compare and set. A reader takes the current version with
+ * version() and reads it without locks, and the version does not change
+ * while other threads add words.
+ *
+ * The methods that read the Trie use the version that is current when they
+ * are called.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class PersistentTrie implements Trie
+{
+
+    /**
+     * An immutable version of a PersistentTrie. The withWord and withoutWord
+     * methods return a new version and leave this version as it is.
+     *
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static final class Version implements Trie
+    {
+        /*
+         * The root of the version.
+         */
+        private final PNode _root;
+
+        /*
+         * @param root The root of the version.
+         */
+        private Version(final PNode root)
+        {
+            this._root = root;
+        }
+
+        /**
+         * Gets a version that holds a word. Only the nodes on the path of the
+         * word are copied.
+         *
+         * @param word
+         *            A <code>String</code> instance. May not be null or empty.
+         * @return A <code>Version</code> instance. Is this version if the word
+         *         is already in it.
+         */
+        public Version withWord(final String word)
+        {
+            Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+            final int count = word.length();
+            final PNode[] path = new PNode[count + 1];
+            final int[] indexes = new int[count];
+            final int depth = this.walkPath(word, path, indexes);
+            if (depth == count && path[count]._isWord)
+            {
+                return (this);
+            }
+
+            // build the new node at the end of the path that was found, then
+            // copy each node above it.
+            PNode node;
+            int index;
+            if (depth == count)
+            {
+                node = path[count].withWord(true);
+                index = count - 1;
+            }
+            else
+            {
+                node = PNode.WORD;
+                for (int i = count - 1; i > depth; --i)
+                {
+                    node = new PNode(new char[] { word.charAt(i) }, new PNode[] { node }, false, 1);
+                }
+                index = depth;
+            }
+            for (int i = index; i >= 0; --i)
+            {
+                node = path[i].withChild(indexes[i], word.charAt(i), node, 1);
+            }
+            return (new Version(node));
+        }
+
+        /**
+         * Gets a version that does not hold a word. Only the nodes on the path
+         * of the word are copied, and the nodes that no longer lead to a word
+         * are left out.
+         *
+         * @param word
+         *            A <code>String</code> instance. May not be null or empty.
+         * @return A <code>Version</code> instance. Is this version if the word
+         *         is not in it.
+         */
+        public Version withoutWord(final String word)
+        {
+            Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+            final int count = word.length();
+            final PNode[] path = new PNode[count + 1];
+            final int[] indexes = new int[count];
+            final int depth = this.walkPath(word, path, indexes);
+            if (depth < count || !path[count]._isWord)
+            {
+                return (this);
+            }
+
+            PNode node = path[count].withWord(false);
+            boolean isRemoved = (node._keys.length == 0);
+            for (int i = count - 1; i >= 0; --i)
+            {
+                if (isRemoved)
+                {
+                    node = path[i].withoutChild(indexes[i], -1);
+                    // the root is never removed.
+                    isRemoved = (i > 0 && node._keys.length == 0 && !node._isWord);
+                }
+                else
+                {
+                    node = path[i].withChild(indexes[i], word.charAt(i), node, -1);
+                }
+            }
+            return (new Version(node));
+        }
+
+        /**
+         * A Version is read only.
+         *
+         * @param word
+         *            Not used.
+         * @throws UnsupportedOperationException
+         *             always.
+         */
+        @Override
+        public void add(final String word)
+        {
+            throw (new UnsupportedOperationException(
+                    "A Version is read only.  Use the withWord( String word ) method to get a new Version."));
+        }
+
+        /**
+         * A Version is read only.
+         *
+         * @param word
+         *            Not used.
+         * @return Does not return.
+         * @throws UnsupportedOperationException
+         *             always.
+         */
+        @Override
+        public boolean remove(final String word)
+        {
+            throw (new UnsupportedOperationException(
+                    "A Version is read only.  Use the withoutWord( String word ) method to get a new Version."));
+        }
+
+        /**
+         * A Version is read only.
+         *
+         * @throws UnsupportedOperationException
+         *             always.
+         */
+        @Override
+        public void clear()
+        {
+            throw (new UnsupportedOperationException(
+                    "A Version is read only.  Use the PersistentTrie clear() method instead."));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+         */
+        @Override
+        public boolean contains(final String word)
+        {
+            Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+            return (this.containsWord(word, 0, word.length()));
+        }
+
+        /**
+         * Determines if a range of characters is a word in the version. Only
+         * a null check is done and the range is not copied.
+         *
+         * @param word
+         *            A <code>CharSequence</code> instance. May not be null.
+         * @param start
+         *            The index of the first character of the word.
+         * @param end
+         *            The index after the last character of the word.
+         * @return A boolean value of true if it is found, otherwise it is
+         *         false. An empty range is not found.
+         */
+        @Override
+        public boolean contains(final CharSequence word, final int start, final int end)
+        {
+            Characters.checkRange(word, start, end);
+            return (start < end && this.containsWord(word, start, end));
+        }
+
+        /**
+         * Gets the number of words in the version.
+         *
+         * @return An int value of 0 or more.
+         */
+        @Override
+        public int size()
+        {
+            return (this._root._wordCount);
+        }
+
+        /**
+         * Gets the number of words below the node where the prefix stops
+         * matching. The count is held in each node.
+         *
+         * @param prefix
+         *            A <code>CharSequence</code> instance. May not be null. An
+         *            empty prefix counts all words.
+         * @return An int value of 0 or more.
+         */
+        @Override
+        public int countWords(final CharSequence prefix)
+        {
+            Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+            return (this.walkPrefix(prefix, new StringBuilder())._wordCount);
+        }
+
+        /**
+         * Gets all of the words in the version, in lexicographic order.
+         *
+         * @return A <code>List</code> instance containing zero to many
+         *         <code>String</code> instances.
+         */
+        @Override
+        public List<String> getWords()
+        {
+            final LinkedList<String> data = new LinkedList<String>();
+            final Iterator<String> iterator = this.iterateWords("");
+            while (iterator.hasNext())
+            {
+                data.add(iterator.next());
+            }
+            return (data);
+        }
+
+        /**
+         * Gets words based on a prefix, in lexicographic order. The prefix is
+         * walked as far as it matches and the words below the last matching
+         * character are returned.
+         *
+         * @param prefix
+         *            A <code>String</code> instance. May not be null or empty.
+         * @return A <code>List</code> instance containing zero to many
+         *         <code>String</code> instances.
+         */
+        @Override
+        public List<String> getWords(final String prefix)
+        {
+            Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+            final LinkedList<String> data = new LinkedList<String>();
+            final Iterator<String> iterator = this.iterateWords(prefix);
+            while (iterator.hasNext())
+            {
+                data.add(iterator.next());
+            }
+            return (data);
+        }
+
+        /**
+         * Gets an iterator over the words based on a prefix, in lexicographic
+         * order.
+         *
+         * @param prefix
+         *            A <code>CharSequence</code> instance. May not be null. An
+         *            empty prefix iterates all words.
+         * @return An <code>Iterator</code> instance over zero to many
+         *         <code>String</code> instances.
+         */
+        @Override
+        public Iterator<String> iterateWords(final CharSequence prefix)
+        {
+            Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+            final StringBuilder prefixWord = new StringBuilder();
+            final PNode node = this.walkPrefix(prefix, prefixWord);
+            return (new WordIterator(node, prefixWord));
+        }
+
+        /*
+         * Walks the characters of a word and holds each node of the path and
+         * the index of each child. Returns the number of characters that were
+         * found.
+         */
+        private int walkPath(final String word, final PNode[] path, final int[] indexes)
+        {
+            final int count = word.length();
+            path[0] = this._root;
+            int depth = 0;
+            while (depth < count)
+            {
+                final int index = path[depth].indexOf(word.charAt(depth));
+                indexes[depth] = index;
+                if (index < 0)
+                {
+                    break;
+                }
+                path[depth + 1] = path[depth]._children[index];
+                ++depth;
+            }
+            return (depth);
+        }
+
+        /*
+         * Walks the prefix as far as it matches. The matching characters are
+         * appended to the prefix word and the last matching node is returned.
+         */
+        private PNode walkPrefix(final CharSequence prefix, final StringBuilder prefixWord)
+        {
+            final int count = prefix.length();
+            PNode node = this._root;
+            for (int i = 0; i < count; ++i)
+            {
+                final char character = prefix.charAt(i);
+                final int index = node.indexOf(character);
+                if (index < 0)
+                {
+                    // if the character is not found. STOP.
+                    break;
+                }
+                node = node._children[index];
+                prefixWord.append(character);
+            }
+            return (node);
+        }
+
+        /*
+         * Determines if the characters from start to end are a word.
+         */
+        private boolean containsWord(final CharSequence word, final int start, final int end)
+        {
+            PNode node = this._root;
+            for (int i = start; i < end; ++i)
+            {
+                final int index = node.indexOf(word.charAt(i));
+                if (index < 0)
+                {
+                    return (false);
+                }
+                node = node._children[index];
+            }
+            return (node._isWord);
+        }
+    }
+
+    /*
+     * An immutable node that holds the children sorted by character, the end
+     * of word flag and the number of words at or below it.
+     */
+    private static final class PNode
+    {
+        private static final PNode EMPTY = new PNode(new char[0], new PNode[0], false, 0);
+        private static final PNode WORD  = new PNode(new char[0], new PNode[0], true, 1);
+
+        final char[]               _keys;
+        final PNode[]              _children;
+        final boolean              _isWord;
+        final int                  _wordCount;
+
+        PNode(final char[] keys, final PNode[] children, final boolean isWord, final int wordCount)
+        {
+            this._keys = keys;
+            this._children = children;
+            this._isWord = isWord;
+            this._wordCount = wordCount;
+        }
+
+        /*
+         * Gets the index of the child or the negative insertion point.
+         */
+        int indexOf(final char character)
+        {
+            return (Arrays.binarySearch(this._keys, character));
+        }
+
+        PNode withWord(final boolean isWord)
+        {
+            return (new PNode(this._keys, this._children, isWord, this._wordCount + (isWord ? 1 : -1)));
+        }
+
+        /*
+         * Copies the node with the child at an index replaced, or inserted if
+         * the index is a negative insertion point.
+         */
+        PNode withChild(final int index, final char character, final PNode child, final int delta)
+        {
+            if (index >= 0)
+            {
+                final PNode[] children = this._children.clone();
+                children[index] = child;
+                return (new PNode(this._keys, children, this._isWord, this._wordCount + delta));
+            }
+
+            final int insert = -(index + 1);
+            final int count = this._keys.length;
+            final char[] keys = new char[count + 1];
+            final PNode[] children = new PNode[count + 1];
+            System.arraycopy(this._keys, 0, keys, 0, insert);
+            System.arraycopy(this._children, 0, children, 0, insert);
+            keys[insert] = character;
+            children[insert] = child;
+            System.arraycopy(this._keys, insert, keys, insert + 1, count - insert);
+            System.arraycopy(this._children, insert, children, insert + 1, count - insert);
+            return (new PNode(keys, children, this._isWord, this._wordCount + delta));
+        }
+
+        /*
+         * Copies the node without the child at an index.
+         */
+        PNode withoutChild(final int index, final int delta)
+        {
+            final int count = this._keys.length;
+            final char[] keys = new char[count - 1];
+            final PNode[] children = new PNode[count - 1];
+            System.arraycopy(this._keys, 0, keys, 0, index);
+            System.arraycopy(this._children, 0, children, 0, index);
+            System.arraycopy(this._keys, index + 1, keys, index, count - index - 1);
+            System.arraycopy(this._children, index + 1, children, index, count - index - 1);
+            return (new PNode(keys, children, this._isWord, this._wordCount + delta));
+        }
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of nodes, the next child to visit at each node and the word at
+     * the current node.
+     */
+    private static final class WordIterator implements Iterator<String>
+    {
+        private PNode[]             _nodes;
+        private int[]               _nextChildren;
+        private int                 _size;
+        private final int           _prefixLength;
+        private final StringBuilder _word;
+        private String              _next;
+
+        /*
+         * @param start The node to start from.
+         *
+         * @param prefix The word that ends at the start node.
+         */
+        WordIterator(final PNode start, final StringBuilder prefix)
+        {
+            this._nodes = new PNode[16];
+            this._nextChildren = new int[16];
+            this._nodes[0] = start;
+            this._size = 1;
+            this._prefixLength = prefix.length();
+            this._word = prefix;
+            if (start._isWord)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the nodes until the next word is found or all of the
+         * nodes were visited.
+         */
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final PNode node = this._nodes[top];
+                if (this._nextChildren[top] < node._keys.length)
+                {
+                    final int index = this._nextChildren[top];
+                    ++this._nextChildren[top];
+                    this._word.setLength(this._prefixLength + top);
+                    this._word.append(node._keys[index]);
+
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                    }
+                    final PNode child = node._children[index];
+                    this._nodes[this._size] = child;
+                    this._nextChildren[this._size] = 0;
+                    ++this._size;
+                    if (child._isWord)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._nodes[top] = null;
+                    --this._size;
+                }
+            }
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<PersistentTrie, Version> VERSION = AtomicReferenceFieldUpdater
+            .newUpdater(PersistentTrie.class, Version.class, "_version");
+
+    /*
+     * The current version. Is only replaced, never changed.
+     */
+    private volatile Version                                                  _version;
+
+    /**
+     * Constructor.
+     */
+    public PersistentTrie()
+    {
+        this._version = new Version(PNode.EMPTY);
+    }
+
+    /**
+     * Gets the current version. The version does not change when words are
+     * added or removed later, so it can be read without locks.
+     *
+     * @return A <code>Version</code> instance.
+     */
+    public Version version()
+    {
+        return (this._version);
+    }
+
+    /**
+     * Publishes a version as the current version. A version that was built
+     * with withWord and withoutWord is published with one volatile write.
+     *
+     * @param version
+     *            A <code>Version</code> instance. May not be null.
+     */
+    public void setVersion(final Version version)
+    {
+        Validate.defineObject(version).testNotNull().throwValidationExceptionOnFail().validate();
+        this._version = version;
+    }
+
+    /**
+     * Used to clear and reset the Trie. The versions that were taken before
+     * are not changed.
+     */
+    @Override
+    public void clear()
+    {
+        this._version = new Version(PNode.EMPTY);
+    }
+
+    /**
+     * Add a word to the Trie. A new version is published, so readers of the
+     * previous version do not see the word.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        while (true)
+        {
+            final Version current = this._version;
+            final Version next = current.withWord(word);
+            if (next == current || VERSION.compareAndSet(this, current, next))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a word from the Trie. A new version is published, so readers of
+     * the previous version still see the word.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        while (true)
+        {
+            final Version current = this._version;
+            final Version next = current.withoutWord(word);
+            if (next == current)
+            {
+                return (false);
+            }
+            if (VERSION.compareAndSet(this, current, next))
+            {
+                return (true);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        return (this._version.contains(word));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.CharSequence, int,
+     * int)
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        return (this._version.contains(word, start, end));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#containsAll(java.util.List)
+     */
+    @Override
+    public BitSet containsAll(final List<? extends CharSequence> words)
+    {
+        return (this._version.containsAll(words));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#size()
+     */
+    @Override
+    public int size()
+    {
+        return (this._version.size());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#countWords(java.lang.CharSequence)
+     */
+    @Override
+    public int countWords(final CharSequence prefix)
+    {
+        return (this._version.countWords(prefix));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#getWords()
+     */
+    @Override
+    public List<String> getWords()
+    {
+        return (this._version.getWords());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#getWords(java.lang.String)
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        return (this._version.getWords(prefix));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#iterateWords(java.lang.CharSequence)
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        return (this._version.iterateWords(prefix));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#fuzzyWords(java.lang.CharSequence,
+     * int, int)
+     */
+    @Override
+    public List<String> fuzzyWords(final CharSequence query, final int maxEdits, final int limit)
+    {
+        return (this._version.fuzzyWords(query, maxEdits, limit));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#longestPrefixOf(java.lang.CharSequence)
+     */
+    @Override
+    public String longestPrefixOf(final CharSequence input)
+    {
+        return (this._version.longestPrefixOf(input));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#prefixesOf(java.lang.CharSequence)
+     */
+    @Override
+    public List<String> prefixesOf(final CharSequence input)
+    {
+        return (this._version.prefixesOf(input));
+    }
+}
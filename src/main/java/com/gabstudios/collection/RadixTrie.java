@@ -0,0 +1,795 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie that is compressed. A run of characters that
+ * has only one child is held on a single edge, so a chain of single child
+ * nodes in a <code>LinkedHashMapTrie</code> is one node in this Trie. An edge
+ * is split when a word is added that leaves the run part of the way.
+ *
+ * The words returned by getWords( String prefix ) and contains( String word )
+ * are the same as a <code>LinkedHashMapTrie</code>.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class RadixTrie implements Trie
+{
+
+    /**
+     * The node within a RadixTrie. The node holds the label of the edge that
+     * leads to it.
+     *
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static class RadixNode
+    {
+        /*
+         * The first character of each child label. Kept sorted so a child can
+         * be found with a binary search.
+         */
+        private char[]      _keys;
+
+        /*
+         * The child nodes in the same order as the keys.
+         */
+        private RadixNode[] _children;
+
+        /*
+         * The number of children.
+         */
+        private int         _childCount;
+
+        /*
+         * The characters on the edge that leads to this node. The root has an
+         * empty label.
+         */
+        private String      _label;
+
+        /*
+         * A flag to mark that the node is the end of a word.
+         */
+        private boolean     _isWord;
+
+        /**
+         * Constructor.
+         *
+         * @param label
+         *            The characters on the edge that leads to the node.
+         */
+        protected RadixNode(final String label)
+        {
+            assert (label != null) : "Not able to create RadixNode.  The parameter 'label' should not be null.";
+            this._label = label;
+            this._keys = new char[0];
+            this._children = new RadixNode[0];
+        }
+
+        /**
+         * Gets the characters on the edge that leads to this node.
+         *
+         * @return A <code>String</code> instance. Is empty for the root.
+         */
+        public String getLabel()
+        {
+            return (this._label);
+        }
+
+        /**
+         * A flag to determine if this node is the end of a word.
+         *
+         * @return A boolean value - true if it is the end of a word. Otherwise
+         *         it is false.
+         */
+        public boolean isWord()
+        {
+            return (this._isWord);
+        }
+
+        /**
+         * A method to determine if the node is a leaf. A node is a leaf if it
+         * does not have any children.
+         *
+         * @return A boolean value. Will return true if the node is a leaf,
+         *         otherwise it will be false.
+         */
+        public boolean isLeaf()
+        {
+            return (this._childCount == 0);
+        }
+
+        /**
+         * Gets the children of this node.
+         *
+         * @return A <code>List</code> instance containing 0 to n
+         *         <code>RadixNode</code> instances.
+         */
+        public List<RadixNode> getChildren()
+        {
+            return (Arrays.asList(Arrays.copyOf(this._children, this._childCount)));
+        }
+
+        /*
+         * Gets the child whose label starts with the character. Returns null
+         * if there is not one.
+         */
+        RadixNode getChild(final char character)
+        {
+            final int index = Arrays.binarySearch(this._keys, 0, this._childCount, character);
+            return (index < 0 ? null : this._children[index]);
+        }
+
+        /*
+         * Adds a child. A child with the same first character must not exist.
+         */
+        void addChild(final RadixNode child)
+        {
+            final char key = child._label.charAt(0);
+            final int index = -(Arrays.binarySearch(this._keys, 0, this._childCount, key) + 1);
+            assert (index >= 0) : "A child with the same first character should not exist.";
+
+            if (this._childCount == this._keys.length)
+            {
+                final int capacity = Math.max(2, this._childCount << 1);
+                this._keys = Arrays.copyOf(this._keys, capacity);
+                this._children = Arrays.copyOf(this._children, capacity);
+            }
+            System.arraycopy(this._keys, index, this._keys, index + 1, this._childCount - index);
+            System.arraycopy(this._children, index, this._children, index + 1, this._childCount - index);
+            this._keys[index] = key;
+            this._children[index] = child;
+            ++this._childCount;
+        }
+
+        /*
+         * Replaces the child that has the same first character.
+         */
+        void replaceChild(final RadixNode child)
+        {
+            final int index = Arrays.binarySearch(this._keys, 0, this._childCount, child._label.charAt(0));
+            assert (index >= 0) : "A child with the same first character should exist.";
+            this._children[index] = child;
+        }
+
+        /*
+         * Removes the child whose label starts with the character.
+         */
+        void removeChild(final char character)
+        {
+            final int index = Arrays.binarySearch(this._keys, 0, this._childCount, character);
+            assert (index >= 0) : "A child with the first character should exist.";
+            --this._childCount;
+            System.arraycopy(this._keys, index + 1, this._keys, index, this._childCount - index);
+            System.arraycopy(this._children, index + 1, this._children, index, this._childCount - index);
+            this._children[this._childCount] = null;
+        }
+
+        /*
+         * Used to mark a node as the end of a word.
+         */
+        void markWord()
+        {
+            this._isWord = true;
+        }
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of nodes, the next child to visit at each node and the length of
+     * the word at each node.
+     */
+    private static class WordIterator implements Iterator<String>
+    {
+        /*
+         * The nodes on the current path.
+         */
+        private RadixNode[]         _nodes;
+
+        /*
+         * The index of the next child to visit at each node.
+         */
+        private int[]               _nextChildren;
+
+        /*
+         * The length of the word that ends at each node.
+         */
+        private int[]               _lengths;
+
+        /*
+         * The number of nodes on the current path.
+         */
+        private int                 _size;
+
+        /*
+         * The word that ends at the current node.
+         */
+        private final StringBuilder _word;
+
+        /*
+         * The next word to return. Is null if it has not been found yet.
+         */
+        private String              _next;
+
+        /*
+         * @param start The node to start from.
+         *
+         * @param prefix The word that ends at the start node.
+         */
+        WordIterator(final RadixNode start, final StringBuilder prefix)
+        {
+            this._nodes = new RadixNode[16];
+            this._nextChildren = new int[16];
+            this._lengths = new int[16];
+            this._nodes[0] = start;
+            this._lengths[0] = prefix.length();
+            this._size = 1;
+            this._word = prefix;
+            if (start._isWord)
+            {
+                this._next = prefix.toString();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the nodes until the next word is found or all of the
+         * nodes were visited.
+         */
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final RadixNode node = this._nodes[top];
+                if (this._nextChildren[top] < node._childCount)
+                {
+                    final RadixNode child = node._children[this._nextChildren[top]];
+                    ++this._nextChildren[top];
+
+                    this._word.setLength(this._lengths[top]);
+                    this._word.append(child._label);
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                        this._lengths = Arrays.copyOf(this._lengths, this._size << 1);
+                    }
+                    this._nodes[this._size] = child;
+                    this._nextChildren[this._size] = 0;
+                    this._lengths[this._size] = this._word.length();
+                    ++this._size;
+                    if (child._isWord)
+                    {
+                        this._next = this._word.toString();
+                        return;
+                    }
+                }
+                else
+                {
+                    this._nodes[top] = null;
+                    --this._size;
+                }
+            }
+        }
+    }
+
+    /*
+     * The root of the Trie. The root has an empty label.
+     */
+    private RadixNode _root;
+
+    /**
+     * Constructor.
+     */
+    public RadixTrie()
+    {
+        this._root = new RadixNode("");
+    }
+
+    /**
+     * Used to clear and reset the Trie.
+     */
+    @Override
+    public void clear()
+    {
+        this._root = new RadixNode("");
+    }
+
+    /**
+     * Gets the root node of the Trie.
+     *
+     * @return The <code>RadixNode</code> instance that is the root.
+     */
+    public RadixNode getRoot()
+    {
+        return (this._root);
+    }
+
+    /**
+     * Gets the number of nodes contained in this Trie. A Trie will always have
+     * one node that is the root.
+     *
+     * @return An integer value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        int count = 0;
+        final Stack<RadixNode> stack = new Stack<RadixNode>();
+        stack.push(this._root);
+        while (!stack.isEmpty())
+        {
+            final RadixNode node = stack.pop();
+            ++count;
+            for (int i = 0; i < node._childCount; ++i)
+            {
+                stack.push(node._children[i]);
+            }
+        }
+        return (count);
+    }
+
+    /**
+     * Add a word to the Trie. An edge is split when the word leaves its label
+     * part of the way.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            final RadixNode child = node.getChild(word.charAt(i));
+            if (child == null)
+            {
+                // the rest of the word is a new edge.
+                final RadixNode leaf = new RadixNode(word.substring(i));
+                leaf.markWord();
+                node.addChild(leaf);
+                return;
+            }
+
+            final String label = child._label;
+            final int matched = matchLength(label, word, i);
+            if (matched < label.length())
+            {
+                // the word leaves the edge part of the way, so split the edge.
+                final RadixNode split = new RadixNode(label.substring(0, matched));
+                child._label = label.substring(matched);
+                split.addChild(child);
+                node.replaceChild(split);
+                node = split;
+            }
+            else
+            {
+                node = child;
+            }
+            i += matched;
+        }
+        // mark the last node with terminator.
+        node.markWord();
+    }
+
+    /**
+     * Removes a word from the Trie. The node of the word is removed when it has
+     * no children, and a node that is left with one child and is not a word is
+     * merged with the child, so each edge stays as long as it can be.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        RadixNode grandparent = null;
+        RadixNode parent = null;
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            final RadixNode child = node.getChild(word.charAt(i));
+            if (child == null || !word.startsWith(child._label, i))
+            {
+                return (false);
+            }
+            grandparent = parent;
+            parent = node;
+            node = child;
+            i += child._label.length();
+        }
+        if (!node._isWord)
+        {
+            return (false);
+        }
+
+        node._isWord = false;
+        if (node._childCount == 0)
+        {
+            parent.removeChild(node._label.charAt(0));
+            if (parent != this._root && !parent._isWord && parent._childCount == 1)
+            {
+                merge(grandparent, parent);
+            }
+        }
+        else if (node._childCount == 1)
+        {
+            merge(parent, node);
+        }
+        return (true);
+    }
+
+    /*
+     * Replaces a node that has one child with the child. The label of the
+     * node is added to the front of the label of the child.
+     */
+    private static void merge(final RadixNode parent, final RadixNode node)
+    {
+        assert (node._childCount == 1) : "The node should have one child.";
+        final RadixNode child = node._children[0];
+        child._label = node._label + child._label;
+        parent.replaceChild(child);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final int count = word.length();
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            node = node.getChild(word.charAt(i));
+            if (node == null || !word.startsWith(node._label, i))
+            {
+                // if the edge is not found. STOP.
+                return (false);
+            }
+            i += node._label.length();
+        }
+        return (node._isWord);
+    }
+
+    /**
+     * Add a range of characters as a word. Only a null check is done, and the
+     * range is only copied when the word is not already in the Trie, so adding
+     * a word again does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+        if (!this.contains(word, start, end))
+        {
+            // the edges are split with substrings, so the range is copied.
+            this.add(word.subSequence(start, end).toString());
+        }
+    }
+
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done and the labels are compared in place, so the lookup does
+     * not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            return (false);
+        }
+
+        RadixNode node = this._root;
+        int i = start;
+        while (i < end)
+        {
+            node = node.getChild(word.charAt(i));
+            if (node == null || node._label.length() > end - i
+                    || matchLength(node._label, word, i) < node._label.length())
+            {
+                // if the edge is not found. STOP.
+                return (false);
+            }
+            i += node._label.length();
+        }
+        return (node._isWord);
+    }
+
+    /**
+     * Gets the longest word that is a prefix of the input. The input is walked
+     * once and the walk stops at the first edge that does not match.
+     *
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return The longest word that is a prefix of the input, or null if no
+     *         word is a prefix of the input.
+     */
+    @Override
+    public String longestPrefixOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+
+        int length = 0;
+        final int count = input.length();
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            node = node.getChild(input.charAt(i));
+            if (node == null || matchLength(node._label, input, i) < node._label.length())
+            {
+                break;
+            }
+            i += node._label.length();
+            if (node._isWord)
+            {
+                length = i;
+            }
+        }
+        return (length == 0 ? null : input.subSequence(0, length).toString());
+    }
+
+    /**
+     * Gets all of the words that are a prefix of the input, shortest first.
+     * The input is walked once and the walk stops at the first edge that does
+     * not match.
+     *
+     * @param input
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> prefixesOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final List<String> data = new ArrayList<String>();
+        final int count = input.length();
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            node = node.getChild(input.charAt(i));
+            if (node == null || matchLength(node._label, input, i) < node._label.length())
+            {
+                break;
+            }
+            i += node._label.length();
+            if (node._isWord)
+            {
+                data.add(input.subSequence(0, i).toString());
+            }
+        }
+        return (data);
+    }
+
+    /**
+     * Gets all of the words that were added.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        collectWords(this._root, new StringBuilder(), data);
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix. The prefix is walked as far as it matches
+     * and the words below the last matching character are returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final RadixNode node = this.walkPrefix(prefix, prefixWord);
+
+        final LinkedList<String> data = new LinkedList<String>();
+        collectWords(node, prefixWord, data);
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix. The words are found
+     * as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final RadixNode node = this.walkPrefix(prefix, prefixWord);
+        return (new WordIterator(node, prefixWord));
+    }
+
+    /*
+     * Walks the prefix as far as it matches. The labels of the edges that were
+     * walked are appended to the prefix word and the last node is returned.
+     */
+    private RadixNode walkPrefix(final CharSequence prefix, final StringBuilder prefixWord)
+    {
+        final int count = prefix.length();
+        RadixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            final RadixNode child = node.getChild(prefix.charAt(i));
+            if (child == null)
+            {
+                // if the character is not found. STOP.
+                break;
+            }
+
+            // the words below a character that is part of the way down an
+            // edge are the words below the edge.
+            node = child;
+            prefixWord.append(child._label);
+            final int matched = matchLength(child._label, prefix, i);
+            if (matched < child._label.length())
+            {
+                break;
+            }
+            i += matched;
+        }
+        return (node);
+    }
+
+    /*
+     * Adds the words below the node to the list. The prefix is the word that
+     * ends at the node.
+     */
+    private static void collectWords(final RadixNode start, final StringBuilder prefix, final List<String> data)
+    {
+        final Stack<RadixNode> stack = new Stack<RadixNode>();
+        final Stack<Integer> depths = new Stack<Integer>();
+        stack.push(start);
+        depths.push(prefix.length());
+
+        final StringBuilder word = prefix;
+        while (!stack.isEmpty())
+        {
+            final RadixNode node = stack.pop();
+            word.setLength(depths.pop());
+            if (node != start)
+            {
+                word.append(node._label);
+            }
+
+            if (node._isWord)
+            {
+                data.add(word.toString());
+            }
+
+            // push in reverse so that the children are visited in order.
+            for (int i = node._childCount - 1; i >= 0; --i)
+            {
+                stack.push(node._children[i]);
+                depths.push(word.length());
+            }
+        }
+    }
+
+    /*
+     * Gets the number of characters of the label that match the word from the
+     * offset.
+     */
+    private static int matchLength(final String label, final CharSequence word, final int offset)
+    {
+        final int count = Math.min(label.length(), word.length() - offset);
+        int matched = 0;
+        while (matched < count && label.charAt(matched) == word.charAt(offset + matched))
+        {
+            ++matched;
+        }
+        return (matched);
+    }
+}
@@ -0,0 +1,319 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.Arrays;
+
+
+/**
+ * The structure of a tree or a trie, found in one pass over its nodes. It
+ * holds the number of nodes and words, how many nodes are at each depth and
+ * have each number of children, the chains of nodes with a single child and
+ * an estimate of the heap the nodes use.
+ *
+ * The estimate is for a 64 bit JVM with compressed references. It counts the
+ * nodes and the maps that hold their children, but not the data held in the
+ * nodes, which may be shared.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public final class Statistics
+{
+
+    /*
+     * The bytes of an object header, of an array header and of a reference.
+     */
+    private static final int OBJECT_HEADER     = 12;
+    private static final int ARRAY_HEADER      = 16;
+    private static final int REFERENCE         = 4;
+
+    /*
+     * The bytes of a LinkedHashMap and of one of its entries.
+     */
+    private static final int LINKED_HASH_MAP   = 56;
+    private static final int LINKED_HASH_ENTRY = 40;
+
+    /*
+     * The bytes of a TreeMap and of one of its entries.
+     */
+    private static final int TREE_MAP          = 48;
+    private static final int TREE_ENTRY        = 40;
+
+    /*
+     * The number of nodes, including the root.
+     */
+    private int              _nodeCount;
+
+    /*
+     * The number of nodes that end a word.
+     */
+    private int              _wordCount;
+
+    /*
+     * The number of nodes at each depth.
+     */
+    private int[]            _depthHistogram;
+
+    /*
+     * The number of nodes with each number of children.
+     */
+    private int[]            _fanoutHistogram;
+
+    /*
+     * The deepest node and the node with the most children.
+     */
+    private int              _maxDepth;
+    private int              _maxFanout;
+
+    /*
+     * The number of chains of nodes with one child and the length of the
+     * longest one.
+     */
+    private int              _singleChildChainCount;
+    private int              _longestSingleChildChain;
+
+    /*
+     * The estimated bytes of all of the nodes.
+     */
+    private long             _estimatedBytes;
+
+    /*
+     * Is created by the trees and tries while they walk their nodes.
+     */
+    Statistics()
+    {
+        this._depthHistogram = new int[16];
+        this._fanoutHistogram = new int[16];
+    }
+
+    /**
+     * Gets the number of nodes, including the root.
+     *
+     * @return An int value of 1 or more.
+     */
+    public int getNodeCount()
+    {
+        return (this._nodeCount);
+    }
+
+    /**
+     * Gets the number of words. A tree that does not hold words counts its
+     * leaves.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getWordCount()
+    {
+        return (this._wordCount);
+    }
+
+    /**
+     * Gets the depth of the deepest node. The root is at depth 0.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getMaxDepth()
+    {
+        return (this._maxDepth);
+    }
+
+    /**
+     * Gets the number of nodes at each depth.
+     *
+     * @return An int array where the value at an index is the number of nodes
+     *         at that depth. Its length is getMaxDepth() + 1.
+     */
+    public int[] getDepthHistogram()
+    {
+        return (Arrays.copyOf(this._depthHistogram, this._maxDepth + 1));
+    }
+
+    /**
+     * Gets the most children of a node.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getMaxFanout()
+    {
+        return (this._maxFanout);
+    }
+
+    /**
+     * Gets the number of nodes with each number of children.
+     *
+     * @return An int array where the value at an index is the number of nodes
+     *         with that many children. Its length is getMaxFanout() + 1.
+     */
+    public int[] getFanoutHistogram()
+    {
+        return (Arrays.copyOf(this._fanoutHistogram, this._maxFanout + 1));
+    }
+
+    /**
+     * Gets the average number of children of the nodes that are not leaves.
+     *
+     * @return A double value of 0 or more.
+     */
+    public double getAverageFanout()
+    {
+        final int parentCount = this._nodeCount - this._fanoutHistogram[0];
+        return (parentCount == 0 ? 0.0 : (double) (this._nodeCount - 1) / parentCount);
+    }
+
+    /**
+     * Gets the number of chains of nodes that have one child. A chain is as
+     * long as possible, so each one could be one node of a compressed tree.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getSingleChildChainCount()
+    {
+        return (this._singleChildChainCount);
+    }
+
+    /**
+     * Gets the number of nodes in the longest chain of nodes that have one
+     * child.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int getLongestSingleChildChain()
+    {
+        return (this._longestSingleChildChain);
+    }
+
+    /**
+     * Gets the estimated bytes of heap used by the nodes.
+     *
+     * @return A long value of 0 or more.
+     */
+    public long getEstimatedBytes()
+    {
+        return (this._estimatedBytes);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Statistics [nodeCount=").append(this._nodeCount);
+        builder.append(", wordCount=").append(this._wordCount);
+        builder.append(", maxDepth=").append(this._maxDepth);
+        builder.append(", maxFanout=").append(this._maxFanout);
+        builder.append(", averageFanout=").append(String.format("%.2f", this.getAverageFanout()));
+        builder.append(", singleChildChainCount=").append(this._singleChildChainCount);
+        builder.append(", longestSingleChildChain=").append(this._longestSingleChildChain);
+        builder.append(", estimatedBytes=").append(this._estimatedBytes);
+        builder.append(", depthHistogram=").append(Arrays.toString(this.getDepthHistogram()));
+        builder.append(", fanoutHistogram=").append(Arrays.toString(this.getFanoutHistogram()));
+        builder.append("]");
+        return (builder.toString());
+    }
+
+    /*
+     * Adds a node. The chain is the number of nodes with one child that end at
+     * the parent of the node. Returns the chain to pass to the children of the
+     * node.
+     */
+    int addNode(final int depth, final int fanout, final boolean isWord, final int chain, final long bytes)
+    {
+        ++this._nodeCount;
+        if (isWord)
+        {
+            ++this._wordCount;
+        }
+        this._estimatedBytes += bytes;
+
+        if (depth >= this._depthHistogram.length)
+        {
+            final int length = Math.max(depth + 1, this._depthHistogram.length << 1);
+            this._depthHistogram = Arrays.copyOf(this._depthHistogram, length);
+        }
+        ++this._depthHistogram[depth];
+        this._maxDepth = Math.max(this._maxDepth, depth);
+
+        if (fanout >= this._fanoutHistogram.length)
+        {
+            final int length = Math.max(fanout + 1, this._fanoutHistogram.length << 1);
+            this._fanoutHistogram = Arrays.copyOf(this._fanoutHistogram, length);
+        }
+        ++this._fanoutHistogram[fanout];
+        this._maxFanout = Math.max(this._maxFanout, fanout);
+
+        if (fanout != 1)
+        {
+            return (0);
+        }
+        if (chain == 0)
+        {
+            // the parent does not have one child, so a chain starts here.
+            ++this._singleChildChainCount;
+        }
+        this._longestSingleChildChain = Math.max(this._longestSingleChildChain, chain + 1);
+        return (chain + 1);
+    }
+
+    /*
+     * Estimates the bytes of an object with a number of references and bytes
+     * of primitive fields.
+     */
+    static long estimateObjectBytes(final int referenceCount, final int primitiveBytes)
+    {
+        return (align(OBJECT_HEADER + referenceCount * REFERENCE + primitiveBytes));
+    }
+
+    /*
+     * Estimates the bytes of a map that holds children. A LinkedHashMap has a
+     * table that doubles from 16 entries when it is three quarters full, and
+     * is only created with the first entry.
+     */
+    static long estimateMapBytes(final int size, final boolean isSorted)
+    {
+        if (isSorted)
+        {
+            return (TREE_MAP + (long) size * TREE_ENTRY);
+        }
+        if (size == 0)
+        {
+            return (LINKED_HASH_MAP);
+        }
+
+        long capacity = 16;
+        while (size > capacity * 3 / 4)
+        {
+            capacity <<= 1;
+        }
+        return (LINKED_HASH_MAP + align(ARRAY_HEADER + capacity * REFERENCE) + (long) size * LINKED_HASH_ENTRY);
+    }
+
+    /*
+     * Rounds the bytes up to the 8 byte alignment of objects.
+     */
+    private static long align(final long bytes)
+    {
+        return ((bytes + 7) & ~7L);
+    }
+}
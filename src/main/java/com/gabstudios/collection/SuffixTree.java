@@ -0,0 +1,480 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * A generalized suffix tree of words. Each suffix of each word is a path from
+ * the root, so the words that contain a fragment are found below the node
+ * where the fragment ends. The tree is built with Ukkonen's algorithm, so
+ * adding a word is linear in its length.
+ *
+ * The words are held one after another in one text, and each word is
+ * followed by a terminator that is not used by any other word. A terminator
+ * is a negative symbol, so it never matches a character.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class SuffixTree
+{
+
+    /*
+     * A node of the tree. The edge from its parent is the text from start up
+     * to end. A leaf grows with the text, so its end is LEAF_END, and it
+     * holds the start of its suffix.
+     */
+    private static final class SuffixNode
+    {
+        private int          _start;
+        private final int    _end;
+        private final int    _suffixStart;
+        private SuffixNode   _link;
+        private int[]        _keys;
+        private SuffixNode[] _children;
+        private int          _childCount;
+
+        SuffixNode(final int start, final int end, final int suffixStart)
+        {
+            this._start = start;
+            this._end = end;
+            this._suffixStart = suffixStart;
+        }
+
+        /*
+         * Gets the child whose edge starts with the symbol. Returns null if
+         * there is not one.
+         */
+        SuffixNode getChild(final int symbol)
+        {
+            final int index = this.indexOf(symbol);
+            return (index < 0 ? null : this._children[index]);
+        }
+
+        /*
+         * Sets the child whose edge starts with the symbol.
+         */
+        void putChild(final int symbol, final SuffixNode child)
+        {
+            int index = this.indexOf(symbol);
+            if (index >= 0)
+            {
+                this._children[index] = child;
+                return;
+            }
+
+            index = -(index + 1);
+            if (this._keys == null)
+            {
+                this._keys = new int[2];
+                this._children = new SuffixNode[2];
+            }
+            else if (this._childCount == this._keys.length)
+            {
+                this._keys = Arrays.copyOf(this._keys, this._childCount << 1);
+                this._children = Arrays.copyOf(this._children, this._childCount << 1);
+            }
+            System.arraycopy(this._keys, index, this._keys, index + 1, this._childCount - index);
+            System.arraycopy(this._children, index, this._children, index + 1, this._childCount - index);
+            this._keys[index] = symbol;
+            this._children[index] = child;
+            ++this._childCount;
+        }
+
+        /*
+         * Finds the index of the symbol. Returns -(insertion point + 1) if it
+         * is not found.
+         */
+        private int indexOf(final int symbol)
+        {
+            return (this._keys == null ? -1 : Arrays.binarySearch(this._keys, 0, this._childCount, symbol));
+        }
+    }
+
+    /*
+     * The end of a leaf edge, which is the end of the text.
+     */
+    private static final int LEAF_END = Integer.MAX_VALUE;
+
+    /*
+     * The words in the order they were added.
+     */
+    private final List<String> _words;
+
+    /*
+     * The words, to ignore a word that is added again.
+     */
+    private final Set<String>  _wordSet;
+
+    /*
+     * The index in the text where each word starts.
+     */
+    private int[]              _wordStarts;
+
+    /*
+     * The characters of the words and their terminators.
+     */
+    private int[]              _text;
+
+    /*
+     * The number of symbols in the text.
+     */
+    private int                _length;
+
+    /*
+     * The root of the tree.
+     */
+    private SuffixNode         _root;
+
+    /*
+     * The active point of Ukkonen's algorithm. The suffixes that are not
+     * explicit yet end at the active length along the edge of the active
+     * node that starts with the symbol at the active edge.
+     */
+    private SuffixNode         _activeNode;
+    private int                _activeEdge;
+    private int                _activeLength;
+
+    /*
+     * The number of suffixes that are not explicit yet.
+     */
+    private int                _remainder;
+
+    /*
+     * The number of nodes including the root.
+     */
+    private int                _nodeCount;
+
+    /**
+     * Constructor.
+     */
+    public SuffixTree()
+    {
+        this._words = new ArrayList<String>();
+        this._wordSet = new HashSet<String>();
+        this.clear();
+    }
+
+    /**
+     * Used to clear and reset the tree.
+     */
+    public void clear()
+    {
+        this._words.clear();
+        this._wordSet.clear();
+        this._wordStarts = new int[16];
+        this._text = new int[64];
+        this._length = 0;
+        this._root = new SuffixNode(0, 0, -1);
+        this._activeNode = this._root;
+        this._activeEdge = 0;
+        this._activeLength = 0;
+        this._remainder = 0;
+        this._nodeCount = 1;
+    }
+
+    /**
+     * Add a word to the tree. A word that was already added is ignored.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        if (!this._wordSet.add(word))
+        {
+            return;
+        }
+
+        final int index = this._words.size();
+        this._words.add(word);
+        if (index == this._wordStarts.length)
+        {
+            this._wordStarts = Arrays.copyOf(this._wordStarts, index << 1);
+        }
+        this._wordStarts[index] = this._length;
+
+        final int count = word.length();
+        for (int i = 0; i < count; ++i)
+        {
+            this.extend(word.charAt(i));
+        }
+        // the terminator can not be in the tree, so every suffix of the word
+        // is made explicit and the active point goes back to the root.
+        this.extend(-(index + 1));
+    }
+
+    /**
+     * Determines if a word was added to the tree.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     */
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        return (this._wordSet.contains(word));
+    }
+
+    /**
+     * Gets the words that contain a fragment. The fragment is walked from the
+     * root and the leaves below it are visited until the limit is reached, so
+     * the time is the length of the fragment plus the number of times it is
+     * found. Each word is returned once, in no particular order.
+     *
+     * @param fragment
+     *            A <code>CharSequence</code> instance. Must not be null. An
+     *            empty fragment is contained in every word.
+     * @param limit
+     *            The maximum number of words to return. Must be 0 or more.
+     * @return A <code>List</code> instance containing zero to limit
+     *         <code>String</code> instances.
+     */
+    public List<String> findContaining(final CharSequence fragment, final int limit)
+    {
+        Validate.defineObject(fragment).testNotNull().throwValidationExceptionOnFail().validate();
+        if (limit < 0)
+        {
+            throw (new IllegalArgumentException("The parameter 'limit' should not be negative."));
+        }
+
+        final List<String> data = new ArrayList<String>();
+        final SuffixNode start = this.walk(fragment);
+        if (start == null || limit == 0)
+        {
+            return (data);
+        }
+
+        final BitSet found = new BitSet(this._words.size());
+        SuffixNode[] stack = new SuffixNode[16];
+        stack[0] = start;
+        int size = 1;
+        while (size > 0)
+        {
+            final SuffixNode node = stack[--size];
+            if (node._childCount == 0)
+            {
+                final int index = this.wordIndexOf(node._suffixStart);
+                if (!found.get(index))
+                {
+                    found.set(index);
+                    data.add(this._words.get(index));
+                    if (data.size() == limit)
+                    {
+                        break;
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < node._childCount; ++i)
+            {
+                if (size == stack.length)
+                {
+                    stack = Arrays.copyOf(stack, size << 1);
+                }
+                stack[size++] = node._children[i];
+            }
+        }
+        return (data);
+    }
+
+    /**
+     * Gets all of the words that were added, in the order they were added.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    public List<String> getWords()
+    {
+        return (new ArrayList<String>(this._words));
+    }
+
+    /**
+     * Gets the number of words in the tree.
+     *
+     * @return An int value of 0 or more.
+     */
+    public int size()
+    {
+        return (this._words.size());
+    }
+
+    /**
+     * Gets the number of nodes including the root.
+     *
+     * @return An int value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        return (this._nodeCount);
+    }
+
+    /*
+     * Appends a symbol to the text and makes each suffix that ends with it a
+     * path of the tree.
+     */
+    private void extend(final int symbol)
+    {
+        if (this._length == this._text.length)
+        {
+            this._text = Arrays.copyOf(this._text, this._length << 1);
+        }
+        final int position = this._length;
+        this._text[position] = symbol;
+        ++this._length;
+
+        ++this._remainder;
+        SuffixNode lastInternal = null;
+        while (this._remainder > 0)
+        {
+            if (this._activeLength == 0)
+            {
+                this._activeEdge = position;
+            }
+
+            final SuffixNode next = this._activeNode.getChild(this._text[this._activeEdge]);
+            if (next == null)
+            {
+                // there is not an edge for the symbol, so a leaf is added.
+                this._activeNode.putChild(symbol, this.createLeaf(position));
+                if (lastInternal != null)
+                {
+                    lastInternal._link = this._activeNode;
+                    lastInternal = null;
+                }
+            }
+            else
+            {
+                final int edgeLength = edgeEnd(next, position + 1) - next._start;
+                if (this._activeLength >= edgeLength)
+                {
+                    // walk down to the next node.
+                    this._activeEdge += edgeLength;
+                    this._activeLength -= edgeLength;
+                    this._activeNode = next;
+                    continue;
+                }
+
+                if (this._text[next._start + this._activeLength] == symbol)
+                {
+                    // the suffix is already in the tree, so the phase ends.
+                    if (lastInternal != null && this._activeNode != this._root)
+                    {
+                        lastInternal._link = this._activeNode;
+                    }
+                    ++this._activeLength;
+                    break;
+                }
+
+                // split the edge and add a leaf for the symbol.
+                final SuffixNode split = new SuffixNode(next._start, next._start + this._activeLength, -1);
+                split._link = this._root;
+                ++this._nodeCount;
+                this._activeNode.putChild(this._text[this._activeEdge], split);
+                split.putChild(symbol, this.createLeaf(position));
+                next._start += this._activeLength;
+                split.putChild(this._text[next._start], next);
+                if (lastInternal != null)
+                {
+                    lastInternal._link = split;
+                }
+                lastInternal = split;
+            }
+
+            --this._remainder;
+            if (this._activeNode == this._root && this._activeLength > 0)
+            {
+                --this._activeLength;
+                this._activeEdge = position - this._remainder + 1;
+            }
+            else if (this._activeNode != this._root)
+            {
+                this._activeNode = this._activeNode._link;
+            }
+        }
+    }
+
+    /*
+     * Creates a leaf for the suffix that ends at the position.
+     */
+    private SuffixNode createLeaf(final int position)
+    {
+        ++this._nodeCount;
+        return (new SuffixNode(position, LEAF_END, position - this._remainder + 1));
+    }
+
+    /*
+     * Walks the characters of a fragment from the root. Returns the node at
+     * or below the end of the fragment, or null if the fragment is not found.
+     */
+    private SuffixNode walk(final CharSequence fragment)
+    {
+        final int count = fragment.length();
+        SuffixNode node = this._root;
+        int i = 0;
+        while (i < count)
+        {
+            final SuffixNode child = node.getChild(fragment.charAt(i));
+            if (child == null)
+            {
+                return (null);
+            }
+            final int end = edgeEnd(child, this._length);
+            for (int j = child._start; j < end && i < count; ++j, ++i)
+            {
+                if (this._text[j] != fragment.charAt(i))
+                {
+                    return (null);
+                }
+            }
+            node = child;
+        }
+        return (node);
+    }
+
+    /*
+     * Gets the index of the word that holds a position of the text.
+     */
+    private int wordIndexOf(final int position)
+    {
+        final int index = Arrays.binarySearch(this._wordStarts, 0, this._words.size(), position);
+        return (index >= 0 ? index : -(index + 1) - 1);
+    }
+
+    /*
+     * Gets the end of an edge. A leaf ends at the end of the text.
+     */
+    private static int edgeEnd(final SuffixNode node, final int length)
+    {
+        return (node._end == LEAF_END ? length : node._end);
+    }
+}
@@ -19,7 +19,17 @@
 
 package com.gabstudios.collection;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.gabstudios.validate.Validate;
 
 
 /**
@@ -50,6 +60,174 @@ public abstract interface Trie
      */
     public abstract List<String> getWords();
     
+    /**
+     * Gets an iterator over the words that are a close match to the prefix.
+     * The words are the same as getWords( String prefix ), but the Trie is
+     * walked lazily as the iterator is advanced, so a caller that stops after
+     * n words only pays for n words. An empty prefix iterates all words.
+     * 
+     * The Trie should not be changed while the iterator is in use.
+     * 
+     * The default implementation is not lazy. It iterates over the list from
+     * getWords() or getWords( String prefix ), so an implementation should
+     * override it with a walk of its nodes.
+     * 
+     * @param prefix
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @return An <code>Iterator</code> instance over the matching words.
+     */
+    public default Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final List<String> words = (prefix.length() == 0 ? this.getWords() : this.getWords(prefix.toString()));
+        return (words.iterator());
+    }
+    
+    /**
+     * Gets a stream of the words that are a close match to the prefix. The
+     * stream is backed by iterateWords( CharSequence prefix ) so it is lazy.
+     * 
+     * @param prefix
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @return A sequential <code>Stream</code> instance of the matching
+     *         words.
+     */
+    public default Stream<String> streamWords(final CharSequence prefix)
+    {
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        return (StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false));
+    }
+    
+    /**
+     * Gets the number of words that are a close match to the prefix. The words
+     * are the same as iterateWords( CharSequence prefix ).
+     * 
+     * The default implementation counts the words of iterateWords(
+     * CharSequence prefix ). An implementation should keep a count in each
+     * node so the count is found by walking the prefix.
+     * 
+     * @param prefix
+     *            A <code>CharSequence</code> instance. Must not be null. An
+     *            empty prefix counts all words.
+     * @return An int value of 0 or more.
+     */
+    public default int countWords(final CharSequence prefix)
+    {
+        int count = 0;
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            ++count;
+        }
+        return (count);
+    }
+    
+    /**
+     * Gets the number of words in the Trie.
+     * 
+     * @return An int value of 0 or more.
+     */
+    public default int size()
+    {
+        return (this.countWords(""));
+    }
+    
+    /**
+     * Gets the words that are within a number of edits of the query. An edit
+     * is adding, removing or replacing one character. The words are returned
+     * in the order that the Trie holds them.
+     * 
+     * The default implementation tests every word. An implementation should
+     * compute the distance while it walks down the Trie and skip the nodes
+     * whose words can not be within maxEdits.
+     * 
+     * @param query
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @param maxEdits
+     *            The maximum number of edits. Must be 0 or more.
+     * @param limit
+     *            The maximum number of words to return. Must be 0 or more.
+     * @return A <code>List</code> instance containing zero to limit
+     *         <code>String</code> instances.
+     */
+    public default List<String> fuzzyWords(final CharSequence query, final int maxEdits, final int limit)
+    {
+        Levenshtein.validate(query, maxEdits, limit);
+        
+        final List<String> data = new ArrayList<String>();
+        final Iterator<String> iterator = this.iterateWords("");
+        while (data.size() < limit && iterator.hasNext())
+        {
+            final String word = iterator.next();
+            if (Levenshtein.isWithin(query, word, maxEdits))
+            {
+                data.add(word);
+            }
+        }
+        return (data);
+    }
+    
+    /**
+     * Gets the longest word that is a prefix of the input. The input itself is
+     * a prefix of the input. If the words include "1", "1800" and "18005" and
+     * the input is "18001234" then "1800" is returned.
+     * 
+     * The default implementation tests each prefix with contains( String word
+     * ). An implementation should walk the input once and stop at the first
+     * character that does not match.
+     * 
+     * @param input
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @return The longest word that is a prefix of the input, or null if no
+     *         word is a prefix of the input.
+     */
+    public default String longestPrefixOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        for (int length = input.length(); length > 0; --length)
+        {
+            final String word = input.subSequence(0, length).toString();
+            if (this.contains(word))
+            {
+                return (word);
+            }
+        }
+        return (null);
+    }
+    
+    /**
+     * Gets all of the words that are a prefix of the input, shortest first.
+     * 
+     * The default implementation tests each prefix with contains( String word
+     * ). An implementation should walk the input once and stop at the first
+     * character that does not match.
+     * 
+     * @param input
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    public default List<String> prefixesOf(final CharSequence input)
+    {
+        Validate.defineObject(input).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final List<String> data = new ArrayList<String>();
+        final int count = input.length();
+        for (int length = 1; length <= count; ++length)
+        {
+            final String word = input.subSequence(0, length).toString();
+            if (this.contains(word))
+            {
+                data.add(word);
+            }
+        }
+        return (data);
+    }
+    
     /**
      * Determines if a word is contained in the Trie.
      * 
@@ -59,6 +237,100 @@ public abstract interface Trie
      */
     public boolean contains(String word);
     
+    /**
+     * Determines if a range of characters is a word in the Trie. The range is
+     * not copied by an implementation that can walk the characters, so a slice
+     * of a larger buffer can be looked up.
+     * 
+     * The default implementation copies the range and calls contains( String
+     * word ).
+     * 
+     * @param word
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    public default boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        return (start < end && this.contains(word.subSequence(start, end).toString()));
+    }
+    
+    /**
+     * Adds a range of characters to the Trie as a word.
+     * 
+     * The default implementation copies the range and calls add( String word
+     * ).
+     * 
+     * @param word
+     *            A <code>CharSequence</code> instance. Must not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    public default void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        this.add(word.subSequence(start, end).toString());
+    }
+    
+    /**
+     * Determines which words of a batch are in the Trie. Bit i of the result
+     * is set if the word at index i is found.
+     * 
+     * The default implementation calls contains( CharSequence word, int start,
+     * int end ) for each word. An implementation should visit the words in
+     * sorted order and start each walk from the prefix it shares with the
+     * word before it.
+     * 
+     * @param words
+     *            A <code>List</code> instance. Must not be null or hold null.
+     * @return A <code>BitSet</code> instance. An empty word is not found.
+     */
+    public default BitSet containsAll(final List<? extends CharSequence> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        final BitSet found = new BitSet(words.size());
+        int index = 0;
+        for (final CharSequence word : words)
+        {
+            if (this.contains(word, 0, word.length()))
+            {
+                found.set(index);
+            }
+            ++index;
+        }
+        return (found);
+    }
+    
+    /**
+     * Adds a batch of words to the Trie.
+     * 
+     * The default implementation calls add( String word ) for each word. An
+     * implementation should add the words in sorted order and start each walk
+     * from the prefix it shares with the word before it.
+     * 
+     * @param words
+     *            A <code>Collection</code> instance. Must not be null. Each
+     *            word must not be null or empty.
+     */
+    public default void addAll(final Collection<String> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+        
+        for (final String word : words)
+        {
+            this.add(word);
+        }
+    }
+    
     /**
      * Adds a String to the Trie.
      * 
@@ -67,6 +339,25 @@ public abstract interface Trie
      */
     public void add(String word);
     
+    /**
+     * Removes a word from the Trie. The nodes that were only used by the word
+     * are removed, so the Trie only holds the words that remain.
+     * 
+     * The default implementation throws an UnsupportedOperationException, for
+     * a Trie that can not remove words.
+     * 
+     * @param word
+     *            The word to remove. Must not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     * @throws UnsupportedOperationException
+     *             if the Trie can not remove words.
+     */
+    public default boolean remove(final String word)
+    {
+        throw (new UnsupportedOperationException("The Trie can not remove words."));
+    }
+    
     /**
      * Used to clear and reset the Trie.
      */
@@ -0,0 +1,525 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Stack;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie where each word is a key that holds a value. The
+ * value is held in the node at the end of the word, so a key is stored once
+ * and is found with one walk of the Trie. A word that is added with the
+ * add(String word) method holds a null value.
+ *
+ * The prefixMap( CharSequence prefix ) method returns a <code>Map</code> view
+ * of the keys that start with a prefix. The view is backed by the Trie and
+ * only visits the nodes below the prefix.
+ *
+ * The values are not written by the writeTo( OutputStream output ) method.
+ *
+ * @param <V>
+ *            The type of the values.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class TrieMap<V> extends LinkedHashMapTrie
+{
+
+    /**
+     * The node within a Tree that holds a <code>Character</code> and the value
+     * of the key that ends at the node.
+     *
+     * @param <V>
+     *            The type of the value.
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static class ValueNode<V> extends TrieNode
+    {
+        /*
+         * The value of the key that ends at this node.
+         */
+        private V _value;
+
+        /**
+         * @param tree
+         *            The tree that this node is part of.
+         * @param data
+         *            A <code>Character</code> instance.
+         */
+        protected ValueNode(final TrieMap<V> tree, final Character data)
+        {
+            super(tree, data);
+        }
+
+        /**
+         * Gets the value of the key that ends at this node.
+         *
+         * @return The value. Is null if this node is not the end of a key.
+         */
+        public V getValue()
+        {
+            return (this._value);
+        }
+    }
+
+    /*
+     * A Map.Entry that reads and writes the value of a node.
+     */
+    private static class ValueEntry<V> implements Map.Entry<String, V>
+    {
+        private final String       _key;
+        private final ValueNode<V> _node;
+
+        ValueEntry(final String key, final ValueNode<V> node)
+        {
+            this._key = key;
+            this._node = node;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return (this._key);
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (this._node._value);
+        }
+
+        @Override
+        public V setValue(final V value)
+        {
+            final V previous = this._node._value;
+            this._node._value = value;
+            return (previous);
+        }
+
+        @Override
+        public boolean equals(final Object object)
+        {
+            if (!(object instanceof Map.Entry))
+            {
+                return (false);
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+            final V value = this.getValue();
+            return (this._key.equals(entry.getKey())
+                    && (value == null ? entry.getValue() == null : value.equals(entry.getValue())));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            final V value = this.getValue();
+            return (this._key.hashCode() ^ (value == null ? 0 : value.hashCode()));
+        }
+
+        @Override
+        public String toString()
+        {
+            return (this._key + "=" + this.getValue());
+        }
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order and
+     * returns an entry for each key. It holds a stack of child iterators, one
+     * for each level, and the key that ends at the current node.
+     */
+    private static class EntryIterator<V> implements Iterator<Map.Entry<String, V>>
+    {
+        /*
+         * The child iterators of the nodes on the current path.
+         */
+        private final Stack<Iterator<Node<Character>>> _iterators;
+
+        /*
+         * The length of the key at the start node.
+         */
+        private final int                              _prefixLength;
+
+        /*
+         * The key that ends at the current node.
+         */
+        private final StringBuilder                    _key;
+
+        /*
+         * The next entry to return. Is null if it has not been found yet.
+         */
+        private Map.Entry<String, V>                   _next;
+
+        /*
+         * @param start The node to start from. May be null if there are not
+         * any keys.
+         *
+         * @param prefix The key that ends at the start node.
+         */
+        @SuppressWarnings("unchecked")
+        EntryIterator(final ValueNode<V> start, final String prefix)
+        {
+            this._iterators = new Stack<Iterator<Node<Character>>>();
+            this._prefixLength = prefix.length();
+            this._key = new StringBuilder(prefix);
+            if (start != null)
+            {
+                this._iterators.push(start.getChildIterator());
+                if (start.isWord())
+                {
+                    this._next = new ValueEntry<V>(prefix, start);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public Map.Entry<String, V> next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final Map.Entry<String, V> next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the nodes until the next key is found or all of the
+         * nodes were visited.
+         */
+        @SuppressWarnings("unchecked")
+        private void advance()
+        {
+            while (!this._iterators.isEmpty())
+            {
+                final Iterator<Node<Character>> iterator = this._iterators.peek();
+                if (iterator.hasNext())
+                {
+                    final ValueNode<V> child = (ValueNode<V>) iterator.next();
+                    this._key.setLength(this._prefixLength + this._iterators.size() - 1);
+                    this._key.append(child.getData().charValue());
+                    this._iterators.push(child.getChildIterator());
+                    if (child.isWord())
+                    {
+                        this._next = new ValueEntry<V>(this._key.toString(), child);
+                        return;
+                    }
+                }
+                else
+                {
+                    this._iterators.pop();
+                }
+            }
+        }
+    }
+
+    /*
+     * A live view of the keys that start with a prefix. The prefix is walked
+     * on each call so that the view sees the nodes that are added and removed
+     * after it was created.
+     */
+    private class PrefixMap extends AbstractMap<String, V>
+    {
+        /*
+         * The prefix that each key of the view starts with.
+         */
+        private final String _prefix;
+
+        PrefixMap(final String prefix)
+        {
+            this._prefix = prefix;
+        }
+
+        @Override
+        public V get(final Object key)
+        {
+            return (this.inRange(key) ? TrieMap.this.get((CharSequence) key) : null);
+        }
+
+        @Override
+        public boolean containsKey(final Object key)
+        {
+            return (this.inRange(key) && TrieMap.this.containsKey((CharSequence) key));
+        }
+
+        @Override
+        public V put(final String key, final V value)
+        {
+            if (!this.inRange(key))
+            {
+                throw (new IllegalArgumentException("The key '" + key + "' should start with '" + this._prefix
+                        + "'."));
+            }
+            return (TrieMap.this.put(key, value));
+        }
+
+        @Override
+        public V remove(final Object key)
+        {
+            if (!this.inRange(key))
+            {
+                return (null);
+            }
+            final ValueNode<V> node = TrieMap.this.findNode((CharSequence) key);
+            if (node == null || !node.isWord())
+            {
+                return (null);
+            }
+            final V previous = node._value;
+            TrieMap.this.remove(key.toString());
+            return (previous);
+        }
+
+        @Override
+        public void clear()
+        {
+            final List<String> keys = new ArrayList<String>(this.keySet());
+            for (final String key : keys)
+            {
+                TrieMap.this.remove(key);
+            }
+        }
+
+        @Override
+        public int size()
+        {
+            final ValueNode<V> node = TrieMap.this.findNode(this._prefix);
+            return (node == null ? 0 : node.getWordCount());
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return (this.size() == 0);
+        }
+
+        @Override
+        public Set<Map.Entry<String, V>> entrySet()
+        {
+            return (new AbstractSet<Map.Entry<String, V>>()
+            {
+                @Override
+                public Iterator<Map.Entry<String, V>> iterator()
+                {
+                    return (new EntryIterator<V>(TrieMap.this.findNode(PrefixMap.this._prefix),
+                            PrefixMap.this._prefix));
+                }
+
+                @Override
+                public int size()
+                {
+                    return (PrefixMap.this.size());
+                }
+            });
+        }
+
+        /*
+         * Determines if a key is a non-empty CharSequence that starts with
+         * the prefix.
+         */
+        private boolean inRange(final Object key)
+        {
+            if (!(key instanceof CharSequence))
+            {
+                return (false);
+            }
+            final CharSequence sequence = (CharSequence) key;
+            final int count = this._prefix.length();
+            if (sequence.length() == 0 || sequence.length() < count)
+            {
+                return (false);
+            }
+            for (int i = 0; i < count; ++i)
+            {
+                if (sequence.charAt(i) != this._prefix.charAt(i))
+                {
+                    return (false);
+                }
+            }
+            return (true);
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public TrieMap()
+    {
+        super();
+    }
+
+    /**
+     * Adds a key with a value. If the key is already in the Trie its value is
+     * replaced.
+     *
+     * @param key
+     *            A <code>String</code> instance. May not be null or empty.
+     * @param value
+     *            The value of the key. May be null.
+     * @return The previous value of the key, or null if the key was not in
+     *         the Trie.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final String key, final V value)
+    {
+        Validate.defineString(key).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final ValueNode<V> node = (ValueNode<V>) this.addWord(key, 0, key.length());
+        final V previous = node._value;
+        node._value = value;
+        return (previous);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return The value of the key, or null if the key is not in the Trie.
+     */
+    public V get(final CharSequence key)
+    {
+        Validate.defineObject(key).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final ValueNode<V> node = this.findNode(key);
+        return (node == null ? null : node._value);
+    }
+
+    /**
+     * Determines if a key is in the Trie.
+     *
+     * @param key
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     */
+    public boolean containsKey(final CharSequence key)
+    {
+        Validate.defineObject(key).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final ValueNode<V> node = this.findNode(key);
+        return (node != null && node.isWord());
+    }
+
+    /**
+     * Removes a key and its value from the Trie. Use the remove method of
+     * prefixMap( CharSequence prefix ) to get the value that was removed.
+     *
+     * @param key
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the key was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String key)
+    {
+        Validate.defineString(key).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        // the node may not be removed if it leads to other keys, so the value
+        // is cleared first.
+        final ValueNode<V> node = this.findNode(key);
+        if (node == null || !node.isWord())
+        {
+            return (false);
+        }
+        node._value = null;
+        return (super.remove(key));
+    }
+
+    /**
+     * Gets a view of the keys that start with a prefix and their values. The
+     * view is backed by the Trie, so a change to one is seen by the other. A
+     * key that is put in the view must start with the prefix.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix is a view of all of the keys.
+     * @return A <code>Map</code> instance.
+     */
+    public Map<String, V> prefixMap(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        return (new PrefixMap(prefix.toString()));
+    }
+
+    /*
+     * A node adds the reference to its value.
+     */
+    @Override
+    protected int getNodeStateBytes(final Node<Character> node)
+    {
+        return (super.getNodeStateBytes(node) + 4);
+    }
+
+    /*
+     * A factory helper method that creates the <code>Node</code>
+     * implementation.
+     *
+     * @return The <code>Node</code> instance that was created.
+     */
+    @Override
+    protected TrieNode createNode(final Character data)
+    {
+        assert (data != null) : "Not able to create Node.  The parameter 'data' should not be null.";
+        final ValueNode<V> node = new ValueNode<V>(this, data);
+        return (node);
+    }
+
+    /*
+     * Walks the characters of a key. Returns the node at the end of the key,
+     * which may not be the end of a key, or null if a character is not found.
+     * The root is returned for an empty key.
+     */
+    @SuppressWarnings("unchecked")
+    private ValueNode<V> findNode(final CharSequence key)
+    {
+        final int count = key.length();
+        Node<Character> node = this.getRoot();
+        for (int i = 0; i < count && node != null; ++i)
+        {
+            node = node.findChild(Characters.valueOf(key.charAt(i)));
+        }
+        return ((ValueNode<V>) node);
+    }
+}
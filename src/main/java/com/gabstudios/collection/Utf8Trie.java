@@ -0,0 +1,805 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie that holds the UTF-8 bytes of each word. A
+ * character outside the Basic Multilingual Plane is one code point and four
+ * bytes, not two surrogate characters, and a word can be found in a
+ * <code>byte[]</code> or a <code>ByteBuffer</code> without decoding it to a
+ * <code>String</code>.
+ *
+ * A <code>String</code> is encoded the same way as
+ * <code>String.getBytes( StandardCharsets.UTF_8 )</code>, so an unpaired
+ * surrogate is held as '?'. The words are returned in code point order.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class Utf8Trie implements Trie
+{
+
+    /**
+     * The node within a Utf8Trie. The node is reached by one byte.
+     *
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static class Utf8Node
+    {
+        /*
+         * The arrays of a node without children. Are shared by every leaf and
+         * replaced when the first child is added.
+         */
+        private static final byte[]     NO_KEYS     = new byte[0];
+        private static final Utf8Node[] NO_CHILDREN = new Utf8Node[0];
+
+        /*
+         * The byte of each child. Kept sorted as unsigned values so a child
+         * can be found with a binary search and the words are in code point
+         * order.
+         */
+        private byte[]     _keys;
+
+        /*
+         * The child nodes in the same order as the keys.
+         */
+        private Utf8Node[] _children;
+
+        /*
+         * The number of children.
+         */
+        private int        _childCount;
+
+        /*
+         * A flag to mark that the node is the end of a word.
+         */
+        private boolean    _isWord;
+
+        /**
+         * Constructor.
+         */
+        protected Utf8Node()
+        {
+            this._keys = NO_KEYS;
+            this._children = NO_CHILDREN;
+        }
+
+        /**
+         * A flag to determine if this node is the end of a word.
+         *
+         * @return A boolean value - true if it is the end of a word. Otherwise
+         *         it is false.
+         */
+        public boolean isWord()
+        {
+            return (this._isWord);
+        }
+
+        /**
+         * A method to determine if the node is a leaf. A node is a leaf if it
+         * does not have any children.
+         *
+         * @return A boolean value. Will return true if the node is a leaf,
+         *         otherwise it will be false.
+         */
+        public boolean isLeaf()
+        {
+            return (this._childCount == 0);
+        }
+
+        /*
+         * Gets the child for the unsigned byte. Returns null if there is not
+         * one.
+         */
+        Utf8Node getChild(final int key)
+        {
+            final int index = this.indexOf(key);
+            return (index < 0 ? null : this._children[index]);
+        }
+
+        /*
+         * Gets the child for the unsigned byte, adding it if it does not
+         * exist.
+         */
+        Utf8Node addChild(final int key)
+        {
+            int index = this.indexOf(key);
+            if (index >= 0)
+            {
+                return (this._children[index]);
+            }
+
+            index = -(index + 1);
+            if (this._childCount == this._keys.length)
+            {
+                final int capacity = Math.max(2, this._childCount << 1);
+                this._keys = Arrays.copyOf(this._keys, capacity);
+                this._children = Arrays.copyOf(this._children, capacity);
+            }
+            System.arraycopy(this._keys, index, this._keys, index + 1, this._childCount - index);
+            System.arraycopy(this._children, index, this._children, index + 1, this._childCount - index);
+            final Utf8Node child = new Utf8Node();
+            this._keys[index] = (byte) key;
+            this._children[index] = child;
+            ++this._childCount;
+            return (child);
+        }
+
+        /*
+         * Removes the child for the unsigned byte. The child must exist.
+         */
+        void removeChild(final int key)
+        {
+            final int index = this.indexOf(key);
+            assert (index >= 0) : "A child for the byte should exist.";
+            --this._childCount;
+            System.arraycopy(this._keys, index + 1, this._keys, index, this._childCount - index);
+            System.arraycopy(this._children, index + 1, this._children, index, this._childCount - index);
+            this._children[this._childCount] = null;
+            if (this._childCount == 0)
+            {
+                // a leaf goes back to the shared arrays.
+                this._keys = NO_KEYS;
+                this._children = NO_CHILDREN;
+            }
+        }
+
+        /*
+         * Finds the index of the unsigned byte. Returns -(insertion point + 1)
+         * if it is not found.
+         */
+        private int indexOf(final int key)
+        {
+            int low = 0;
+            int high = this._childCount - 1;
+            while (low <= high)
+            {
+                final int middle = (low + high) >>> 1;
+                final int value = this._keys[middle] & 0xFF;
+                if (value < key)
+                {
+                    low = middle + 1;
+                }
+                else if (value > key)
+                {
+                    high = middle - 1;
+                }
+                else
+                {
+                    return (middle);
+                }
+            }
+            return (-(low + 1));
+        }
+    }
+
+    /*
+     * An iterator that walks the nodes below a start node in order. It holds a
+     * stack of nodes, the next child to visit at each node and the bytes of
+     * the word at the current node.
+     */
+    private static class WordIterator implements Iterator<String>
+    {
+        /*
+         * The nodes on the current path.
+         */
+        private Utf8Node[] _nodes;
+
+        /*
+         * The index of the next child to visit at each node.
+         */
+        private int[]      _nextChildren;
+
+        /*
+         * The number of nodes on the current path.
+         */
+        private int        _size;
+
+        /*
+         * The number of bytes of the word at the start node.
+         */
+        private final int  _prefixLength;
+
+        /*
+         * The bytes of the word that ends at the current node.
+         */
+        private byte[]     _word;
+
+        /*
+         * The next word to return. Is null if it has not been found yet.
+         */
+        private String     _next;
+
+        /*
+         * @param start The node to start from.
+         *
+         * @param prefix The bytes of the word that ends at the start node.
+         *
+         * @param prefixLength The number of bytes of the prefix.
+         */
+        WordIterator(final Utf8Node start, final byte[] prefix, final int prefixLength)
+        {
+            this._nodes = new Utf8Node[16];
+            this._nextChildren = new int[16];
+            this._nodes[0] = start;
+            this._size = 1;
+            this._prefixLength = prefixLength;
+            this._word = Arrays.copyOf(prefix, Math.max(16, prefixLength << 1));
+            if (start._isWord)
+            {
+                this._next = new String(this._word, 0, prefixLength, StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (this._next == null)
+            {
+                this.advance();
+            }
+            return (this._next != null);
+        }
+
+        @Override
+        public String next()
+        {
+            if (!this.hasNext())
+            {
+                throw (new NoSuchElementException("There are no more words."));
+            }
+            final String next = this._next;
+            this._next = null;
+            return (next);
+        }
+
+        /*
+         * Walks down the nodes until the next word is found or all of the
+         * nodes were visited.
+         */
+        private void advance()
+        {
+            while (this._size > 0)
+            {
+                final int top = this._size - 1;
+                final Utf8Node node = this._nodes[top];
+                if (this._nextChildren[top] < node._childCount)
+                {
+                    final int index = this._nextChildren[top];
+                    ++this._nextChildren[top];
+
+                    final int length = this._prefixLength + top;
+                    if (length == this._word.length)
+                    {
+                        this._word = Arrays.copyOf(this._word, length << 1);
+                    }
+                    this._word[length] = node._keys[index];
+
+                    final Utf8Node child = node._children[index];
+                    if (this._size == this._nodes.length)
+                    {
+                        this._nodes = Arrays.copyOf(this._nodes, this._size << 1);
+                        this._nextChildren = Arrays.copyOf(this._nextChildren, this._size << 1);
+                    }
+                    this._nodes[this._size] = child;
+                    this._nextChildren[this._size] = 0;
+                    ++this._size;
+                    if (child._isWord)
+                    {
+                        this._next = new String(this._word, 0, length + 1, StandardCharsets.UTF_8);
+                        return;
+                    }
+                }
+                else
+                {
+                    this._nodes[top] = null;
+                    --this._size;
+                }
+            }
+        }
+    }
+
+    /*
+     * The first byte of an encoded code point by its length in bytes.
+     */
+    private static final int[] LEADING_BYTES = { 0x00, 0x00, 0xC0, 0xE0, 0xF0 };
+
+    /*
+     * The root of the Trie.
+     */
+    private Utf8Node           _root;
+
+    /*
+     * The number of words in the Trie.
+     */
+    private int                _size;
+
+    /**
+     * Constructor.
+     */
+    public Utf8Trie()
+    {
+        this._root = new Utf8Node();
+    }
+
+    /**
+     * Used to clear and reset the Trie.
+     */
+    @Override
+    public void clear()
+    {
+        this._root = new Utf8Node();
+        this._size = 0;
+    }
+
+    /**
+     * Gets the root of the Trie.
+     *
+     * @return The root <code>Utf8Node</code> instance.
+     */
+    public Utf8Node getRoot()
+    {
+        return (this._root);
+    }
+
+    /**
+     * Gets the number of nodes including the root. There is one node for each
+     * byte.
+     *
+     * @return An integer value from 1 to n.
+     */
+    public int getNodeCount()
+    {
+        int count = 0;
+        Utf8Node[] stack = new Utf8Node[16];
+        stack[0] = this._root;
+        int size = 1;
+        while (size > 0)
+        {
+            final Utf8Node node = stack[--size];
+            ++count;
+            for (int i = 0; i < node._childCount; ++i)
+            {
+                if (size == stack.length)
+                {
+                    stack = Arrays.copyOf(stack, size << 1);
+                }
+                stack[size++] = node._children[i];
+            }
+        }
+        return (count);
+    }
+
+    /**
+     * Add a word to the Trie.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+        this.addWord(word, 0, word.length());
+    }
+
+    /**
+     * Add a range of characters as a word. Only a null check is done, and the
+     * characters are encoded as they are walked, so adding a word that is
+     * already in the Trie does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+        this.addWord(word, start, end);
+    }
+
+    /**
+     * Add the UTF-8 bytes of a word. The bytes are not checked, so they must
+     * be valid UTF-8 or the word is returned with replacement characters.
+     *
+     * @param bytes
+     *            A <code>byte[]</code> instance. May not be null.
+     * @param offset
+     *            The index of the first byte of the word.
+     * @param length
+     *            The number of bytes of the word. Must be more than 0.
+     */
+    public void add(final byte[] bytes, final int offset, final int length)
+    {
+        checkRange(bytes, offset, length);
+        if (length == 0)
+        {
+            throw (new IllegalArgumentException("The word should not be empty."));
+        }
+
+        Utf8Node node = this._root;
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i)
+        {
+            node = node.addChild(bytes[i] & 0xFF);
+        }
+        this.markWord(node);
+    }
+
+    /**
+     * Removes a word from the Trie. The nodes that no longer lead to a word
+     * are removed, up to the nearest node that is a word or has another
+     * child.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        final Utf8Node[] path = new Utf8Node[bytes.length + 1];
+        path[0] = this._root;
+        for (int i = 0; i < bytes.length; ++i)
+        {
+            path[i + 1] = path[i].getChild(bytes[i] & 0xFF);
+            if (path[i + 1] == null)
+            {
+                return (false);
+            }
+        }
+        if (!path[bytes.length]._isWord)
+        {
+            return (false);
+        }
+
+        path[bytes.length]._isWord = false;
+        --this._size;
+        for (int i = bytes.length; i > 0 && path[i].isLeaf() && !path[i]._isWord; --i)
+        {
+            path[i - 1].removeChild(bytes[i - 1] & 0xFF);
+        }
+        return (true);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.gabstudios.collection.Trie#contains(java.lang.String)
+     */
+    @Override
+    public boolean contains(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final Utf8Node node = this.walk(word, 0, word.length());
+        return (node != null && node._isWord);
+    }
+
+    /**
+     * Determines if a range of characters is a word in the Trie. Only a null
+     * check is done, and the characters are encoded as they are walked, so
+     * the lookup does not allocate.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty range is not found.
+     */
+    @Override
+    public boolean contains(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        if (start == end)
+        {
+            return (false);
+        }
+        final Utf8Node node = this.walk(word, start, end);
+        return (node != null && node._isWord);
+    }
+
+    /**
+     * Determines if the UTF-8 bytes are a word in the Trie. The bytes are not
+     * decoded.
+     *
+     * @param bytes
+     *            A <code>byte[]</code> instance. May not be null.
+     * @param offset
+     *            The index of the first byte of the word.
+     * @param length
+     *            The number of bytes of the word.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty word is not found.
+     */
+    public boolean contains(final byte[] bytes, final int offset, final int length)
+    {
+        checkRange(bytes, offset, length);
+
+        Utf8Node node = this._root;
+        final int end = offset + length;
+        for (int i = offset; i < end && node != null; ++i)
+        {
+            node = node.getChild(bytes[i] & 0xFF);
+        }
+        return (length > 0 && node != null && node._isWord);
+    }
+
+    /**
+     * Determines if the remaining UTF-8 bytes of a buffer are a word in the
+     * Trie. The bytes are not decoded and the position of the buffer is not
+     * changed.
+     *
+     * @param buffer
+     *            A <code>ByteBuffer</code> instance. May not be null.
+     * @return A boolean value of true if it is found, otherwise it is false.
+     *         An empty word is not found.
+     */
+    public boolean contains(final ByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            throw (new IllegalArgumentException("The parameter 'buffer' should not be null."));
+        }
+
+        Utf8Node node = this._root;
+        final int end = buffer.limit();
+        for (int i = buffer.position(); i < end && node != null; ++i)
+        {
+            node = node.getChild(buffer.get(i) & 0xFF);
+        }
+        return (buffer.hasRemaining() && node != null && node._isWord);
+    }
+
+    /**
+     * Gets the number of words in the Trie.
+     *
+     * @return An int value of 0 or more.
+     */
+    @Override
+    public int size()
+    {
+        return (this._size);
+    }
+
+    /**
+     * Gets all of the words that were added.
+     *
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords()
+    {
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords("");
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets words based on a prefix. The bytes of the prefix are walked as far
+     * as they match and the words below the last matching byte are returned.
+     *
+     * @param prefix
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A <code>List</code> instance containing zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public List<String> getWords(final String prefix)
+    {
+        Validate.defineString(prefix).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final LinkedList<String> data = new LinkedList<String>();
+        final Iterator<String> iterator = this.iterateWords(prefix);
+        while (iterator.hasNext())
+        {
+            data.add(iterator.next());
+        }
+        return (data);
+    }
+
+    /**
+     * Gets an iterator over the words based on a prefix. The words are found
+     * as the iterator is advanced.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null. An
+     *            empty prefix iterates all words.
+     * @return An <code>Iterator</code> instance over zero to many
+     *         <code>String</code> instances.
+     */
+    @Override
+    public Iterator<String> iterateWords(final CharSequence prefix)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+
+        final byte[] bytes = prefix.toString().getBytes(StandardCharsets.UTF_8);
+        int length = 0;
+        Utf8Node node = this._root;
+        while (length < bytes.length)
+        {
+            final Utf8Node child = node.getChild(bytes[length] & 0xFF);
+            if (child == null)
+            {
+                // if the byte is not found. STOP.
+                break;
+            }
+            node = child;
+            ++length;
+        }
+        return (new WordIterator(node, bytes, length));
+    }
+
+    /*
+     * Adds the nodes for the encoded characters of a word from start to end
+     * and marks the last node as the end of a word.
+     */
+    private void addWord(final CharSequence word, final int start, final int end)
+    {
+        Utf8Node node = this._root;
+        int i = start;
+        while (i < end)
+        {
+            final int codePoint = codePointAt(word, i, end);
+            i += (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT ? 2 : 1);
+            final int length = encodedLength(codePoint);
+            for (int index = 0; index < length; ++index)
+            {
+                node = node.addChild(encodedByte(codePoint, length, index));
+            }
+        }
+        this.markWord(node);
+    }
+
+    /*
+     * Walks the encoded characters of a word from start to end. Returns the
+     * node that was reached or null if a byte is not found.
+     */
+    private Utf8Node walk(final CharSequence word, final int start, final int end)
+    {
+        Utf8Node node = this._root;
+        int i = start;
+        while (i < end)
+        {
+            final int codePoint = codePointAt(word, i, end);
+            i += (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT ? 2 : 1);
+            final int length = encodedLength(codePoint);
+            for (int index = 0; index < length; ++index)
+            {
+                node = node.getChild(encodedByte(codePoint, length, index));
+                if (node == null)
+                {
+                    // if the byte is not found. STOP.
+                    return (null);
+                }
+            }
+        }
+        return (node);
+    }
+
+    /*
+     * Marks a node as the end of a word and counts the word the first time.
+     */
+    private void markWord(final Utf8Node node)
+    {
+        if (!node._isWord)
+        {
+            node._isWord = true;
+            ++this._size;
+        }
+    }
+
+    /*
+     * Gets the code point at an index. A surrogate pair is one code point and
+     * an unpaired surrogate is '?', the same as the UTF-8 encoder of a String.
+     */
+    private static int codePointAt(final CharSequence word, final int index, final int end)
+    {
+        final char character = word.charAt(index);
+        if (Character.isHighSurrogate(character) && index + 1 < end)
+        {
+            final char low = word.charAt(index + 1);
+            if (Character.isLowSurrogate(low))
+            {
+                return (Character.toCodePoint(character, low));
+            }
+        }
+        return (Character.isSurrogate(character) ? '?' : character);
+    }
+
+    /*
+     * Gets the number of UTF-8 bytes of a code point.
+     */
+    private static int encodedLength(final int codePoint)
+    {
+        if (codePoint < 0x80)
+        {
+            return (1);
+        }
+        if (codePoint < 0x800)
+        {
+            return (2);
+        }
+        return (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT ? 3 : 4);
+    }
+
+    /*
+     * Gets one UTF-8 byte of a code point, as an unsigned value.
+     */
+    private static int encodedByte(final int codePoint, final int length, final int index)
+    {
+        if (length == 1)
+        {
+            return (codePoint);
+        }
+        final int shift = 6 * (length - 1 - index);
+        return (index == 0 ? LEADING_BYTES[length] | (codePoint >> shift) : 0x80 | ((codePoint >> shift) & 0x3F));
+    }
+
+    /*
+     * Checks that the range is within the bytes without the fluent validator.
+     */
+    private static void checkRange(final byte[] bytes, final int offset, final int length)
+    {
+        if (bytes == null)
+        {
+            throw (new IllegalArgumentException("The parameter 'bytes' should not be null."));
+        }
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+        {
+            throw (new IndexOutOfBoundsException("The range " + offset + " to " + (offset + length)
+                    + " is not within the length " + bytes.length + "."));
+        }
+    }
+}
@@ -0,0 +1,563 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Stack;
+
+import com.gabstudios.validate.Validate;
+
+
+/**
+ * An implementation of a Trie where each word has a score. Each node holds the
+ * best score of the words below it, so the words with the best scores for a
+ * prefix can be found with the topK( CharSequence prefix, int k ) method
+ * without visiting the subtrees that can not have a better word.
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class WeightedLinkedHashMapTrie extends LinkedHashMapTrie
+{
+
+    /**
+     * The node within a Tree that holds a <code>Character</code>, the score of
+     * the word that ends at the node and the best score below the node.
+     *
+     *
+     * @author Gregory Brown (sysdevone)
+     *
+     */
+    public static class WeightedTrieNode extends TrieNode
+    {
+        /*
+         * The score of the word that ends at this node.
+         */
+        private long _score;
+
+        /*
+         * The best score of the words at or below this node.
+         */
+        private long _bestScore;
+
+        /**
+         * @param tree
+         *            The tree that this node is part of.
+         * @param data
+         *            A <code>Character</code> instance.
+         */
+        protected WeightedTrieNode(final WeightedLinkedHashMapTrie tree, final Character data)
+        {
+            super(tree, data);
+            this._bestScore = Long.MIN_VALUE;
+        }
+
+        /**
+         * Gets the score of the word that ends at this node.
+         *
+         * @return A long value. Is 0 if this node is not the end of a word.
+         */
+        public long getScore()
+        {
+            return (this._score);
+        }
+
+        /**
+         * Gets the best score of the words at or below this node.
+         *
+         * @return A long value. Is <code>Long.MIN_VALUE</code> if there are not
+         *         any words.
+         */
+        public long getBestScore()
+        {
+            return (this._bestScore);
+        }
+
+        /*
+         * Computes the best score from the word at this node and the best
+         * score of each child.
+         */
+        private long computeBestScore()
+        {
+            long best = (this.isWord() ? this._score : Long.MIN_VALUE);
+            final Iterator<Node<Character>> iterator = this.getChildIterator();
+            while (iterator.hasNext())
+            {
+                best = Math.max(best, ((WeightedTrieNode) iterator.next())._bestScore);
+            }
+            return (best);
+        }
+    }
+
+    /*
+     * An entry in the search queue. It is either a subtree whose best score is
+     * known, or a word whose score is known.
+     */
+    private static class Candidate
+    {
+        private final WeightedTrieNode _node;
+        private final String           _word;
+        private final long             _score;
+        private final boolean          _isWord;
+
+        Candidate(final WeightedTrieNode node, final String word, final long score, final boolean isWord)
+        {
+            this._node = node;
+            this._word = word;
+            this._score = score;
+            this._isWord = isWord;
+        }
+    }
+
+    /*
+     * The candidates of a search, held worst first so the best one is taken
+     * from the end. Each candidate has at least one word with its score and
+     * the candidates do not share words, so a candidate that is worse than as
+     * many others as the words that are still needed is dropped.
+     */
+    private static class CandidateList
+    {
+        private Candidate[] _candidates;
+        private int         _size;
+
+        CandidateList(final int capacity)
+        {
+            this._candidates = new Candidate[capacity];
+        }
+
+        boolean isEmpty()
+        {
+            return (this._size == 0);
+        }
+
+        /*
+         * Removes and returns the best candidate.
+         */
+        Candidate pollBest()
+        {
+            --this._size;
+            final Candidate best = this._candidates[this._size];
+            this._candidates[this._size] = null;
+            return (best);
+        }
+
+        /*
+         * Determines if a candidate with a score would be kept, so a candidate
+         * that would be dropped is not created.
+         */
+        boolean isKept(final long score, final boolean isWord, final int limit)
+        {
+            if (this._size < limit)
+            {
+                return (true);
+            }
+            final Candidate worst = this._candidates[0];
+            return (score > worst._score || (score == worst._score && isWord && !worst._isWord));
+        }
+
+        /*
+         * Adds a candidate if it is one of the best limit candidates. The worst
+         * candidate is dropped when the list holds limit candidates.
+         */
+        void offer(final Candidate candidate, final int limit)
+        {
+            int low = 0;
+            int high = this._size;
+            while (low < high)
+            {
+                final int middle = (low + high) >>> 1;
+                if (BEST_FIRST.compare(candidate, this._candidates[middle]) < 0)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            if (this._size >= limit)
+            {
+                if (low == 0)
+                {
+                    // it is not better than any of the candidates.
+                    return;
+                }
+                System.arraycopy(this._candidates, 1, this._candidates, 0, low - 1);
+                this._candidates[low - 1] = candidate;
+                return;
+            }
+
+            if (this._size == this._candidates.length)
+            {
+                this._candidates = Arrays.copyOf(this._candidates, this._size << 1);
+            }
+            System.arraycopy(this._candidates, low, this._candidates, low + 1, this._size - low);
+            this._candidates[low] = candidate;
+            ++this._size;
+        }
+    }
+
+    /*
+     * Orders candidates by the best score first. A word comes before a
+     * subtree with the same score so that it is returned without expanding
+     * the subtree.
+     */
+    private static final Comparator<Candidate> BEST_FIRST = new Comparator<Candidate>()
+    {
+        @Override
+        public int compare(final Candidate first, final Candidate second)
+        {
+            int compare = Long.compare(second._score, first._score);
+            if (compare == 0)
+            {
+                compare = Boolean.compare(second._isWord, first._isWord);
+            }
+            return (compare);
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * The root is the '*' character.
+     */
+    public WeightedLinkedHashMapTrie()
+    {
+        super();
+    }
+
+    /**
+     * Used to clear and reset the Trie.
+     */
+    @Override
+    public void clear()
+    {
+        super.clear();
+        ((WeightedTrieNode) this.getRoot())._bestScore = Long.MIN_VALUE;
+    }
+
+    /**
+     * Add a word with a score of 0. If the word was already added its score is
+     * set to 0.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     */
+    @Override
+    public void add(final String word)
+    {
+        this.add(word, 0L);
+    }
+
+    /**
+     * Add a range of characters as a word with a score of 0.
+     *
+     * @param word
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param start
+     *            The index of the first character of the word.
+     * @param end
+     *            The index after the last character of the word. Must be more
+     *            than start.
+     */
+    @Override
+    public void add(final CharSequence word, final int start, final int end)
+    {
+        Characters.checkRange(word, start, end);
+        this.add(word.subSequence(start, end).toString(), 0L);
+    }
+
+    /**
+     * Adds a batch of words with a score of 0. Each word is added with
+     * add( String word ) so that the best scores are kept.
+     *
+     * @param words
+     *            A <code>Collection</code> instance. May not be null. Each
+     *            word may not be null or empty.
+     */
+    @Override
+    public void addAll(final Collection<String> words)
+    {
+        Validate.defineObject(words).testNotNull().throwValidationExceptionOnFail().validate();
+
+        for (final String word : words)
+        {
+            this.add(word);
+        }
+    }
+
+    /**
+     * Add a word with a score. If the word was already added its score is
+     * replaced.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @param score
+     *            The score of the word. A higher score is a better word.
+     */
+    public void add(final String word, final long score)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final WeightedTrieNode last = (WeightedTrieNode) this.addWord(word, 0, word.length());
+        final long oldScore = last._score;
+        last._score = score;
+
+        WeightedTrieNode node = last;
+        if (score >= oldScore || node._bestScore < score)
+        {
+            // a better score only needs to be carried up until a node already
+            // has a score that is as good.
+            while (node != null && node._bestScore < score)
+            {
+                node._bestScore = score;
+                node = (WeightedTrieNode) node.getParent();
+            }
+        }
+        else
+        {
+            // a lower score may lower the best score of the nodes above.
+            while (node != null)
+            {
+                final long best = node.computeBestScore();
+                if (best == node._bestScore)
+                {
+                    break;
+                }
+                node._bestScore = best;
+                node = (WeightedTrieNode) node.getParent();
+            }
+        }
+    }
+
+    /**
+     * Removes a word from the Trie. The best scores of the nodes above the
+     * word are computed again.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return A boolean value of true if the word was removed, or false if it
+     *         was not in the Trie.
+     */
+    @Override
+    public boolean remove(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        WeightedTrieNode node = (WeightedTrieNode) this.removeWord(word);
+        if (node == null)
+        {
+            return (false);
+        }
+        if (!node.isWord())
+        {
+            // the node of the word is kept when longer words use it, so it
+            // loses its score.
+            node._score = 0L;
+        }
+
+        // the removed score may have been the best score of the nodes above.
+        while (node != null)
+        {
+            final long best = node.computeBestScore();
+            if (best == node._bestScore)
+            {
+                break;
+            }
+            node._bestScore = best;
+            node = (WeightedTrieNode) node.getParent();
+        }
+        return (true);
+    }
+
+    /**
+     * Gets the score of a word.
+     *
+     * @param word
+     *            A <code>String</code> instance. May not be null or empty.
+     * @return The score of the word, or 0 if the word was not added.
+     */
+    public long getScore(final String word)
+    {
+        Validate.defineString(word).testNotNullEmpty().throwValidationExceptionOnFail().validate();
+
+        final StringBuilder prefixWord = new StringBuilder();
+        final WeightedTrieNode node = (WeightedTrieNode) this.walkPrefix(word, prefixWord);
+        return (prefixWord.length() == word.length() && node.isWord() ? node._score : 0L);
+    }
+
+    /**
+     * Gets the words with the best scores based on a prefix. The prefix is
+     * walked the same way as getWords( String prefix ). The subtrees are
+     * visited best score first, and at most k candidates are kept, so only the
+     * nodes on the way to the returned words are expanded and a child is only
+     * kept when its best score can still be returned.
+     *
+     * @param prefix
+     *            A <code>CharSequence</code> instance. May not be null.
+     * @param k
+     *            The maximum number of words to return. Must be 0 or more.
+     * @return A <code>List</code> instance containing zero to k
+     *         <code>String</code> instances, best score first.
+     */
+    public List<String> topK(final CharSequence prefix, final int k)
+    {
+        Validate.defineObject(prefix).testNotNull().throwValidationExceptionOnFail().validate();
+        if (k < 0)
+        {
+            throw (new IllegalArgumentException("The parameter 'k' should not be negative."));
+        }
+
+        final List<String> data = new ArrayList<String>(Math.min(k, 16));
+        final StringBuilder prefixWord = new StringBuilder();
+        final WeightedTrieNode start = (WeightedTrieNode) this.walkPrefix(prefix, prefixWord);
+        if (k == 0 || (start._bestScore == Long.MIN_VALUE && !start.isWord()))
+        {
+            return (data);
+        }
+
+        final CandidateList candidates = new CandidateList(Math.min(k, 16));
+        candidates.offer(new Candidate(start, prefixWord.toString(), start._bestScore, false), k);
+        while (!candidates.isEmpty() && data.size() < k)
+        {
+            final Candidate candidate = candidates.pollBest();
+            if (candidate._isWord)
+            {
+                data.add(candidate._word);
+                continue;
+            }
+
+            final int limit = k - data.size();
+            final WeightedTrieNode node = candidate._node;
+            if (node.isWord())
+            {
+                candidates.offer(new Candidate(node, candidate._word, node._score, true), limit);
+            }
+            final Iterator<Node<Character>> iterator = node.getChildIterator();
+            while (iterator.hasNext())
+            {
+                final WeightedTrieNode childNode = (WeightedTrieNode) iterator.next();
+                if (candidates.isKept(childNode._bestScore, false, limit))
+                {
+                    candidates.offer(new Candidate(childNode, candidate._word + childNode.getData(),
+                            childNode._bestScore, false), limit);
+                }
+            }
+        }
+        return (data);
+    }
+
+    /*
+     * The scores are written with the word flags.
+     */
+    @Override
+    protected String getStreamFormat()
+    {
+        return ("weighted-trie");
+    }
+
+    /*
+     * The scores are read with the words, so compute the best scores in post
+     * order, so each child is done before its parent.
+     */
+    @Override
+    protected void finishRead(final Node<Character> root)
+    {
+        super.finishRead(root);
+
+        final Stack<WeightedTrieNode> nodes = new Stack<WeightedTrieNode>();
+        final Stack<Iterator<Node<Character>>> stack = new Stack<Iterator<Node<Character>>>();
+        nodes.push((WeightedTrieNode) root);
+        stack.push(root.getChildIterator());
+        while (!stack.isEmpty())
+        {
+            final Iterator<Node<Character>> iterator = stack.peek();
+            if (iterator.hasNext())
+            {
+                final WeightedTrieNode child = (WeightedTrieNode) iterator.next();
+                nodes.push(child);
+                stack.push(child.getChildIterator());
+            }
+            else
+            {
+                stack.pop();
+                final WeightedTrieNode node = nodes.pop();
+                node._bestScore = node.computeBestScore();
+            }
+        }
+    }
+
+    /*
+     * Writes the word flag and the score of a node.
+     */
+    @Override
+    protected void writeNodeState(final DataOutput output, final Node<Character> node) throws IOException
+    {
+        super.writeNodeState(output, node);
+        final WeightedTrieNode weightedNode = (WeightedTrieNode) node;
+        if (weightedNode.isWord())
+        {
+            output.writeLong(weightedNode._score);
+        }
+    }
+
+    /*
+     * Reads the word flag and the score of a node.
+     */
+    @Override
+    protected void readNodeState(final DataInput input, final Node<Character> node) throws IOException
+    {
+        super.readNodeState(input, node);
+        final WeightedTrieNode weightedNode = (WeightedTrieNode) node;
+        weightedNode._score = (weightedNode.isWord() ? input.readLong() : 0L);
+    }
+
+    /*
+     * A node adds its score and best score.
+     */
+    @Override
+    protected int getNodeStateBytes(final Node<Character> node)
+    {
+        return (super.getNodeStateBytes(node) + 16);
+    }
+
+    /*
+     * A factory helper method that creates the <code>Node</code>
+     * implementation.
+     *
+     * @return The <code>Node</code> instance that was created.
+     */
+    @Override
+    protected TrieNode createNode(final Character data)
+    {
+        assert (data != null) : "Not able to create Node.  The parameter 'data' should not be null.";
+        final WeightedTrieNode node = new WeightedTrieNode(this, data);
+        return (node);
+    }
+}
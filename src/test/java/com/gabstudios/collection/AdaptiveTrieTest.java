@@ -0,0 +1,188 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class AdaptiveTrieTest
+{
+
+    @Test
+    public void testGetWordsWithParamter()
+    {
+        AdaptiveTrie trie = new AdaptiveTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertTrue(words.contains("hello"));
+        org.junit.Assert.assertTrue(words.contains("helloworld"));
+        org.junit.Assert.assertEquals(2, words.size());
+    }
+
+    @Test
+    public void testContains()
+    {
+        AdaptiveTrie trie = new AdaptiveTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("he"));
+        org.junit.Assert.assertFalse(trie.contains("hellow"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+        org.junit.Assert.assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void testClear()
+    {
+        AdaptiveTrie trie = new AdaptiveTrie();
+        trie.add("helloworld");
+        trie.add("world");
+
+        trie.clear();
+
+        org.junit.Assert.assertFalse(trie.contains("world"));
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        org.junit.Assert.assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void testNodesAdapt()
+    {
+        AdaptiveTrie trie = new AdaptiveTrie();
+        final AdaptiveTrie.AdaptiveNode root = trie.getRoot();
+        final int[] capacities = { 4, 4, 4, 4, 16 };
+        for (int i = 0; i < capacities.length; ++i)
+        {
+            trie.add(String.valueOf((char) ('a' + i)));
+            org.junit.Assert.assertEquals(capacities[i], root.getCapacity());
+        }
+        for (int i = capacities.length; i < 17; ++i)
+        {
+            trie.add(String.valueOf((char) ('a' + i)));
+        }
+        org.junit.Assert.assertEquals(48, root.getCapacity());
+        for (int i = 0; i < 32; ++i)
+        {
+            trie.add(String.valueOf((char) ('A' + i)));
+        }
+        org.junit.Assert.assertEquals(256, root.getCapacity());
+        org.junit.Assert.assertEquals(49, root.getChildCount());
+
+        // a character on another page moves the children to sorted keys.
+        trie.add("\u4e2d");
+        org.junit.Assert.assertEquals(50, root.getChildCount());
+        org.junit.Assert.assertTrue(root.getCapacity() >= 50 && root.getCapacity() < 256);
+        org.junit.Assert.assertTrue(trie.contains("\u4e2d"));
+        org.junit.Assert.assertTrue(trie.contains("a"));
+
+        final List<String> words = trie.getWords();
+        org.junit.Assert.assertEquals(new ArrayList<String>(new TreeSet<String>(words)), words);
+    }
+
+    @Test
+    public void testRemove()
+    {
+        AdaptiveTrie trie = new AdaptiveTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+
+        org.junit.Assert.assertTrue(trie.remove("helloworld"));
+        org.junit.Assert.assertFalse(trie.remove("helloworld"));
+        org.junit.Assert.assertFalse(trie.remove("hell"));
+        // root, "h", "e", "l", "l", "o", "y"
+        org.junit.Assert.assertEquals(7, trie.getNodeCount());
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertTrue(trie.remove("hey"));
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        org.junit.Assert.assertTrue(trie.getRoot().isLeaf());
+    }
+
+    @Test
+    public void testSameAsSet()
+    {
+        final Random random = new Random(17);
+        final AdaptiveTrie trie = new AdaptiveTrie();
+        final Set<String> expected = new HashSet<String>();
+        for (int i = 0; i < 20000; ++i)
+        {
+            final String word = randomWord(random);
+            if (random.nextInt(3) == 0)
+            {
+                org.junit.Assert.assertEquals(word, expected.remove(word), trie.remove(word));
+            }
+            else
+            {
+                org.junit.Assert.assertEquals(word, expected.add(word), !trie.contains(word));
+                trie.add(word);
+            }
+        }
+        org.junit.Assert.assertEquals(expected.size(), trie.size());
+        org.junit.Assert.assertEquals(new ArrayList<String>(new TreeSet<String>(expected)), trie.getWords());
+        for (final String word : expected)
+        {
+            org.junit.Assert.assertTrue(word, trie.remove(word));
+        }
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+    }
+
+    private static String randomWord(final Random random)
+    {
+        // mostly one page, with a few characters from other pages.
+        final StringBuilder word = new StringBuilder();
+        final int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; ++i)
+        {
+            final int kind = random.nextInt(20);
+            if (kind == 0)
+            {
+                word.append((char) (0x400 + random.nextInt(300)));
+            }
+            else
+            {
+                word.append((char) (' ' + random.nextInt(90)));
+            }
+        }
+        return (word.toString());
+    }
+}
@@ -0,0 +1,158 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class AhoCorasickTest
+{
+
+    /*
+     * Collects the matches as "start:end:word".
+     */
+    private static class Collector implements AhoCorasick.MatchListener
+    {
+        private final List<String> _matches = new ArrayList<String>();
+
+        @Override
+        public void onMatch(final long start, final long end, final String word)
+        {
+            this._matches.add(start + ":" + end + ":" + word);
+        }
+    }
+
+    @Test
+    public void testMatch()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("he");
+        trie.add("she");
+        trie.add("his");
+        trie.add("hers");
+
+        final AhoCorasick automaton = AhoCorasick.compile(trie);
+        org.junit.Assert.assertEquals(4, automaton.getWordCount());
+
+        final Collector collector = new Collector();
+        automaton.match("ushers", collector);
+        final List<String> expected = new ArrayList<String>();
+        expected.add("1:4:she");
+        expected.add("2:4:he");
+        expected.add("2:6:hers");
+        org.junit.Assert.assertEquals(expected, collector._matches);
+    }
+
+    @Test
+    public void testReaderAndCharBuffer() throws IOException
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("ab");
+        trie.add("b");
+        trie.add("bab");
+
+        final AhoCorasick automaton = AhoCorasick.compile(trie);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; ++i)
+        {
+            text.append("abab c");
+        }
+
+        final Collector expected = new Collector();
+        automaton.match(text, expected);
+
+        final Collector reader = new Collector();
+        automaton.match(new StringReader(text.toString()), reader);
+        org.junit.Assert.assertEquals(expected._matches, reader._matches);
+
+        final CharBuffer buffer = CharBuffer.wrap("xx" + text);
+        buffer.position(2);
+        final Collector charBuffer = new Collector();
+        automaton.match(buffer, charBuffer);
+        org.junit.Assert.assertEquals(expected._matches, charBuffer._matches);
+        org.junit.Assert.assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void testEmptyTrie()
+    {
+        final AhoCorasick automaton = AhoCorasick.compile(new LinkedHashMapTrie());
+        final Collector collector = new Collector();
+        automaton.match("hello", collector);
+        org.junit.Assert.assertEquals(0, collector._matches.size());
+        org.junit.Assert.assertEquals(1, automaton.getStateCount());
+    }
+
+    @Test
+    public void testSameAsContains()
+    {
+        final Random random = new Random(5);
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        for (int i = 0; i < 300; ++i)
+        {
+            trie.add(randomWord(random, 1 + random.nextInt(5)));
+        }
+        final String text = randomWord(random, 2000);
+
+        final Set<String> expected = new HashSet<String>();
+        for (int start = 0; start < text.length(); ++start)
+        {
+            for (int end = start + 1; end <= Math.min(text.length(), start + 5); ++end)
+            {
+                final String word = text.substring(start, end);
+                if (trie.contains(word))
+                {
+                    expected.add(start + ":" + end + ":" + word);
+                }
+            }
+        }
+
+        final Collector collector = new Collector();
+        AhoCorasick.compile(trie).match(text, collector);
+        org.junit.Assert.assertEquals(expected.size(), collector._matches.size());
+        org.junit.Assert.assertEquals(expected, new HashSet<String>(collector._matches));
+    }
+
+    private static String randomWord(final Random random, final int count)
+    {
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; ++i)
+        {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return (word.toString());
+    }
+}
@@ -0,0 +1,189 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class CachingTrieTest
+{
+
+    @Test
+    public void testHitsAndMisses()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 10);
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+
+        final List<String> first = trie.getWords("hell");
+        final List<String> second = trie.getWords("hell");
+        org.junit.Assert.assertSame(first, second);
+        org.junit.Assert.assertEquals(2, first.size());
+        org.junit.Assert.assertEquals(1, trie.getHitCount());
+        org.junit.Assert.assertEquals(1, trie.getMissCount());
+        org.junit.Assert.assertEquals(3, trie.getWords().size());
+        org.junit.Assert.assertEquals(2, trie.getMissCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testWordsCanNotChange()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 10);
+        trie.add("hello");
+        trie.getWords("he").add("world");
+    }
+
+    @Test
+    public void testEviction()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 2);
+        trie.add("apple");
+        trie.add("banana");
+        trie.add("cherry");
+
+        trie.getWords("a");
+        trie.getWords("b");
+        trie.getWords("a");
+        // b is the least recently used.
+        trie.getWords("c");
+        org.junit.Assert.assertEquals(2, trie.getCacheSize());
+
+        trie.getWords("a");
+        org.junit.Assert.assertEquals(2, trie.getHitCount());
+        trie.getWords("b");
+        org.junit.Assert.assertEquals(2, trie.getHitCount());
+        org.junit.Assert.assertEquals(4, trie.getMissCount());
+    }
+
+    @Test
+    public void testWordBudget()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 10, 3);
+        trie.add("apple");
+        trie.add("apply");
+        trie.add("banana");
+        trie.add("cherry");
+
+        trie.getWords("ap");
+        trie.getWords("b");
+        org.junit.Assert.assertEquals(3, trie.getCachedWordCount());
+
+        // ap is the least recently used and is dropped to fit c.
+        trie.getWords("c");
+        org.junit.Assert.assertEquals(2, trie.getCacheSize());
+        org.junit.Assert.assertEquals(2, trie.getCachedWordCount());
+
+        // Too many words to cache at all.
+        org.junit.Assert.assertEquals(4, trie.getWords().size());
+        org.junit.Assert.assertEquals(2, trie.getCacheSize());
+
+        trie.add("blueberry");
+        org.junit.Assert.assertEquals(1, trie.getCachedWordCount());
+        trie.clear();
+        org.junit.Assert.assertEquals(0, trie.getCachedWordCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testBadMaxWords()
+    {
+        new CachingTrie(new LinkedHashMapTrie(), 10, 0);
+    }
+
+    @Test
+    public void testAddInvalidatesAncestors()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 10);
+        trie.add("hello");
+        trie.add("world");
+
+        trie.getWords("he");
+        trie.getWords("wo");
+        trie.getWords("hex");
+        org.junit.Assert.assertEquals(3, trie.getCacheSize());
+
+        // "he" and "hex" both match "he", "wo" is not changed.
+        trie.add("help");
+        org.junit.Assert.assertEquals(1, trie.getCacheSize());
+        org.junit.Assert.assertEquals(2, trie.getWords("he").size());
+        org.junit.Assert.assertEquals(2, trie.getWords("hex").size());
+
+        // "hex" now matches all of its characters.
+        trie.add("hexagon");
+        org.junit.Assert.assertEquals(1, trie.getWords("hex").size());
+        trie.getWords("wo");
+        org.junit.Assert.assertEquals(1, trie.getHitCount());
+
+        trie.remove("hexagon");
+        org.junit.Assert.assertEquals(2, trie.getWords("hex").size());
+    }
+
+    @Test
+    public void testClear()
+    {
+        CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 10);
+        trie.add("hello");
+        trie.getWords("he");
+        trie.clear();
+
+        org.junit.Assert.assertEquals(0, trie.getCacheSize());
+        org.junit.Assert.assertTrue(trie.getWords("he").isEmpty());
+        trie.add("hello");
+        org.junit.Assert.assertEquals(1, trie.getWords("he").size());
+    }
+
+    @Test
+    public void testSameAsTrie()
+    {
+        final Random random = new Random(17);
+        final LinkedHashMapTrie expected = new LinkedHashMapTrie();
+        final CachingTrie trie = new CachingTrie(new LinkedHashMapTrie(), 8);
+        for (int i = 0; i < 20000; ++i)
+        {
+            final String word = Integer.toString(random.nextInt(500), 4);
+            final int kind = random.nextInt(4);
+            if (kind == 0)
+            {
+                org.junit.Assert.assertEquals(expected.remove(word), trie.remove(word));
+            }
+            else if (kind == 1)
+            {
+                expected.add(word);
+                trie.add(word);
+            }
+            else
+            {
+                final String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+                org.junit.Assert.assertEquals(prefix, expected.getWords(prefix), trie.getWords(prefix));
+            }
+        }
+        org.junit.Assert.assertTrue(trie.getHitCount() > 0);
+    }
+}
@@ -0,0 +1,302 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class ConcurrentTrieTest
+{
+
+    @Test
+    public void testGetWordsWithParamter()
+    {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertTrue(words.contains("hello"));
+        org.junit.Assert.assertTrue(words.contains("helloworld"));
+        org.junit.Assert.assertEquals(2, words.size());
+        org.junit.Assert.assertEquals(4, trie.getWords().size());
+    }
+
+    @Test
+    public void testContains()
+    {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("world");
+
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("hell"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+    }
+
+    @Test
+    public void testClear()
+    {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        trie.add("helloworld");
+        trie.add("world");
+
+        trie.clear();
+
+        org.junit.Assert.assertFalse(trie.contains("world"));
+        org.junit.Assert.assertEquals(0, trie.getWords().size());
+    }
+
+    @Test
+    public void testSnapshotIterator()
+    {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        trie.add("hello");
+        trie.add("help");
+
+        final Iterator<String> iterator = trie.iterateWords("he");
+        trie.add("hey");
+        trie.add("helium");
+
+        final Set<String> words = new HashSet<String>();
+        while (iterator.hasNext())
+        {
+            words.add(iterator.next());
+        }
+        org.junit.Assert.assertEquals(2, words.size());
+        org.junit.Assert.assertTrue(trie.contains("helium"));
+        org.junit.Assert.assertEquals(4, trie.getWords("he").size());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws InterruptedException
+    {
+        final ConcurrentTrie trie = new ConcurrentTrie();
+        final int threadCount = 8;
+        final int wordCount = 5000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; ++t)
+        {
+            final int id = t;
+            threads[t] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        for (int i = 0; i < wordCount; ++i)
+                        {
+                            trie.add("w" + i + "-" + id);
+                            if (i % 100 == 0)
+                            {
+                                // words only grow, so a snapshot never has fewer
+                                // of this thread's words than were added.
+                                org.junit.Assert.assertTrue(trie.getWords("w").size() >= i + 1);
+                            }
+                        }
+                    }
+                    catch (final Throwable e)
+                    {
+                        failure.set(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        org.junit.Assert.assertNull(failure.get());
+        org.junit.Assert.assertEquals(threadCount * wordCount, trie.getWords().size());
+        for (int t = 0; t < threadCount; ++t)
+        {
+            for (int i = 0; i < wordCount; ++i)
+            {
+                org.junit.Assert.assertTrue(trie.contains("w" + i + "-" + t));
+            }
+        }
+    }
+
+    @Test
+    public void testRemove()
+    {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+
+        final Iterator<String> snapshot = trie.iterateWords("");
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertFalse(trie.remove("hello"));
+        org.junit.Assert.assertFalse(trie.remove("hell"));
+        org.junit.Assert.assertFalse(trie.contains("hello"));
+        org.junit.Assert.assertTrue(trie.contains("helloworld"));
+
+        final Set<String> words = new HashSet<String>();
+        while (snapshot.hasNext())
+        {
+            words.add(snapshot.next());
+        }
+        org.junit.Assert.assertTrue(words.contains("hello"));
+    }
+
+    @Test
+    public void testRemovePrunes()
+    {
+        final ConcurrentTrie trie = new ConcurrentTrie();
+        final LinkedHashMapTrie expected = new LinkedHashMapTrie();
+        for (final Trie each : new Trie[] { trie, expected })
+        {
+            each.add("abc");
+            each.remove("abc");
+            each.add("b");
+        }
+
+        org.junit.Assert.assertEquals(Arrays.asList("b"), trie.getWords("abz"));
+        org.junit.Assert.assertEquals(expected.getWords("abz"), trie.getWords("abz"));
+        org.junit.Assert.assertEquals(expected.countWords("ab"), trie.countWords("ab"));
+        org.junit.Assert.assertFalse(trie.contains("abc"));
+
+        // a word that shares the path keeps the nodes above the removed word.
+        trie.add("abcd");
+        trie.add("ab");
+        final Iterator<String> snapshot = trie.iterateWords("");
+        org.junit.Assert.assertTrue(trie.remove("abcd"));
+        org.junit.Assert.assertEquals(Arrays.asList("ab"), trie.getWords("abcx"));
+        org.junit.Assert.assertEquals(1, trie.countWords("abc"));
+
+        final Set<String> words = new HashSet<String>();
+        while (snapshot.hasNext())
+        {
+            words.add(snapshot.next());
+        }
+        org.junit.Assert.assertTrue(words.contains("abcd"));
+    }
+
+    @Test
+    public void testRemoveSameAsLinkedHashMapTrie()
+    {
+        final Random random = new Random(13);
+        final ConcurrentTrie trie = new ConcurrentTrie();
+        final LinkedHashMapTrie expected = new LinkedHashMapTrie();
+        final String[] prefixes = { "a", "ab", "bca", "cc", "dab" };
+        for (int i = 0; i < 3000; ++i)
+        {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; ++j)
+            {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            final String value = word.toString();
+            if (random.nextInt(2) == 0)
+            {
+                org.junit.Assert.assertEquals(expected.remove(value), trie.remove(value));
+            }
+            else
+            {
+                expected.add(value);
+                trie.add(value);
+            }
+
+            if (i % 100 == 0)
+            {
+                for (final String prefix : prefixes)
+                {
+                    org.junit.Assert.assertEquals(new HashSet<String>(expected.getWords(prefix)),
+                            new HashSet<String>(trie.getWords(prefix)));
+                    org.junit.Assert.assertEquals(expected.countWords(prefix), trie.countWords(prefix));
+                }
+            }
+        }
+        org.junit.Assert.assertEquals(new HashSet<String>(expected.getWords()), new HashSet<String>(trie.getWords()));
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws InterruptedException
+    {
+        final ConcurrentTrie trie = new ConcurrentTrie();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i)
+        {
+            final int id = i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    // the threads share the first characters, so they change
+                    // the same nodes while removing their chains.
+                    for (int j = 0; j < 300; ++j)
+                    {
+                        final String word = "ab" + id + "c" + j;
+                        trie.add(word);
+                        trie.add(word + "x");
+                        trie.remove(word + "x");
+                        if (j % 2 == 0)
+                        {
+                            trie.remove(word);
+                        }
+                    }
+                }
+            };
+        }
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        org.junit.Assert.assertEquals(600, trie.size());
+        org.junit.Assert.assertEquals(150, trie.countWords("ab3c"));
+        org.junit.Assert.assertTrue(trie.contains("ab1c1"));
+        org.junit.Assert.assertFalse(trie.contains("ab1c2"));
+        org.junit.Assert.assertFalse(trie.contains("ab1c1x"));
+    }
+}
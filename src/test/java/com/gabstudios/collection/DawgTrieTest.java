@@ -0,0 +1,120 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class DawgTrieTest
+{
+
+    @Test
+    public void testGetWordsWithParamter()
+    {
+        DawgTrie trie = DawgTrie.build(Stream.of("hello", "helloworld", "hey", "world"));
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "helloworld"), words);
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "helloworld", "hey", "world"), trie.getWords());
+        org.junit.Assert.assertEquals(4, trie.getWordCount());
+    }
+
+    @Test
+    public void testContains()
+    {
+        DawgTrie trie = DawgTrie.build(Arrays.asList("hello", "helloworld", "hey", "world").iterator());
+
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("hell"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+    }
+
+    @Test
+    public void testSharedSuffix()
+    {
+        DawgTrie trie = DawgTrie.build(Stream.of("tap", "taps", "top", "tops"));
+
+        // t -> a|o -> p -> s, the 'a' and 'o' edges share the rest.
+        org.junit.Assert.assertEquals(5, trie.getNodeCount());
+        org.junit.Assert.assertEquals(Arrays.asList("tap", "taps", "top", "tops"), trie.getWords());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotSorted()
+    {
+        DawgTrie.build(Stream.of("world", "hello"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly()
+    {
+        DawgTrie.build(Stream.of("hello")).add("world");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveReadOnly()
+    {
+        DawgTrie.build(Stream.of("hello")).remove("hello");
+    }
+
+    @Test
+    public void testSameAsLinkedHashMapTrie()
+    {
+        final Random random = new Random(11);
+        final TreeSet<String> sorted = new TreeSet<String>();
+        final LinkedHashMapTrie expected = new LinkedHashMapTrie();
+        for (int i = 0; i < 3000; ++i)
+        {
+            final StringBuilder word = new StringBuilder();
+            final int count = 1 + random.nextInt(8);
+            for (int j = 0; j < count; ++j)
+            {
+                word.append((char) ('a' + random.nextInt(5)));
+            }
+            sorted.add(word.toString());
+            expected.add(word.toString());
+        }
+
+        final DawgTrie trie = DawgTrie.build(sorted.iterator());
+        org.junit.Assert.assertEquals(new ArrayList<String>(sorted), trie.getWords());
+        org.junit.Assert.assertTrue(trie.getNodeCount() < expected.getNodeCount());
+        for (final String prefix : Arrays.asList("a", "abc", "eeee", "bzz", "cab"))
+        {
+            org.junit.Assert.assertEquals(new HashSet<String>(expected.getWords(prefix)),
+                    new HashSet<String>(trie.getWords(prefix)));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class DoubleArrayTrieTest
+{
+
+    @Test
+    public void testGetWordsWithParamter()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertTrue(words.contains("hello"));
+        org.junit.Assert.assertTrue(words.contains("helloworld"));
+        org.junit.Assert.assertEquals(2, words.size());
+    }
+
+    @Test
+    public void testGetWords()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        List<String> words = trie.getWords();
+        org.junit.Assert.assertTrue(words.contains("hello"));
+        org.junit.Assert.assertTrue(words.contains("helloworld"));
+        org.junit.Assert.assertTrue(words.contains("hey"));
+        org.junit.Assert.assertTrue(words.contains("world"));
+        org.junit.Assert.assertEquals(4, words.size());
+    }
+
+    @Test
+    public void testContains()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("hell"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+        org.junit.Assert.assertFalse(trie.contains("xyz"));
+    }
+
+    @Test
+    public void testClear()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("helloworld");
+        trie.add("world");
+
+        trie.add("\u4e16\u754c");
+
+        trie.clear();
+
+        org.junit.Assert.assertFalse(trie.contains("world"));
+        org.junit.Assert.assertFalse(trie.contains("\u4e16\u754c"));
+        org.junit.Assert.assertEquals(0, trie.getWords().size());
+
+        trie.add("\u754c");
+        org.junit.Assert.assertTrue(trie.contains("\u754c"));
+        org.junit.Assert.assertFalse(trie.contains("\u4e16"));
+        org.junit.Assert.assertEquals(Arrays.asList("\u754c"), trie.getWords());
+    }
+
+    @Test
+    public void testRelocation()
+    {
+        // many words with different characters force states to move.
+        final Set<String> expected = new HashSet<String>();
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        for (int i = 0; i < 5000; ++i)
+        {
+            final String word = Integer.toString(i * 7919, 36) + (char) ('A' + (i % 50));
+            trie.add(word);
+            expected.add(word);
+        }
+
+        for (final String word : expected)
+        {
+            org.junit.Assert.assertTrue(word, trie.contains(word));
+        }
+        org.junit.Assert.assertEquals(expected, new HashSet<String>(trie.getWords()));
+    }
+
+    @Test
+    public void testIterateWords()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        final List<String> words = new ArrayList<String>();
+        final Iterator<String> iterator = trie.iterateWords("hell012222222");
+        while (iterator.hasNext())
+        {
+            words.add(iterator.next());
+        }
+        org.junit.Assert.assertEquals(new HashSet<String>(trie.getWords("hell012222222")), new HashSet<String>(words));
+        org.junit.Assert.assertEquals(2, words.size());
+        org.junit.Assert.assertEquals(4, trie.streamWords("").count());
+        org.junit.Assert.assertEquals(1, trie.streamWords("w").limit(1).count());
+    }
+
+    @Test
+    public void testLongestPrefixOf()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.add("1");
+        trie.add("1800");
+        trie.add("18005");
+        trie.add("44");
+
+        org.junit.Assert.assertEquals("1800", trie.longestPrefixOf("18001234"));
+        org.junit.Assert.assertEquals("18005", trie.longestPrefixOf("18005"));
+        org.junit.Assert.assertEquals("1", trie.longestPrefixOf("19"));
+        org.junit.Assert.assertNull(trie.longestPrefixOf("4"));
+        org.junit.Assert.assertNull(trie.longestPrefixOf(""));
+        org.junit.Assert.assertEquals(Arrays.asList("1", "1800", "18005"), trie.prefixesOf("180056"));
+        org.junit.Assert.assertEquals(0, trie.prefixesOf("2").size());
+    }
+
+    @Test
+    public void testRemove()
+    {
+        final Random random = new Random(3);
+        final DoubleArrayTrie trie = new DoubleArrayTrie();
+        final Set<String> expected = new HashSet<String>();
+        for (int i = 0; i < 5000; ++i)
+        {
+            final String word = randomWord(random);
+            if (random.nextInt(3) == 0)
+            {
+                org.junit.Assert.assertEquals(word, expected.remove(word), trie.remove(word));
+            }
+            else
+            {
+                expected.add(word);
+                trie.add(word);
+            }
+        }
+        org.junit.Assert.assertEquals(expected, new HashSet<String>(trie.getWords()));
+        for (final String word : expected)
+        {
+            org.junit.Assert.assertTrue(word, trie.remove(word));
+        }
+        org.junit.Assert.assertEquals(0, trie.getWords().size());
+    }
+
+    @Test
+    public void testIterateSameAsGetWords()
+    {
+        // removes free cells that later relocations reuse.
+        final Random random = new Random(11);
+        final DoubleArrayTrie trie = new DoubleArrayTrie();
+        for (int i = 0; i < 5000; ++i)
+        {
+            final String word = randomWord(random) + (char) ('e' + random.nextInt(20));
+            if (random.nextInt(4) == 0)
+            {
+                trie.remove(word);
+            }
+            else
+            {
+                trie.add(word);
+            }
+        }
+
+        final List<String> words = new ArrayList<String>();
+        final Iterator<String> iterator = trie.iterateWords("");
+        while (iterator.hasNext())
+        {
+            words.add(iterator.next());
+        }
+        org.junit.Assert.assertEquals(trie.getWords(), words);
+        org.junit.Assert.assertEquals(new HashSet<String>(words).size(), words.size());
+        for (final String word : words)
+        {
+            org.junit.Assert.assertTrue(word, trie.contains(word));
+        }
+    }
+
+    @Test
+    public void testRangeContainsAndAdd()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        final StringBuilder buffer = new StringBuilder("GET /caf\u00e9/menu HTTP");
+        trie.add(buffer, 5, 9);
+        trie.add(buffer, 5, 14);
+        trie.add(buffer, 5, 14);
+
+        org.junit.Assert.assertTrue(trie.contains("caf\u00e9"));
+        org.junit.Assert.assertTrue(trie.contains(buffer, 5, 9));
+        org.junit.Assert.assertTrue(trie.contains("xcaf\u00e9/menux", 1, 10));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 5, 8));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 5, 5));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 4, 9));
+        org.junit.Assert.assertEquals(2, trie.getWords().size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRangeOutOfBounds()
+    {
+        DoubleArrayTrie trie = new DoubleArrayTrie();
+        trie.contains("hello", 2, 6);
+    }
+
+    private static String randomWord(final Random random)
+    {
+        final StringBuilder word = new StringBuilder();
+        final int count = 1 + random.nextInt(8);
+        for (int i = 0; i < count; ++i)
+        {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return (word.toString());
+    }
+}
@@ -19,6 +19,12 @@
 
 package com.gabstudios.collection;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
 
 import com.gabstudios.collection.LinkedHashMapTree.Node;
@@ -173,4 +179,128 @@ public class LinkedHashMapTreeTest
                 expectedParent, parent);
     }
     
+    @Test
+    public void testWriteToReadFrom() throws IOException
+    {
+        final LinkedHashMapTree.Codec<String> codec = new LinkedHashMapTree.Codec<String>()
+        {
+            @Override
+            public void write(final DataOutput output, final String data) throws IOException
+            {
+                output.writeUTF(data);
+            }
+            
+            @Override
+            public String read(final DataInput input) throws IOException
+            {
+                return (input.readUTF());
+            }
+        };
+        
+        final LinkedHashMapTree<String> tree = new LinkedHashMapTree<String>(
+                "root");
+        final Node<String> root = tree.getRoot();
+        root.addChild("H").addChild("E").addChild("L").addChild("L")
+                .addChild("O");
+        root.addChild("W").addChild("O");
+        root.addChild("A");
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        tree.writeTo(output, codec);
+        
+        final LinkedHashMapTree<String> restored = new LinkedHashMapTree<String>(
+                "root");
+        restored.readFrom(new ByteArrayInputStream(output.toByteArray()), codec);
+        
+        org.junit.Assert.assertEquals(tree.getNodeCount(), restored.getNodeCount());
+        org.junit.Assert.assertEquals(tree.getHeight(), restored.getHeight());
+        org.junit.Assert.assertEquals(tree.getLeafData(), restored.getLeafData());
+        org.junit.Assert.assertEquals("root", restored.getRoot().getChild("W")
+                .getParent().getData());
+    }
+    
+    @Test(expected = IOException.class)
+    public void testReadFromOtherRoot() throws IOException
+    {
+        final LinkedHashMapTree.Codec<String> codec = new LinkedHashMapTree.Codec<String>()
+        {
+            @Override
+            public void write(final DataOutput output, final String data) throws IOException
+            {
+                output.writeUTF(data);
+            }
+            
+            @Override
+            public String read(final DataInput input) throws IOException
+            {
+                return (input.readUTF());
+            }
+        };
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new LinkedHashMapTree<String>("root").writeTo(output, codec);
+        new LinkedHashMapTree<String>("other").readFrom(
+                new ByteArrayInputStream(output.toByteArray()), codec);
+    }
+    
+    @Test
+    public void testReadFromDuplicateChild() throws IOException
+    {
+        final LinkedHashMapTree.Codec<String> codec = new LinkedHashMapTree.Codec<String>()
+        {
+            @Override
+            public void write(final DataOutput output, final String data) throws IOException
+            {
+                // every child is written as A.
+                output.writeUTF("root".equals(data) ? data : "A");
+            }
+            
+            @Override
+            public String read(final DataInput input) throws IOException
+            {
+                return (input.readUTF());
+            }
+        };
+        
+        final LinkedHashMapTree<String> tree = new LinkedHashMapTree<String>(
+                "root");
+        tree.addChild("B");
+        tree.addChild("C");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        tree.writeTo(output, codec);
+        
+        final LinkedHashMapTree<String> restored = new LinkedHashMapTree<String>(
+                "root");
+        restored.addChild("D");
+        try
+        {
+            restored.readFrom(new ByteArrayInputStream(output.toByteArray()), codec);
+            org.junit.Assert.fail("A duplicate child should not be read.");
+        }
+        catch (final IOException e)
+        {
+            // expected.
+        }
+        org.junit.Assert.assertNotNull(restored.getRoot().getChild("D"));
+        org.junit.Assert.assertEquals(2, restored.getNodeCount());
+    }
+    
+    @Test
+    public void testOrderedChildren()
+    {
+        final LinkedHashMapTree<String> tree = new LinkedHashMapTree<String>(
+                "root", Comparator.<String> reverseOrder());
+        org.junit.Assert.assertTrue(tree.isOrdered());
+        final Node<String> root = tree.getRoot();
+        root.addChild("b");
+        root.addChild("c");
+        root.addChild("a");
+        
+        final List<Node<String>> children = root.getChildren();
+        org.junit.Assert.assertEquals("c", children.get(0).getData());
+        org.junit.Assert.assertEquals("b", children.get(1).getData());
+        org.junit.Assert.assertEquals("a", children.get(2).getData());
+        org.junit.Assert.assertFalse(new LinkedHashMapTree<String>("root").isOrdered());
+    }
+    
 }
@@ -19,7 +19,18 @@
 
 package com.gabstudios.collection;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.After;
 import org.junit.Before;
@@ -151,4 +162,543 @@ public class LinkedHashMapTrieTest
         org.junit.Assert.assertFalse(isContained);
         org.junit.Assert.assertTrue(height == 0);
     }
+    
+    @Test
+    public void testIterateWords()
+    {
+        LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        suggestion.add("helloworld");
+        suggestion.add("hello");
+        suggestion.add("hey");
+        suggestion.add("world");
+        
+        final List<String> words = new ArrayList<String>();
+        final Iterator<String> iterator = suggestion.iterateWords("hell012222222");
+        while (iterator.hasNext())
+        {
+            words.add(iterator.next());
+        }
+        org.junit.Assert.assertEquals(new HashSet<String>(suggestion.getWords("hell012222222")), new HashSet<String>(words));
+        org.junit.Assert.assertEquals(2, words.size());
+        org.junit.Assert.assertEquals(4, suggestion.streamWords("").count());
+        org.junit.Assert.assertEquals(1, suggestion.streamWords("w").limit(1).count());
+    }
+    
+    @Test
+    public void testWriteToReadFrom() throws IOException
+    {
+        LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        suggestion.add("helloworld");
+        suggestion.add("hello");
+        suggestion.add("hey");
+        suggestion.add("world");
+        suggestion.add("\u00e9t\u00e9");
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        suggestion.writeTo(output);
+        
+        LinkedHashMapTrie restored = new LinkedHashMapTrie();
+        restored.add("other");
+        restored.readFrom(new ByteArrayInputStream(output.toByteArray()));
+        
+        org.junit.Assert.assertEquals(suggestion.getWords(), restored.getWords());
+        org.junit.Assert.assertEquals(suggestion.getNodeCount(), restored.getNodeCount());
+        org.junit.Assert.assertTrue(restored.contains("hello"));
+        org.junit.Assert.assertFalse(restored.contains("hell"));
+        org.junit.Assert.assertFalse(restored.contains("other"));
+        
+        restored.add("help");
+        org.junit.Assert.assertTrue(restored.contains("help"));
+    }
+    
+    @Test
+    public void testReadFromTwoTriesInOneStream() throws IOException
+    {
+        final LinkedHashMapTrie first = new LinkedHashMapTrie();
+        first.add("hello");
+        first.add("help");
+        final LinkedHashMapTrie second = new LinkedHashMapTrie();
+        second.add("world");
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        first.writeTo(output);
+        second.writeTo(output);
+        output.write(42);
+        
+        final ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        final LinkedHashMapTrie firstRestored = new LinkedHashMapTrie();
+        firstRestored.readFrom(input);
+        final LinkedHashMapTrie secondRestored = new LinkedHashMapTrie();
+        secondRestored.readFrom(input);
+        
+        org.junit.Assert.assertEquals(first.getWords(), firstRestored.getWords());
+        org.junit.Assert.assertEquals(second.getWords(), secondRestored.getWords());
+        org.junit.Assert.assertEquals(42, input.read());
+    }
+    
+    @Test
+    public void testReadFromTruncatedKeepsTrie() throws IOException
+    {
+        final LinkedHashMapTrie source = new LinkedHashMapTrie();
+        source.add("apply");
+        source.add("apple");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        source.writeTo(output);
+        final byte[] bytes = output.toByteArray();
+        
+        final LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        suggestion.add("x");
+        suggestion.add("y");
+        suggestion.add("z");
+        final List<String> words = suggestion.getWords();
+        try
+        {
+            suggestion.readFrom(new ByteArrayInputStream(bytes, 0, bytes.length / 2));
+            org.junit.Assert.fail("A truncated stream should not be read.");
+        }
+        catch (final IOException e)
+        {
+            // expected.
+        }
+        org.junit.Assert.assertEquals(words, suggestion.getWords());
+        org.junit.Assert.assertEquals(3, suggestion.size());
+        org.junit.Assert.assertFalse(suggestion.contains("apple"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void testReadFromNotATrie() throws IOException
+    {
+        LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        suggestion.readFrom(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+    
+    @Test
+    public void testFuzzyWords()
+    {
+        LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        suggestion.add("helloworld");
+        suggestion.add("hello");
+        suggestion.add("help");
+        suggestion.add("hey");
+        suggestion.add("world");
+        
+        final List<String> words = suggestion.fuzzyWords("helo", 1, 10);
+        org.junit.Assert.assertEquals(new HashSet<String>(Arrays.asList("hello", "help")),
+                new HashSet<String>(words));
+        org.junit.Assert.assertEquals(1, suggestion.fuzzyWords("helo", 1, 1).size());
+        org.junit.Assert.assertEquals(0, suggestion.fuzzyWords("helo", 0, 10).size());
+        org.junit.Assert.assertEquals(Arrays.asList("world"), suggestion.fuzzyWords("wrld", 1, 10));
+    }
+    
+    @Test
+    public void testFuzzyWordsSameAsDefault()
+    {
+        final Random random = new Random(11);
+        final LinkedHashMapTrie suggestion = new LinkedHashMapTrie();
+        final RadixTrie expected = new RadixTrie();
+        for (int i = 0; i < 2000; ++i)
+        {
+            final String word = randomWord(random);
+            suggestion.add(word);
+            expected.add(word);
+        }
+        
+        for (int i = 0; i < 200; ++i)
+        {
+            final String query = randomWord(random);
+            final int maxEdits = random.nextInt(3);
+            org.junit.Assert.assertEquals(query, new HashSet<String>(expected.fuzzyWords(query, maxEdits, Integer.MAX_VALUE)),
+                    new HashSet<String>(suggestion.fuzzyWords(query, maxEdits, Integer.MAX_VALUE)));
+        }
+    }
+    
+    @Test
+    public void testLongestPrefixOf()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("1");
+        trie.add("1800");
+        trie.add("18005");
+        trie.add("44");
+        
+        org.junit.Assert.assertEquals("1800", trie.longestPrefixOf("18001234"));
+        org.junit.Assert.assertEquals("18005", trie.longestPrefixOf("18005"));
+        org.junit.Assert.assertEquals("1", trie.longestPrefixOf("19"));
+        org.junit.Assert.assertNull(trie.longestPrefixOf("4"));
+        org.junit.Assert.assertNull(trie.longestPrefixOf(""));
+        org.junit.Assert.assertEquals(Arrays.asList("1", "1800", "18005"), trie.prefixesOf("180056"));
+        org.junit.Assert.assertEquals(0, trie.prefixesOf("2").size());
+    }
+    
+    @Test
+    public void testCountWords() throws IOException
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+        
+        org.junit.Assert.assertEquals(4, trie.size());
+        org.junit.Assert.assertEquals(4, trie.countWords(""));
+        org.junit.Assert.assertEquals(3, trie.countWords("he"));
+        org.junit.Assert.assertEquals(trie.getWords("hell0122").size(), trie.countWords("hell0122"));
+        org.junit.Assert.assertEquals(1, trie.countWords("helloworld"));
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        trie.writeTo(output);
+        LinkedHashMapTrie restored = new LinkedHashMapTrie();
+        restored.readFrom(new ByteArrayInputStream(output.toByteArray()));
+        org.junit.Assert.assertEquals(4, restored.size());
+        org.junit.Assert.assertEquals(3, restored.countWords("he"));
+        
+        trie.clear();
+        org.junit.Assert.assertEquals(0, trie.size());
+    }
+    
+    @Test
+    public void testRemove()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        final int nodeCount = trie.getNodeCount();
+        
+        org.junit.Assert.assertTrue(trie.remove("helloworld"));
+        org.junit.Assert.assertFalse(trie.remove("helloworld"));
+        org.junit.Assert.assertFalse(trie.remove("hell"));
+        org.junit.Assert.assertFalse(trie.contains("helloworld"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertEquals(nodeCount - 5, trie.getNodeCount());
+        org.junit.Assert.assertEquals(2, trie.size());
+        
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertEquals(Arrays.asList("hey"), trie.getWords());
+        org.junit.Assert.assertEquals(4, trie.getNodeCount());
+        
+        org.junit.Assert.assertTrue(trie.remove("hey"));
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        org.junit.Assert.assertEquals(0, trie.size());
+    }
+    
+    @Test
+    public void testRangeContainsAndAdd()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        final StringBuilder buffer = new StringBuilder("GET /caf\u00e9/menu HTTP");
+        trie.add(buffer, 5, 9);
+        trie.add(buffer, 5, 14);
+        trie.add(buffer, 5, 14);
+        
+        org.junit.Assert.assertTrue(trie.contains("caf\u00e9"));
+        org.junit.Assert.assertTrue(trie.contains(buffer, 5, 9));
+        org.junit.Assert.assertTrue(trie.contains("xcaf\u00e9/menux", 1, 10));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 5, 8));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 5, 5));
+        org.junit.Assert.assertFalse(trie.contains(buffer, 4, 9));
+        org.junit.Assert.assertEquals(2, trie.getWords().size());
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRangeOutOfBounds()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.contains("hello", 2, 6);
+    }
+    
+    @Test
+    public void testOrderedWords()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie(true);
+        trie.add("world");
+        trie.add("hey");
+        trie.add("hello");
+        trie.add("helloworld");
+        trie.add("apple");
+        
+        org.junit.Assert.assertTrue(trie.isOrdered());
+        org.junit.Assert.assertEquals(Arrays.asList("apple", "hello", "helloworld", "hey", "world"), trie.getWords());
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "helloworld", "hey"), trie.getWords("he"));
+        
+        final List<String> words = new ArrayList<String>();
+        final Iterator<String> iterator = trie.iterateWords("");
+        while (iterator.hasNext())
+        {
+            words.add(iterator.next());
+        }
+        org.junit.Assert.assertEquals(trie.getWords(), words);
+    }
+    
+    @Test
+    public void testOrderedQueries()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie(true);
+        trie.add("car");
+        trie.add("card");
+        trie.add("care");
+        trie.add("cat");
+        trie.add("dog");
+        
+        org.junit.Assert.assertEquals(Arrays.asList("card", "care", "cat"), trie.range("card", "dog"));
+        org.junit.Assert.assertEquals(Arrays.asList("car", "card", "care"), trie.range("", "cat"));
+        org.junit.Assert.assertTrue(trie.range("dog", "card").isEmpty());
+        
+        org.junit.Assert.assertEquals("card", trie.ceiling("card"));
+        org.junit.Assert.assertEquals("card", trie.ceiling("carb"));
+        org.junit.Assert.assertEquals("cat", trie.ceiling("carf"));
+        org.junit.Assert.assertEquals("car", trie.ceiling(""));
+        org.junit.Assert.assertNull(trie.ceiling("dogs"));
+        
+        org.junit.Assert.assertEquals("car", trie.floor("carb"));
+        org.junit.Assert.assertEquals("care", trie.floor("cas"));
+        org.junit.Assert.assertEquals("dog", trie.floor("zebra"));
+        org.junit.Assert.assertNull(trie.floor("ca"));
+        
+        org.junit.Assert.assertEquals(0, trie.rank("car"));
+        org.junit.Assert.assertEquals(2, trie.rank("care"));
+        org.junit.Assert.assertEquals(4, trie.rank("dog"));
+        org.junit.Assert.assertEquals(5, trie.rank("zebra"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testRankNotOrdered()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("hello");
+        trie.rank("hello");
+    }
+    
+    @Test
+    public void testOrderedSameAsTreeSet()
+    {
+        final Random random = new Random(17);
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie(true);
+        final TreeSet<String> expected = new TreeSet<String>();
+        for (int i = 0; i < 3000; ++i)
+        {
+            final String word = randomWord(random);
+            if (random.nextInt(4) == 0)
+            {
+                trie.remove(word);
+                expected.remove(word);
+            }
+            else
+            {
+                trie.add(word);
+                expected.add(word);
+            }
+        }
+        org.junit.Assert.assertEquals(new ArrayList<String>(expected), trie.getWords());
+        
+        for (int i = 0; i < 2000; ++i)
+        {
+            final String word = randomWord(random);
+            final String other = randomWord(random);
+            org.junit.Assert.assertEquals(word, expected.ceiling(word), trie.ceiling(word));
+            org.junit.Assert.assertEquals(word, expected.floor(word), trie.floor(word));
+            org.junit.Assert.assertEquals(word, expected.headSet(word).size(), trie.rank(word));
+            if (word.compareTo(other) < 0)
+            {
+                org.junit.Assert.assertEquals(word + " " + other, new ArrayList<String>(expected.subSet(word, other)),
+                        trie.range(word, other));
+            }
+        }
+    }
+    
+    @Test
+    public void testContainsAll()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("hello");
+        trie.add("helloworld");
+        trie.add("help");
+        
+        final List<CharSequence> batch = Arrays.<CharSequence> asList("help", "hello", "", "hel",
+                new StringBuilder("helloworld"), "hello", "world");
+        final BitSet found = trie.containsAll(batch);
+        final BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        expected.set(4);
+        expected.set(5);
+        org.junit.Assert.assertEquals(expected, found);
+    }
+    
+    @Test
+    public void testContainsAllUnsorted()
+    {
+        final Random random = new Random(21);
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        final List<CharSequence> batch = new ArrayList<CharSequence>();
+        for (int i = 0; i < 3000; ++i)
+        {
+            final String word = randomWord(random);
+            if (i % 2 == 0)
+            {
+                trie.add(word);
+            }
+            batch.add(word);
+        }
+        
+        final BitSet found = trie.containsAll(batch);
+        for (int i = 0; i < batch.size(); ++i)
+        {
+            org.junit.Assert.assertEquals(trie.contains(batch.get(i).toString()), found.get(i));
+        }
+        
+        try
+        {
+            trie.containsAll(Arrays.<CharSequence> asList("b", "a", null));
+            org.junit.Assert.fail("A null word should not be found.");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            // expected.
+        }
+    }
+    
+    @Test
+    public void testAddAll()
+    {
+        final Random random = new Random(17);
+        final LinkedHashMapTrie expected = new LinkedHashMapTrie();
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("abc");
+        expected.add("abc");
+        final List<String> batch = new ArrayList<String>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            final String word = randomWord(random);
+            batch.add(word);
+            expected.add(word);
+        }
+        trie.addAll(batch);
+        
+        org.junit.Assert.assertEquals(expected.size(), trie.size());
+        org.junit.Assert.assertEquals(new HashSet<String>(expected.getWords()), new HashSet<String>(trie.getWords()));
+        for (int i = 0; i < 200; ++i)
+        {
+            final String prefix = randomWord(random);
+            org.junit.Assert.assertEquals(prefix, expected.countWords(prefix), trie.countWords(prefix));
+        }
+        
+        final BitSet found = trie.containsAll(batch);
+        org.junit.Assert.assertEquals(batch.size(), found.cardinality());
+    }
+    
+    @Test
+    public void testAddAllValidatesFirst()
+    {
+        LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        try
+        {
+            trie.addAll(Arrays.asList("hello", null));
+            org.junit.Assert.fail("A null word should not be added.");
+        }
+        catch (final RuntimeException e)
+        {
+            org.junit.Assert.assertEquals(0, trie.size());
+        }
+    }
+    
+    @Test
+    public void testSetOperations()
+    {
+        LinkedHashMapTrie first = new LinkedHashMapTrie();
+        first.add("car");
+        first.add("card");
+        first.add("dog");
+        LinkedHashMapTrie second = new LinkedHashMapTrie();
+        second.add("card");
+        second.add("care");
+        second.add("dog");
+        
+        org.junit.Assert.assertEquals(new HashSet<String>(Arrays.asList("car", "card", "care", "dog")),
+                new HashSet<String>(first.union(second).getWords()));
+        org.junit.Assert.assertEquals(new HashSet<String>(Arrays.asList("card", "dog")),
+                new HashSet<String>(first.intersect(second).getWords()));
+        
+        final LinkedHashMapTrie difference = first.difference(second);
+        org.junit.Assert.assertEquals(Arrays.asList("car"), difference.getWords());
+        // root, "c", "a", "r"
+        org.junit.Assert.assertEquals(4, difference.getNodeCount());
+        org.junit.Assert.assertEquals(1, difference.size());
+        org.junit.Assert.assertEquals(3, first.size());
+    }
+    
+    @Test
+    public void testSetOperationsSameAsSet()
+    {
+        final Random random = new Random(17);
+        final LinkedHashMapTrie first = new LinkedHashMapTrie();
+        final LinkedHashMapTrie second = new LinkedHashMapTrie();
+        final RadixTrie radix = new RadixTrie();
+        final Set<String> firstWords = new HashSet<String>();
+        final Set<String> secondWords = new HashSet<String>();
+        for (int i = 0; i < 1000; ++i)
+        {
+            final String word = randomWord(random);
+            first.add(word);
+            firstWords.add(word);
+            final String other = randomWord(random);
+            second.add(other);
+            radix.add(other);
+            secondWords.add(other);
+        }
+        
+        final Set<String> union = new HashSet<String>(firstWords);
+        union.addAll(secondWords);
+        final Set<String> intersection = new HashSet<String>(firstWords);
+        intersection.retainAll(secondWords);
+        final Set<String> difference = new HashSet<String>(firstWords);
+        difference.removeAll(secondWords);
+        
+        for (final Trie other : Arrays.<Trie> asList(second, radix))
+        {
+            assertSameWords(union, first.union(other));
+            assertSameWords(intersection, first.intersect(other));
+            assertSameWords(difference, first.difference(other));
+        }
+    }
+    
+    @Test
+    public void testSetOperationsOrdered()
+    {
+        LinkedHashMapTrie first = new LinkedHashMapTrie(true);
+        first.add("dog");
+        first.add("car");
+        LinkedHashMapTrie second = new LinkedHashMapTrie();
+        second.add("bird");
+        
+        final LinkedHashMapTrie union = first.union(second);
+        org.junit.Assert.assertTrue(union.isOrdered());
+        org.junit.Assert.assertEquals(Arrays.asList("bird", "car", "dog"), union.getWords());
+    }
+    
+    private static void assertSameWords(final Set<String> expected, final LinkedHashMapTrie trie)
+    {
+        org.junit.Assert.assertEquals(expected, new HashSet<String>(trie.getWords()));
+        org.junit.Assert.assertEquals(expected.size(), trie.size());
+        
+        // the result holds no nodes that are not on the path of a word.
+        final LinkedHashMapTrie built = new LinkedHashMapTrie();
+        for (final String word : expected)
+        {
+            built.add(word);
+        }
+        org.junit.Assert.assertEquals(built.getNodeCount(), trie.getNodeCount());
+    }
+    
+    private static String randomWord(final Random random)
+    {
+        final StringBuilder word = new StringBuilder();
+        final int count = 1 + random.nextInt(7);
+        for (int i = 0; i < count; ++i)
+        {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return (word.toString());
+    }
 }
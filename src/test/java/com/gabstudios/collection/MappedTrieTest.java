@@ -0,0 +1,104 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class MappedTrieTest
+{
+    private Path _file;
+
+    @Before
+    public void initialize() throws IOException
+    {
+        this._file = Files.createTempFile("mapped-trie", ".bin");
+    }
+
+    @After
+    public void close() throws IOException
+    {
+        Files.deleteIfExists(this._file);
+    }
+
+    @Test
+    public void testCompileAndOpen() throws IOException
+    {
+        LinkedHashMapTrie source = new LinkedHashMapTrie();
+        source.add("helloworld");
+        source.add("hello");
+        source.add("hey");
+        source.add("world");
+
+        MappedTrie.compile(source, this._file);
+        MappedTrie trie = MappedTrie.open(this._file);
+
+        org.junit.Assert.assertEquals(4, trie.getWordCount());
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("hell"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "helloworld"), words);
+        org.junit.Assert.assertEquals(new HashSet<String>(source.getWords()), new HashSet<String>(trie.getWords()));
+        org.junit.Assert.assertEquals(1, trie.streamWords("w").count());
+    }
+
+    @Test
+    public void testEmpty() throws IOException
+    {
+        MappedTrie.compile(new LinkedHashMapTrie(), this._file);
+        MappedTrie trie = MappedTrie.open(this._file);
+
+        org.junit.Assert.assertEquals(0, trie.getWords().size());
+        org.junit.Assert.assertFalse(trie.contains("hello"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotATrieFile() throws IOException
+    {
+        Files.write(this._file, new byte[32]);
+        MappedTrie.open(this._file);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws IOException
+    {
+        MappedTrie.compile(Arrays.asList("hello").iterator(), this._file);
+        MappedTrie.open(this._file).add("world");
+    }
+}
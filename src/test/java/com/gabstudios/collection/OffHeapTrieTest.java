@@ -0,0 +1,209 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class OffHeapTrieTest
+{
+
+    @Test
+    public void testAddAndContains()
+    {
+        final OffHeapTrie trie = new OffHeapTrie(4);
+        try
+        {
+            trie.add("car");
+            trie.add("cart");
+            trie.add("cat");
+            trie.add("car");
+            org.junit.Assert.assertEquals(3, trie.size());
+            org.junit.Assert.assertTrue(trie.contains("cart"));
+            org.junit.Assert.assertFalse(trie.contains("ca"));
+            org.junit.Assert.assertTrue(trie.contains("a cat", 2, 5));
+            org.junit.Assert.assertEquals(Arrays.asList("car", "cart", "cat"), trie.getWords());
+            org.junit.Assert.assertEquals(Arrays.asList("car", "cart"), trie.getWords("carp"));
+            org.junit.Assert.assertEquals(2, trie.countWords("car"));
+            org.junit.Assert.assertEquals("cart", trie.longestPrefixOf("cartwheel"));
+            org.junit.Assert.assertEquals(6, trie.getNodeCount());
+            org.junit.Assert.assertEquals(2 * 4 * 16, trie.getAllocatedBytes());
+        }
+        finally
+        {
+            trie.close();
+        }
+    }
+
+    @Test
+    public void testRemoveReusesNodes()
+    {
+        final OffHeapTrie trie = new OffHeapTrie(4);
+        try
+        {
+            trie.add("abc");
+            trie.add("a");
+            final long bytes = trie.getAllocatedBytes();
+            org.junit.Assert.assertTrue(trie.remove("abc"));
+            org.junit.Assert.assertFalse(trie.remove("abc"));
+            org.junit.Assert.assertFalse(trie.remove("ab"));
+            org.junit.Assert.assertEquals(2, trie.getNodeCount());
+            org.junit.Assert.assertEquals(Arrays.asList("a"), trie.getWords());
+
+            trie.add("axy");
+            org.junit.Assert.assertEquals(bytes, trie.getAllocatedBytes());
+            org.junit.Assert.assertEquals(Arrays.asList("a", "axy"), trie.getWords());
+
+            trie.clear();
+            org.junit.Assert.assertEquals(0, trie.size());
+            org.junit.Assert.assertEquals(1, trie.getNodeCount());
+            org.junit.Assert.assertEquals(4 * 16, trie.getAllocatedBytes());
+        }
+        finally
+        {
+            trie.close();
+        }
+    }
+
+    @Test
+    public void testWideNodes()
+    {
+        // the runs of the wide nodes are bigger than a slab.
+        final Random random = new Random(7);
+        final OffHeapTrie trie = new OffHeapTrie(4);
+        final TreeSet<String> set = new TreeSet<String>();
+        try
+        {
+            for (int i = 0; i < 4000; ++i)
+            {
+                final String value = new String(new char[] { (char) (0x4e00 + random.nextInt(300)),
+                        (char) ('a' + random.nextInt(40)) }, 0, 1 + random.nextInt(2));
+                if (random.nextInt(4) == 0)
+                {
+                    org.junit.Assert.assertEquals(set.remove(value), trie.remove(value));
+                }
+                else
+                {
+                    set.add(value);
+                    trie.add(value);
+                }
+            }
+            org.junit.Assert.assertEquals(set.size(), trie.size());
+            org.junit.Assert.assertEquals(new ArrayList<String>(set), trie.getWords());
+            for (final String word : set)
+            {
+                org.junit.Assert.assertTrue(word, trie.contains(word));
+                org.junit.Assert.assertTrue(word, trie.remove(word));
+            }
+            org.junit.Assert.assertEquals(0, trie.size());
+            org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        }
+        finally
+        {
+            trie.close();
+        }
+    }
+
+    @Test
+    public void testClose()
+    {
+        final OffHeapTrie trie = new OffHeapTrie();
+        trie.add("word");
+        trie.close();
+        trie.close();
+        org.junit.Assert.assertTrue(trie.isClosed());
+        org.junit.Assert.assertEquals(0, trie.getAllocatedBytes());
+        try
+        {
+            trie.contains("word");
+            org.junit.Assert.fail("A closed Trie should not be used.");
+        }
+        catch (final IllegalStateException e)
+        {
+            // expected.
+        }
+    }
+
+    @Test
+    public void testBadSlabSize()
+    {
+        try
+        {
+            new OffHeapTrie(3);
+            org.junit.Assert.fail("The slab size should be a power of two.");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            // expected.
+        }
+    }
+
+    @Test
+    public void testSameAsSet()
+    {
+        final Random random = new Random(24);
+        final OffHeapTrie trie = new OffHeapTrie(64);
+        final TreeSet<String> set = new TreeSet<String>();
+        try
+        {
+            for (int i = 0; i < 5000; ++i)
+            {
+                final StringBuilder word = new StringBuilder();
+                final int length = 1 + random.nextInt(6);
+                for (int j = 0; j < length; ++j)
+                {
+                    word.append((char) ('a' + random.nextInt(5)));
+                }
+                final String value = word.toString();
+                if (random.nextInt(3) == 0)
+                {
+                    org.junit.Assert.assertEquals(set.remove(value), trie.remove(value));
+                }
+                else
+                {
+                    set.add(value);
+                    trie.add(value);
+                }
+            }
+            org.junit.Assert.assertEquals(set.size(), trie.size());
+            org.junit.Assert.assertEquals(new ArrayList<String>(set), trie.getWords());
+            for (final String word : set)
+            {
+                org.junit.Assert.assertTrue(trie.contains(word));
+            }
+        }
+        finally
+        {
+            trie.close();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class PersistentTrieTest
+{
+
+    @Test
+    public void testOldVersionsDoNotChange()
+    {
+        final PersistentTrie trie = new PersistentTrie();
+        trie.add("car");
+        trie.add("cart");
+        final PersistentTrie.Version first = trie.version();
+
+        trie.add("cat");
+        trie.remove("car");
+        final PersistentTrie.Version second = trie.version();
+
+        org.junit.Assert.assertEquals(Arrays.asList("car", "cart"), first.getWords());
+        org.junit.Assert.assertEquals(2, first.size());
+        org.junit.Assert.assertTrue(first.contains("car"));
+        org.junit.Assert.assertFalse(first.contains("cat"));
+
+        org.junit.Assert.assertEquals(Arrays.asList("cart", "cat"), second.getWords());
+        org.junit.Assert.assertEquals(2, second.size());
+        org.junit.Assert.assertFalse(second.contains("car"));
+        org.junit.Assert.assertEquals(Arrays.asList("cart", "cat"), trie.getWords("ca"));
+        org.junit.Assert.assertEquals(2, trie.countWords("ca"));
+    }
+
+    @Test
+    public void testVersionWithWord()
+    {
+        final PersistentTrie trie = new PersistentTrie();
+        final PersistentTrie.Version empty = trie.version();
+        final PersistentTrie.Version one = empty.withWord("dog");
+        final PersistentTrie.Version two = one.withWord("door");
+
+        org.junit.Assert.assertSame(two, two.withWord("dog"));
+        org.junit.Assert.assertSame(two, two.withoutWord("cat"));
+        org.junit.Assert.assertSame(two, two.withoutWord("do"));
+        org.junit.Assert.assertEquals(0, empty.size());
+        org.junit.Assert.assertEquals(1, one.size());
+        org.junit.Assert.assertEquals(Arrays.asList("dog", "door"), two.getWords("do"));
+        org.junit.Assert.assertEquals(0, trie.size());
+
+        trie.setVersion(two);
+        org.junit.Assert.assertTrue(trie.contains("door"));
+        org.junit.Assert.assertEquals("door", trie.longestPrefixOf("doorway"));
+    }
+
+    @Test
+    public void testRemovePrunes()
+    {
+        final PersistentTrie trie = new PersistentTrie();
+        trie.add("a");
+        trie.add("abc");
+        org.junit.Assert.assertTrue(trie.remove("abc"));
+        org.junit.Assert.assertFalse(trie.remove("abc"));
+        org.junit.Assert.assertFalse(trie.contains("ab"));
+        org.junit.Assert.assertEquals(Arrays.asList("a"), trie.getWords("abc"));
+        org.junit.Assert.assertEquals(1, trie.countWords("ab"));
+
+        org.junit.Assert.assertTrue(trie.remove("a"));
+        org.junit.Assert.assertEquals(0, trie.size());
+        org.junit.Assert.assertTrue(trie.getWords().isEmpty());
+    }
+
+    @Test
+    public void testReadOnlyVersion()
+    {
+        final PersistentTrie.Version version = new PersistentTrie().version();
+        try
+        {
+            version.add("word");
+            org.junit.Assert.fail("A Version should be read only.");
+        }
+        catch (final UnsupportedOperationException e)
+        {
+            // expected.
+        }
+        try
+        {
+            version.withWord("");
+            org.junit.Assert.fail("An empty word should not be added.");
+        }
+        catch (final RuntimeException e)
+        {
+            // expected.
+        }
+    }
+
+    @Test
+    public void testSameAsSet()
+    {
+        final Random random = new Random(23);
+        final PersistentTrie trie = new PersistentTrie();
+        final TreeSet<String> set = new TreeSet<String>();
+        final List<PersistentTrie.Version> versions = new ArrayList<PersistentTrie.Version>();
+        final List<List<String>> expected = new ArrayList<List<String>>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; ++j)
+            {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            final String value = word.toString();
+            if (random.nextInt(3) == 0)
+            {
+                org.junit.Assert.assertEquals(set.remove(value), trie.remove(value));
+            }
+            else
+            {
+                set.add(value);
+                trie.add(value);
+            }
+            org.junit.Assert.assertEquals(set.size(), trie.size());
+            if (i % 200 == 0)
+            {
+                versions.add(trie.version());
+                expected.add(new ArrayList<String>(set));
+            }
+        }
+        org.junit.Assert.assertEquals(new ArrayList<String>(set), trie.getWords());
+        for (int i = 0; i < versions.size(); ++i)
+        {
+            org.junit.Assert.assertEquals(expected.get(i), versions.get(i).getWords());
+        }
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException
+    {
+        final PersistentTrie trie = new PersistentTrie();
+        final AtomicBoolean isFailed = new AtomicBoolean();
+        final Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; ++i)
+        {
+            final int id = i;
+            writers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 500; ++j)
+                    {
+                        trie.add("w" + id + "-" + j);
+                    }
+                }
+            };
+        }
+        final Thread reader = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                for (int j = 0; j < 200; ++j)
+                {
+                    final PersistentTrie.Version version = trie.version();
+                    final int size = version.size();
+                    if (version.getWords().size() != size)
+                    {
+                        isFailed.set(true);
+                    }
+                }
+            }
+        };
+        for (final Thread writer : writers)
+        {
+            writer.start();
+        }
+        reader.start();
+        for (final Thread writer : writers)
+        {
+            writer.join();
+        }
+        reader.join();
+
+        org.junit.Assert.assertFalse(isFailed.get());
+        org.junit.Assert.assertEquals(2000, trie.size());
+        org.junit.Assert.assertEquals(500, trie.countWords("w3-"));
+    }
+}
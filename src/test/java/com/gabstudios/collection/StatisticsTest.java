@@ -0,0 +1,143 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class StatisticsTest
+{
+
+    @Test
+    public void testTrie()
+    {
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        trie.add("car");
+        trie.add("cart");
+        trie.add("cat");
+        trie.add("dog");
+
+        // * -> c -> a -> {r -> t, t} and * -> d -> o -> g
+        final Statistics statistics = trie.getStatistics();
+        org.junit.Assert.assertEquals(9, statistics.getNodeCount());
+        org.junit.Assert.assertEquals(4, statistics.getWordCount());
+        org.junit.Assert.assertEquals(4, statistics.getMaxDepth());
+        org.junit.Assert.assertArrayEquals(new int[] { 1, 2, 2, 3, 1 }, statistics.getDepthHistogram());
+        org.junit.Assert.assertArrayEquals(new int[] { 3, 4, 2 }, statistics.getFanoutHistogram());
+        org.junit.Assert.assertEquals(2, statistics.getMaxFanout());
+        org.junit.Assert.assertEquals(8.0 / 6.0, statistics.getAverageFanout(), 0.0001);
+
+        // the chains are c, r and d -> o.
+        org.junit.Assert.assertEquals(3, statistics.getSingleChildChainCount());
+        org.junit.Assert.assertEquals(2, statistics.getLongestSingleChildChain());
+        org.junit.Assert.assertTrue(statistics.getEstimatedBytes() > 9 * 40);
+        org.junit.Assert.assertTrue(statistics.toString().contains("nodeCount=9"));
+    }
+
+    @Test
+    public void testEmptyTrie()
+    {
+        final Statistics statistics = new LinkedHashMapTrie().getStatistics();
+        org.junit.Assert.assertEquals(1, statistics.getNodeCount());
+        org.junit.Assert.assertEquals(0, statistics.getWordCount());
+        org.junit.Assert.assertArrayEquals(new int[] { 1 }, statistics.getDepthHistogram());
+        org.junit.Assert.assertArrayEquals(new int[] { 1 }, statistics.getFanoutHistogram());
+        org.junit.Assert.assertEquals(0.0, statistics.getAverageFanout(), 0.0);
+        org.junit.Assert.assertEquals(0, statistics.getSingleChildChainCount());
+    }
+
+    @Test
+    public void testEstimatedBytes()
+    {
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        final TrieMap<String> map = new TrieMap<String>();
+        final WeightedLinkedHashMapTrie weighted = new WeightedLinkedHashMapTrie();
+        trie.add("word");
+        map.put("word", "value");
+        weighted.add("word", 1);
+
+        final long bytes = trie.getStatistics().getEstimatedBytes();
+        org.junit.Assert.assertTrue(bytes <= map.getStatistics().getEstimatedBytes());
+        org.junit.Assert.assertTrue(bytes < weighted.getStatistics().getEstimatedBytes());
+
+        // a map with more children uses more bytes.
+        trie.add("x");
+        trie.add("y");
+        org.junit.Assert.assertTrue(bytes < trie.getStatistics().getEstimatedBytes());
+    }
+
+    @Test
+    public void testDeepTrie()
+    {
+        final LinkedHashMapTrie trie = new LinkedHashMapTrie();
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 20000; ++i)
+        {
+            word.append('a');
+        }
+        trie.add(word.toString());
+
+        final Statistics statistics = trie.getStatistics();
+        org.junit.Assert.assertEquals(20001, statistics.getNodeCount());
+        org.junit.Assert.assertEquals(20000, statistics.getMaxDepth());
+        org.junit.Assert.assertEquals(1, statistics.getSingleChildChainCount());
+        org.junit.Assert.assertEquals(20000, statistics.getLongestSingleChildChain());
+    }
+
+    @Test
+    public void testTree()
+    {
+        final LinkedHashMapTree<String> tree = new LinkedHashMapTree<String>("root");
+        final LinkedHashMapTree.Node<String> a = tree.getRoot().addChild("a");
+        tree.getRoot().addChild("b");
+        a.addChild("c").addChild("d");
+
+        final Statistics statistics = tree.getStatistics();
+        org.junit.Assert.assertEquals(5, statistics.getNodeCount());
+        org.junit.Assert.assertEquals(2, statistics.getWordCount());
+        org.junit.Assert.assertArrayEquals(new int[] { 1, 2, 1, 1 }, statistics.getDepthHistogram());
+        org.junit.Assert.assertArrayEquals(new int[] { 2, 2, 1 }, statistics.getFanoutHistogram());
+        org.junit.Assert.assertEquals(1, statistics.getSingleChildChainCount());
+        org.junit.Assert.assertEquals(2, statistics.getLongestSingleChildChain());
+    }
+
+    @Test
+    public void testBinaryTree()
+    {
+        final BinaryTree<Integer> tree = new BinaryTree<Integer>(1);
+        final BinaryTree.Node<Integer> left = tree.getRoot().setLeftChild(2);
+        tree.getRoot().setRightChild(3);
+        left.setLeftChild(4);
+
+        final Statistics statistics = tree.getStatistics();
+        org.junit.Assert.assertEquals(4, statistics.getNodeCount());
+        org.junit.Assert.assertEquals(2, statistics.getWordCount());
+        org.junit.Assert.assertEquals(2, statistics.getMaxDepth());
+        org.junit.Assert.assertArrayEquals(new int[] { 2, 1, 1 }, statistics.getFanoutHistogram());
+        org.junit.Assert.assertEquals(4 * 32, statistics.getEstimatedBytes());
+    }
+}
@@ -0,0 +1,165 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+
+package com.gabstudios.collection;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class SuffixTreeTest
+{
+
+    @Test
+    public void testFindContaining()
+    {
+        SuffixTree tree = new SuffixTree();
+        tree.add("banana");
+        tree.add("bandana");
+        tree.add("cabana");
+        tree.add("apple");
+
+        final Set<String> words = new HashSet<String>(tree.findContaining("ana", 10));
+        org.junit.Assert.assertEquals(3, words.size());
+        org.junit.Assert.assertTrue(words.contains("banana"));
+        org.junit.Assert.assertTrue(words.contains("bandana"));
+        org.junit.Assert.assertTrue(words.contains("cabana"));
+
+        org.junit.Assert.assertEquals(1, tree.findContaining("ppl", 10).size());
+        org.junit.Assert.assertEquals(1, tree.findContaining("dan", 10).size());
+        org.junit.Assert.assertTrue(tree.findContaining("nab", 10).isEmpty());
+        org.junit.Assert.assertTrue(tree.findContaining("bananas", 10).isEmpty());
+        org.junit.Assert.assertEquals(4, tree.findContaining("", 10).size());
+    }
+
+    @Test
+    public void testLimit()
+    {
+        SuffixTree tree = new SuffixTree();
+        tree.add("banana");
+        tree.add("bandana");
+        tree.add("cabana");
+
+        org.junit.Assert.assertEquals(2, tree.findContaining("an", 2).size());
+        org.junit.Assert.assertTrue(tree.findContaining("an", 0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit()
+    {
+        SuffixTree tree = new SuffixTree();
+        tree.findContaining("an", -1);
+    }
+
+    @Test
+    public void testAddAgain()
+    {
+        SuffixTree tree = new SuffixTree();
+        tree.add("banana");
+        final int count = tree.getNodeCount();
+        tree.add("banana");
+
+        org.junit.Assert.assertEquals(1, tree.size());
+        org.junit.Assert.assertEquals(count, tree.getNodeCount());
+        org.junit.Assert.assertTrue(tree.contains("banana"));
+        org.junit.Assert.assertFalse(tree.contains("banan"));
+        org.junit.Assert.assertEquals(1, tree.findContaining("a", 10).size());
+    }
+
+    @Test
+    public void testSuffixOfAnotherWord()
+    {
+        // the suffixes of "a" are in "ba" already, so they need their own
+        // terminator to be found.
+        SuffixTree tree = new SuffixTree();
+        tree.add("ba");
+        tree.add("a");
+
+        org.junit.Assert.assertEquals(2, tree.findContaining("a", 10).size());
+    }
+
+    @Test
+    public void testClear()
+    {
+        SuffixTree tree = new SuffixTree();
+        tree.add("banana");
+        tree.clear();
+
+        org.junit.Assert.assertEquals(0, tree.size());
+        org.junit.Assert.assertEquals(1, tree.getNodeCount());
+        org.junit.Assert.assertTrue(tree.findContaining("a", 10).isEmpty());
+    }
+
+    @Test
+    public void testSameAsScan()
+    {
+        final Random random = new Random(17);
+        final SuffixTree tree = new SuffixTree();
+        final List<String> words = new ArrayList<String>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            final String word = randomWord(random, 1 + random.nextInt(12));
+            tree.add(word);
+            if (!words.contains(word))
+            {
+                words.add(word);
+            }
+        }
+        org.junit.Assert.assertEquals(words, tree.getWords());
+
+        for (int i = 0; i < 500; ++i)
+        {
+            final String fragment = randomWord(random, 1 + random.nextInt(4));
+            final Set<String> expected = new HashSet<String>();
+            for (final String word : words)
+            {
+                if (word.contains(fragment))
+                {
+                    expected.add(word);
+                }
+            }
+            final List<String> found = tree.findContaining(fragment, Integer.MAX_VALUE);
+            org.junit.Assert.assertEquals(fragment, expected.size(), found.size());
+            org.junit.Assert.assertEquals(fragment, expected, new HashSet<String>(found));
+        }
+    }
+
+    private static String randomWord(final Random random, final int count)
+    {
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; ++i)
+        {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return (word.toString());
+    }
+}
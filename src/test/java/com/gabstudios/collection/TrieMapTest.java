@@ -0,0 +1,180 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class TrieMapTest
+{
+
+    @Test
+    public void testPutGet()
+    {
+        TrieMap<Integer> trie = new TrieMap<Integer>();
+        org.junit.Assert.assertNull(trie.put("hello", 1));
+        org.junit.Assert.assertNull(trie.put("help", 2));
+        org.junit.Assert.assertEquals(Integer.valueOf(1), trie.put("hello", 3));
+
+        org.junit.Assert.assertEquals(Integer.valueOf(3), trie.get("hello"));
+        org.junit.Assert.assertEquals(Integer.valueOf(2), trie.get(new StringBuilder("help")));
+        org.junit.Assert.assertNull(trie.get("hel"));
+        org.junit.Assert.assertNull(trie.get("helping"));
+        org.junit.Assert.assertTrue(trie.containsKey("help"));
+        org.junit.Assert.assertFalse(trie.containsKey("hel"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void testAddHoldsNull()
+    {
+        TrieMap<String> trie = new TrieMap<String>();
+        trie.add("hello");
+
+        org.junit.Assert.assertTrue(trie.containsKey("hello"));
+        org.junit.Assert.assertNull(trie.get("hello"));
+        org.junit.Assert.assertTrue(trie.prefixMap("").containsKey("hello"));
+    }
+
+    @Test
+    public void testRemove()
+    {
+        TrieMap<Integer> trie = new TrieMap<Integer>();
+        trie.put("hello", 1);
+        trie.put("helloworld", 2);
+
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertFalse(trie.remove("hello"));
+        org.junit.Assert.assertNull(trie.get("hello"));
+        org.junit.Assert.assertEquals(Integer.valueOf(2), trie.get("helloworld"));
+
+        // the node is kept for helloworld, so the value must not come back.
+        trie.add("hello");
+        org.junit.Assert.assertNull(trie.get("hello"));
+    }
+
+    @Test
+    public void testPrefixMap()
+    {
+        TrieMap<Integer> trie = new TrieMap<Integer>();
+        trie.put("car", 1);
+        trie.put("card", 2);
+        trie.put("care", 3);
+        trie.put("cat", 4);
+        trie.put("dog", 5);
+
+        final Map<String, Integer> cars = trie.prefixMap("car");
+        org.junit.Assert.assertEquals(3, cars.size());
+        org.junit.Assert.assertEquals(Integer.valueOf(2), cars.get("card"));
+        org.junit.Assert.assertNull(cars.get("cat"));
+        org.junit.Assert.assertFalse(cars.containsKey("dog"));
+
+        final Map<String, Integer> expected = new HashMap<String, Integer>();
+        expected.put("car", 1);
+        expected.put("card", 2);
+        expected.put("care", 3);
+        org.junit.Assert.assertEquals(expected, cars);
+
+        org.junit.Assert.assertEquals(0, trie.prefixMap("x").size());
+        org.junit.Assert.assertTrue(trie.prefixMap("cars").isEmpty());
+        org.junit.Assert.assertEquals(5, trie.prefixMap("").size());
+    }
+
+    @Test
+    public void testPrefixMapIsLive()
+    {
+        TrieMap<Integer> trie = new TrieMap<Integer>();
+        final Map<String, Integer> cars = trie.prefixMap("car");
+        org.junit.Assert.assertTrue(cars.isEmpty());
+
+        trie.put("cart", 1);
+        org.junit.Assert.assertEquals(1, cars.size());
+
+        cars.put("carp", 2);
+        org.junit.Assert.assertEquals(Integer.valueOf(2), trie.get("carp"));
+
+        org.junit.Assert.assertEquals(Integer.valueOf(1), cars.remove("cart"));
+        org.junit.Assert.assertNull(cars.remove("cart"));
+        org.junit.Assert.assertFalse(trie.containsKey("cart"));
+
+        final Iterator<Map.Entry<String, Integer>> iterator = cars.entrySet().iterator();
+        final Map.Entry<String, Integer> entry = iterator.next();
+        org.junit.Assert.assertEquals("carp", entry.getKey());
+        entry.setValue(7);
+        org.junit.Assert.assertEquals(Integer.valueOf(7), trie.get("carp"));
+        org.junit.Assert.assertFalse(iterator.hasNext());
+
+        trie.put("dog", 3);
+        cars.clear();
+        org.junit.Assert.assertEquals(1, trie.size());
+        org.junit.Assert.assertTrue(trie.containsKey("dog"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrefixMapPutOutOfRange()
+    {
+        TrieMap<Integer> trie = new TrieMap<Integer>();
+        trie.prefixMap("car").put("dog", 1);
+    }
+
+    @Test
+    public void testSameAsMap()
+    {
+        final Random random = new Random(17);
+        final TrieMap<Integer> trie = new TrieMap<Integer>();
+        final Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 20000; ++i)
+        {
+            final String key = Integer.toString(random.nextInt(2000), 7);
+            if (random.nextInt(3) == 0)
+            {
+                org.junit.Assert.assertEquals(key, expected.remove(key), trie.prefixMap("").remove(key));
+            }
+            else
+            {
+                org.junit.Assert.assertEquals(key, expected.put(key, i), trie.put(key, i));
+            }
+        }
+        org.junit.Assert.assertEquals(expected, trie.prefixMap(""));
+
+        final Map<String, Integer> ones = new HashMap<String, Integer>();
+        for (final Map.Entry<String, Integer> entry : expected.entrySet())
+        {
+            if (entry.getKey().startsWith("1"))
+            {
+                ones.put(entry.getKey(), entry.getValue());
+            }
+        }
+        org.junit.Assert.assertEquals(ones, trie.prefixMap("1"));
+    }
+}
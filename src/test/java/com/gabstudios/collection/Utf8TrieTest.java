@@ -0,0 +1,266 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class Utf8TrieTest
+{
+
+    @Test
+    public void testGetWordsWithParamter()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        List<String> words = trie.getWords("hell012222222");
+        org.junit.Assert.assertTrue(words.contains("hello"));
+        org.junit.Assert.assertTrue(words.contains("helloworld"));
+        org.junit.Assert.assertEquals(2, words.size());
+    }
+
+    @Test
+    public void testContains()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("helloworld");
+        trie.add("hello");
+        trie.add("hey");
+        trie.add("world");
+
+        org.junit.Assert.assertTrue(trie.contains("world"));
+        org.junit.Assert.assertTrue(trie.contains("hello"));
+        org.junit.Assert.assertFalse(trie.contains("he"));
+        org.junit.Assert.assertFalse(trie.contains("hellow"));
+        org.junit.Assert.assertFalse(trie.contains("worlds"));
+        org.junit.Assert.assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void testSupplementaryCharacters()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        // a grinning face, and a CJK extension B ideograph.
+        trie.add("smile\uD83D\uDE00");
+        trie.add("\uD840\uDC00");
+        trie.add("caf\u00e9");
+
+        org.junit.Assert.assertTrue(trie.contains("smile\uD83D\uDE00"));
+        org.junit.Assert.assertTrue(trie.contains("\uD840\uDC00"));
+        org.junit.Assert.assertFalse(trie.contains("\uD840"));
+        org.junit.Assert.assertFalse(trie.contains("smile\uD83D"));
+        // root, "smile" and four bytes, four bytes, "caf" and two bytes.
+        org.junit.Assert.assertEquals(1 + 9 + 4 + 5, trie.getNodeCount());
+
+        final List<String> words = trie.getWords();
+        org.junit.Assert.assertEquals(3, words.size());
+        org.junit.Assert.assertEquals("caf\u00e9", words.get(0));
+        org.junit.Assert.assertEquals("smile\uD83D\uDE00", words.get(1));
+        org.junit.Assert.assertEquals("\uD840\uDC00", words.get(2));
+    }
+
+    @Test
+    public void testContainsBytes()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("caf\u00e9");
+        trie.add("\uD83D\uDE00");
+
+        final byte[] bytes = "xcaf\u00e9\uD83D\uDE00".getBytes(StandardCharsets.UTF_8);
+        org.junit.Assert.assertTrue(trie.contains(bytes, 1, 5));
+        org.junit.Assert.assertTrue(trie.contains(bytes, 6, 4));
+        org.junit.Assert.assertFalse(trie.contains(bytes, 1, 4));
+        org.junit.Assert.assertFalse(trie.contains(bytes, 0, 0));
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.position(1);
+        buffer.limit(6);
+        org.junit.Assert.assertTrue(trie.contains(buffer));
+        org.junit.Assert.assertEquals(1, buffer.position());
+        buffer.limit(7);
+        org.junit.Assert.assertFalse(trie.contains(buffer));
+
+        trie.add(bytes, 0, 1);
+        org.junit.Assert.assertTrue(trie.contains("x"));
+        org.junit.Assert.assertEquals(3, trie.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testContainsBytesOutOfRange()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.contains(new byte[4], 2, 3);
+    }
+
+    @Test
+    public void testRange()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("token \uD83D\uDE00 stream", 6, 8);
+
+        org.junit.Assert.assertTrue(trie.contains("\uD83D\uDE00"));
+        org.junit.Assert.assertTrue(trie.contains("a \uD83D\uDE00", 2, 4));
+        org.junit.Assert.assertFalse(trie.contains("a \uD83D\uDE00", 2, 3));
+        org.junit.Assert.assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void testUnpairedSurrogate()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("a\uD83D");
+
+        // held the same as the encoder of a String.
+        org.junit.Assert.assertTrue(trie.contains("a?"));
+        org.junit.Assert.assertTrue(trie.contains("a\uDE00"));
+        org.junit.Assert.assertTrue(trie.contains("a\uD83D".getBytes(StandardCharsets.UTF_8), 0, 2));
+    }
+
+    @Test
+    public void testClear()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("helloworld");
+        trie.add("world");
+        trie.clear();
+
+        org.junit.Assert.assertFalse(trie.contains("world"));
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        org.junit.Assert.assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void testRemove()
+    {
+        Utf8Trie trie = new Utf8Trie();
+        trie.add("hello\u00e9");
+        trie.add("hello");
+        trie.add("hey");
+
+        org.junit.Assert.assertTrue(trie.remove("hello\u00e9"));
+        org.junit.Assert.assertFalse(trie.remove("hello\u00e9"));
+        org.junit.Assert.assertFalse(trie.remove("hell"));
+        // root, "h", "e", "l", "l", "o", "y"
+        org.junit.Assert.assertEquals(7, trie.getNodeCount());
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertTrue(trie.remove("hey"));
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+        org.junit.Assert.assertTrue(trie.getRoot().isLeaf());
+    }
+
+    @Test
+    public void testSameAsSet()
+    {
+        final Random random = new Random(17);
+        final Utf8Trie trie = new Utf8Trie();
+        final Set<String> expected = new HashSet<String>();
+        for (int i = 0; i < 20000; ++i)
+        {
+            final String word = randomWord(random);
+            if (random.nextInt(3) == 0)
+            {
+                org.junit.Assert.assertEquals(word, expected.remove(word), trie.remove(word));
+            }
+            else
+            {
+                org.junit.Assert.assertEquals(word, expected.add(word), !trie.contains(word));
+                trie.add(word);
+            }
+        }
+        org.junit.Assert.assertEquals(expected.size(), trie.size());
+
+        // the words are in code point order, which is the order of the bytes.
+        final List<String> sorted = new ArrayList<String>(expected);
+        Collections.sort(sorted, new Comparator<String>()
+        {
+            @Override
+            public int compare(final String first, final String second)
+            {
+                final byte[] a = first.getBytes(StandardCharsets.UTF_8);
+                final byte[] b = second.getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < a.length && i < b.length; ++i)
+                {
+                    if (a[i] != b[i])
+                    {
+                        return ((a[i] & 0xFF) - (b[i] & 0xFF));
+                    }
+                }
+                return (a.length - b.length);
+            }
+        });
+        org.junit.Assert.assertEquals(sorted, trie.getWords());
+        for (final String word : expected)
+        {
+            org.junit.Assert.assertTrue(word, trie.remove(word));
+        }
+        org.junit.Assert.assertEquals(1, trie.getNodeCount());
+    }
+
+    private static String randomWord(final Random random)
+    {
+        // mostly ASCII, with a few two byte, three byte and four byte characters.
+        final StringBuilder word = new StringBuilder();
+        final int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; ++i)
+        {
+            final int kind = random.nextInt(20);
+            if (kind == 0)
+            {
+                word.append((char) (0x400 + random.nextInt(300)));
+            }
+            else if (kind == 1)
+            {
+                word.append((char) (0xE000 + random.nextInt(300)));
+            }
+            else if (kind == 2)
+            {
+                word.appendCodePoint(0x1F600 + random.nextInt(300));
+            }
+            else
+            {
+                word.append((char) (' ' + random.nextInt(90)));
+            }
+        }
+        return (word.toString());
+    }
+}
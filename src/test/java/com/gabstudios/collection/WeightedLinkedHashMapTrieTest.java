@@ -0,0 +1,217 @@
+/*****************************************************************************************
+ *
+ * Copyright 2015 Gregory Brown. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ *****************************************************************************************
+ */
+
+package com.gabstudios.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ *
+ * @author Gregory Brown (sysdevone)
+ *
+ */
+public class WeightedLinkedHashMapTrieTest
+{
+
+    @Test
+    public void testTopK()
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("helloworld", 5);
+        trie.add("hello", 10);
+        trie.add("help", 7);
+        trie.add("hey", 1);
+        trie.add("world", 100);
+
+        List<String> words = trie.topK("hel", 2);
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "help"), words);
+
+        words = trie.topK("he", 10);
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "help", "helloworld", "hey"), words);
+
+        words = trie.topK("", 1);
+        org.junit.Assert.assertEquals(Arrays.asList("world"), words);
+
+        org.junit.Assert.assertEquals(0, trie.topK("he", 0).size());
+    }
+
+    @Test
+    public void testTopKSameAsSorted()
+    {
+        final Random random = new Random(4);
+        final WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        final Map<String, Long> scores = new HashMap<String, Long>();
+        for (int i = 0; i < 3000; ++i)
+        {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; ++j)
+            {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            // distinct scores, so the order of the best words is known.
+            final long score = random.nextInt(1000) * 4000L + i;
+            trie.add(word.toString(), score);
+            scores.put(word.toString(), score);
+        }
+
+        for (final String prefix : new String[] { "", "a", "ab", "bca", "dddd" })
+        {
+            final List<String> expected = new ArrayList<String>();
+            for (final String word : scores.keySet())
+            {
+                if (word.startsWith(prefix))
+                {
+                    expected.add(word);
+                }
+            }
+            Collections.sort(expected, new Comparator<String>()
+            {
+                @Override
+                public int compare(final String first, final String second)
+                {
+                    return (Long.compare(scores.get(second), scores.get(first)));
+                }
+            });
+            for (final int k : new int[] { 1, 3, 10, 50 })
+            {
+                org.junit.Assert.assertEquals(expected.subList(0, Math.min(k, expected.size())),
+                        trie.topK(prefix, k));
+            }
+        }
+    }
+
+    @Test
+    public void testAddAllKeepsScores()
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("hello", 10);
+        trie.addAll(Arrays.asList("help", "hey"));
+        trie.add("helping", 0, 4);
+
+        org.junit.Assert.assertEquals(10, trie.getScore("hello"));
+        org.junit.Assert.assertEquals(0, trie.getScore("hey"));
+        org.junit.Assert.assertEquals(Arrays.asList("hello"), trie.topK("he", 1));
+        org.junit.Assert.assertEquals(3, trie.topK("he", 10).size());
+    }
+
+    @Test
+    public void testScoreChange()
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("hello", 10);
+        trie.add("help", 7);
+
+        trie.add("hello", 1);
+        org.junit.Assert.assertEquals(1, trie.getScore("hello"));
+        org.junit.Assert.assertEquals(Arrays.asList("help", "hello"), trie.topK("he", 2));
+
+        trie.add("hello", 20);
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "help"), trie.topK("he", 2));
+        org.junit.Assert.assertEquals(20, ((WeightedLinkedHashMapTrie.WeightedTrieNode) trie.getRoot()).getBestScore());
+    }
+
+    @Test
+    public void testClear()
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("hello", 10);
+
+        trie.clear();
+
+        org.junit.Assert.assertFalse(trie.contains("hello"));
+        org.junit.Assert.assertEquals(0, trie.topK("", 5).size());
+    }
+
+    @Test
+    public void testWriteToReadFrom() throws IOException
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("hello", 10);
+        trie.add("help", 7);
+        trie.add("world", 3);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        trie.writeTo(output);
+
+        WeightedLinkedHashMapTrie restored = new WeightedLinkedHashMapTrie();
+        restored.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+        org.junit.Assert.assertEquals(7, restored.getScore("help"));
+        org.junit.Assert.assertEquals(Arrays.asList("hello", "help", "world"), restored.topK("", 3));
+        org.junit.Assert.assertEquals(10, ((WeightedLinkedHashMapTrie.WeightedTrieNode) restored.getRoot()).getBestScore());
+    }
+
+    @Test
+    public void testReadFromOtherFormat() throws IOException
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("ab", 5);
+        trie.add("ac", 3);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        trie.writeTo(output);
+
+        LinkedHashMapTrie restored = new LinkedHashMapTrie();
+        restored.add("x");
+        try
+        {
+            restored.readFrom(new ByteArrayInputStream(output.toByteArray()));
+            org.junit.Assert.fail("A weighted stream should not be read by a LinkedHashMapTrie.");
+        }
+        catch (final IOException e)
+        {
+            // expected.
+        }
+        org.junit.Assert.assertEquals(Arrays.asList("x"), restored.getWords());
+    }
+
+    @Test
+    public void testRemove()
+    {
+        WeightedLinkedHashMapTrie trie = new WeightedLinkedHashMapTrie();
+        trie.add("hello", 10);
+        trie.add("helloworld", 3);
+        trie.add("help", 7);
+
+        org.junit.Assert.assertTrue(trie.remove("hello"));
+        org.junit.Assert.assertEquals(0, trie.getScore("hello"));
+        org.junit.Assert.assertEquals(Arrays.asList("help", "helloworld"), trie.topK("he", 5));
+        org.junit.Assert.assertEquals(7, ((WeightedLinkedHashMapTrie.WeightedTrieNode) trie.getRoot()).getBestScore());
+
+        org.junit.Assert.assertTrue(trie.remove("help"));
+        org.junit.Assert.assertEquals(3, ((WeightedLinkedHashMapTrie.WeightedTrieNode) trie.getRoot()).getBestScore());
+        org.junit.Assert.assertFalse(trie.remove("help"));
+    }
+}